@@ -1,10 +1,34 @@
 package com.logisim.domain;
 
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.BitParallelEvaluator;
+import com.logisim.domain.simulation.CompiledCircuit;
+import com.logisim.domain.simulation.ConeOfInfluence;
+import com.logisim.domain.simulation.EnumerationOrder;
+import com.logisim.domain.simulation.EventDrivenSimulator;
+import com.logisim.domain.simulation.FlattenedCircuit;
+import com.logisim.domain.simulation.IncrementalSimulator;
+import com.logisim.domain.simulation.LevelizedSchedule;
+import com.logisim.domain.simulation.Netlist;
+import com.logisim.domain.simulation.ProgressMonitor;
+import com.logisim.domain.simulation.SccSimulator;
+import com.logisim.domain.simulation.SignalChanges;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import com.logisim.domain.simulation.StronglyConnectedComponents;
+import com.logisim.domain.simulation.TruthTable;
+import com.logisim.domain.simulation.TruthTableEnumerator;
+import com.logisim.domain.simulation.TruthTableRow;
+import com.logisim.domain.simulation.TruthTableVisitor;
+
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a circuit containing components and connectors.
@@ -17,6 +41,17 @@ public class Circuit {
     private String name;
     private List<Component> components;
     private List<Connector> connectors;
+    // Runtime policy, not project state: not saved, and back to the defaults when a project is loaded
+    private transient SimulationMode simulationMode = SimulationMode.EVENT_DRIVEN;
+    private transient EnumerationOrder enumerationOrder = EnumerationOrder.GRAY_CODE;
+    private transient Netlist netlist;
+    private transient LevelizedSchedule schedule;
+    private transient BitParallelEvaluator bitParallelEvaluator;
+    private transient StronglyConnectedComponents stronglyConnectedComponents;
+    private transient IncrementalSimulator incrementalSimulator;
+    private transient Netlist settledNetlist;
+    private transient volatile long version;
+    private transient volatile CompiledCircuit compiledCircuit;
 
     /**
      * Default constructor.
@@ -52,7 +87,10 @@ public class Circuit {
      * @param name The circuit name
      */
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            version++;
+        }
     }
 
     /**
@@ -71,6 +109,8 @@ public class Circuit {
      */
     public void setComponents(List<Component> components) {
         this.components = components;
+        adoptComponents();
+        invalidate();
     }
 
     /**
@@ -89,6 +129,8 @@ public class Circuit {
      */
     public void setConnectors(List<Connector> connectors) {
         this.connectors = connectors;
+        adoptComponents();
+        invalidate();
     }
 
     /**
@@ -99,6 +141,8 @@ public class Circuit {
     public void addComponent(Component component) {
         if (component != null && !components.contains(component)) {
             components.add(component);
+            component.setOwner(this);
+            invalidate();
         }
     }
 
@@ -111,9 +155,18 @@ public class Circuit {
      */
     public boolean removeComponent(Component component) {
         if (components.remove(component)) {
+            if (component.getOwner() == this) {
+                component.setOwner(null);
+            }
             // Remove all connectors connected to this component
-            connectors.removeIf(connector -> 
-                connector.getSource() == component || connector.getSink() == component);
+            connectors.removeIf(connector -> {
+                boolean attached = connector.getSource() == component || connector.getSink() == component;
+                if (attached && connector.getOwner() == this) {
+                    connector.setOwner(null);
+                }
+                return attached;
+            });
+            invalidate();
             return true;
         }
         return false;
@@ -127,6 +180,8 @@ public class Circuit {
     public void addConnector(Connector connector) {
         if (connector != null && !connectors.contains(connector)) {
             connectors.add(connector);
+            connector.setOwner(this);
+            invalidate();
         }
     }
 
@@ -137,120 +192,520 @@ public class Circuit {
      * @return true if removed, false otherwise
      */
     public boolean removeConnector(Connector connector) {
-        return connectors.remove(connector);
+        int index = connectors.indexOf(connector);
+        if (index >= 0) {
+            Connector removed = connectors.remove(index);
+            if (removed.getOwner() == this) {
+                removed.setOwner(null);
+            }
+            invalidate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the simulation mode.
+     * 
+     * @return The simulation mode
+     */
+    public SimulationMode getSimulationMode() {
+        return simulationMode != null ? simulationMode : SimulationMode.EVENT_DRIVEN;
+    }
+
+    /**
+     * Sets the simulation mode.
+     * 
+     * @param simulationMode The simulation mode
+     */
+    public void setSimulationMode(SimulationMode simulationMode) {
+        this.simulationMode = simulationMode;
+    }
+
+    /**
+     * Gets the order in which scalar truth table analysis walks the input space.
+     * The order applies to columnar truth tables; rows streamed to a visitor are always in binary order.
+     * 
+     * @return The enumeration order
+     */
+    public EnumerationOrder getEnumerationOrder() {
+        return enumerationOrder != null ? enumerationOrder : EnumerationOrder.GRAY_CODE;
+    }
+
+    /**
+     * Sets the order in which scalar truth table analysis walks the input space.
+     * 
+     * @param enumerationOrder The enumeration order
+     */
+    public void setEnumerationOrder(EnumerationOrder enumerationOrder) {
+        this.enumerationOrder = enumerationOrder;
     }
 
     /**
      * Simulates the circuit execution with given input values.
+     * Propagation is event-driven: only components whose inputs change are re-executed.
+     * In compiled mode, acyclic circuits are evaluated in one pass over a levelized schedule.
+     * Circuits with feedback iterate each loop on its own; see {@link #simulateWithDiagnostics(Map)}.
      * 
      * @param inputs Map of component names to their input values
      * @return Map of component names to their output values
      */
     public Map<String, Boolean> simulate(Map<String, Boolean> inputs) {
-        Map<String, Boolean> outputs = new HashMap<>();
-        Map<Component, Boolean> componentOutputs = new HashMap<>();
-
-        // Set input values for components
-        for (Map.Entry<String, Boolean> entry : inputs.entrySet()) {
-            Component component = findComponentByName(entry.getKey());
-            if (component != null && component.getInputs().size() > 0) {
-                component.setInput(0, entry.getValue());
+        return simulateWithDiagnostics(inputs).getOutputs();
+    }
+
+    /**
+     * Simulates the circuit and reports how every feedback loop settled.
+     * Components outside loops are evaluated once in topological order; each
+     * loop is swept until stable, and loops that revisit a state are reported
+     * as oscillating.
+     * 
+     * @param inputs Map of component names to their input values
+     * @return The outputs and one diagnostic per feedback loop
+     */
+    public SimulationResult simulateWithDiagnostics(Map<String, Boolean> inputs) {
+        LevelizedSchedule compiled = getSchedule();
+        Netlist current = getNetlist();
+        SimulationResult result;
+        if (compiled.isAcyclic()) {
+            Map<String, Boolean> outputs = getSimulationMode() == SimulationMode.COMPILED
+                    ? compiled.simulate(inputs)
+                    : new EventDrivenSimulator(current).simulate(inputs);
+            result = new SimulationResult(outputs, List.of());
+        } else if (current.getComponentCount() != current.getCircuitComponentCount()) {
+            // Connectors to foreign components: no complete graph to decompose
+            result = new SimulationResult(new EventDrivenSimulator(current).simulate(inputs), List.of());
+        } else {
+            result = new SccSimulator(getStronglyConnectedComponents()).simulate(inputs);
+        }
+        settledNetlist = result.isStable() && current.getComponentCount() == current.getCircuitComponentCount()
+                ? current : null;
+        return result;
+    }
+
+    /**
+     * Sets the state of a switch and re-simulates only the components it can affect.
+     * The last settled state is kept between calls, so only the switch's fanout
+     * cone is re-evaluated. If the circuit was not settled by a previous
+     * simulation, or its structure changed since, the whole circuit is simulated
+     * and every component is reported as changed.
+     * Component states changed by other means are only picked up by a full simulation.
+     * 
+     * @param sw The switch, which must belong to this circuit
+     * @param state The new switch state
+     * @return The components whose outputs changed
+     * @throws IllegalArgumentException if the switch is not part of this circuit
+     */
+    public SignalChanges setSwitchState(Switch sw, boolean state) {
+        Netlist current = getNetlist();
+        int index = current.indexOf(sw);
+        if (index < 0 || index >= current.getCircuitComponentCount()) {
+            throw new IllegalArgumentException("Switch is not part of this circuit");
+        }
+        if (settledNetlist == current) {
+            if (sw.getState() == state) {
+                return new SignalChanges(current, new BitSet(), true, false);
+            }
+            sw.setState(state);
+            if (incrementalSimulator == null || incrementalSimulator.getNetlist() != current) {
+                incrementalSimulator = new IncrementalSimulator(getStronglyConnectedComponents());
+            }
+            SignalChanges changes = incrementalSimulator.propagate(index);
+            if (!changes.isStable()) {
+                settledNetlist = null;
             }
+            return changes;
         }
 
-        // Execute all components
-        for (Component component : components) {
-            component.execute();
-            componentOutputs.put(component, component.getOutput(0));
+        sw.setState(state);
+        SimulationResult result = simulateWithDiagnostics(new HashMap<>());
+        BitSet all = new BitSet();
+        all.set(0, current.getComponentCount());
+        return new SignalChanges(current, all, result.isStable(), true);
+    }
+
+    /**
+     * Gets the strongly connected components for the current structure, computing them if stale.
+     * 
+     * @return The components, in topological order
+     */
+    public StronglyConnectedComponents getStronglyConnectedComponents() {
+        Netlist current = getNetlist();
+        if (stronglyConnectedComponents == null || stronglyConnectedComponents.getNetlist() != current) {
+            stronglyConnectedComponents = StronglyConnectedComponents.compute(current);
         }
+        return stronglyConnectedComponents;
+    }
+
+    /**
+     * Gets the structural version of the circuit.
+     * The version changes whenever components or connectors are added, removed
+     * or rebound, and whenever the circuit or one of its components is renamed.
+     * 
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
 
-        // Process connectors to propagate signals
-        boolean changed = true;
-        int iterations = 0;
-        final int MAX_ITERATIONS = 100; // Prevent infinite loops
+    /**
+     * Gets an immutable compiled snapshot of the current structure, compiling it if stale.
+     * The snapshot can be simulated by any number of threads at once, each with
+     * its own {@link com.logisim.domain.simulation.CircuitState}. It is recompiled
+     * when this circuit or a circuit nested in it through sub-circuits changes.
+     * 
+     * @return The snapshot at the current version
+     * @throws IllegalArgumentException if the circuit contains components without a compiled form
+     */
+    public CompiledCircuit compile() {
+        getNetlist();
+        CompiledCircuit current = compiledCircuit;
+        if (current == null || !current.isCurrent()) {
+            current = CompiledCircuit.compile(this);
+            compiledCircuit = current;
+        }
+        return current;
+    }
 
-        while (changed && iterations < MAX_ITERATIONS) {
-            changed = false;
+    /**
+     * Gets the levelized schedule for the current structure, compiling it if stale.
+     * 
+     * @return The schedule; check {@link LevelizedSchedule#isAcyclic()} before using it
+     */
+    public LevelizedSchedule getSchedule() {
+        Netlist current = getNetlist();
+        if (schedule == null || schedule.getNetlist() != current) {
+            schedule = LevelizedSchedule.compile(current);
+        }
+        return schedule;
+    }
+
+    /**
+     * Gets the connectivity index for the current structure, rebuilding it if stale.
+     * Changes made directly to the component or connector lists are detected by size.
+     * 
+     * @return The netlist
+     */
+    public Netlist getNetlist() {
+        if (netlist == null
+                || netlist.getCircuitComponentCount() != components.size()
+                || netlist.getConnectorCount() != connectors.size()) {
+            if (netlist != null) {
+                // The lists were changed directly; drop every cache built on the old structure
+                invalidate();
+            }
+            adoptComponents();
+            netlist = new Netlist(components, connectors);
+        }
+        return netlist;
+    }
+
+    /**
+     * Records the resolved input port on every connector.
+     * Projects saved before connectors carried explicit input indices have all
+     * connectors pointing at port 0; their ports are resolved in connector order
+     * and written back so that later saves bind ports explicitly.
+     * 
+     * @return Number of connectors whose input index was updated
+     */
+    public int migratePortBindings() {
+        Netlist current = getNetlist();
+        int updated = 0;
+        for (int i = 0; i < connectors.size(); i++) {
+            int port = current.getPort(i);
+            Connector connector = connectors.get(i);
+            if (port >= 0 && connector.getSinkInputIndex() != port) {
+                connector.setSinkInputIndex(port);
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            invalidate();
+        }
+        return updated;
+    }
+
+    /**
+     * Finds the lowest input port of a component that no connector drives yet.
+     * 
+     * @param sink The sink component
+     * @return The free input index, or -1 if all inputs are connected
+     */
+    public int findFreeInputIndex(Component sink) {
+        boolean[] used = new boolean[sink.getInputCount()];
+        Netlist current = getNetlist();
+        int sinkIndex = current.indexOf(sink);
+        for (int i = 0; i < current.getConnectorCount() && sinkIndex >= 0; i++) {
+            int port = current.getPort(i);
+            if (current.getSink(i) == sinkIndex && port >= 0 && port < used.length) {
+                used[port] = true;
+            }
+        }
+        for (int port = 0; port < used.length; port++) {
+            if (!used[port]) {
+                return port;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inlines every sub-circuit instance into a single flat circuit of primitive components.
+     * 
+     * @return The flattened circuit
+     * @throws IllegalArgumentException if a sub-circuit contains itself
+     */
+    public FlattenedCircuit flatten() {
+        return FlattenedCircuit.flatten(this);
+    }
+
+    /**
+     * Records a structural change made through one of the circuit's components.
+     */
+    void structureChanged() {
+        invalidate();
+    }
+
+    /**
+     * Registers this circuit as the owner of components and connectors added without
+     * {@link #addComponent(Component)} or {@link #addConnector(Connector)}, such as those
+     * of a loaded project, so that renaming or rebinding them bumps the version.
+     */
+    private void adoptComponents() {
+        if (components != null) {
+            for (Component component : components) {
+                if (component != null && component.getOwner() == null) {
+                    component.setOwner(this);
+                }
+            }
+        }
+        if (connectors != null) {
             for (Connector connector : connectors) {
-                Component source = connector.getSource();
-                Component sink = connector.getSink();
-                
-                if (source != null && sink != null) {
-                    Boolean sourceOutput = componentOutputs.get(source);
-                    if (sourceOutput != null) {
-                        // Find the input index for this connector
-                        int inputIndex = findInputIndex(sink, connector);
-                        if (inputIndex >= 0) {
-                            Boolean oldInput = sink.getInputs().get(inputIndex);
-                            sink.setInput(inputIndex, sourceOutput);
-                            if (!Objects.equals(oldInput, sourceOutput)) {
-                                changed = true;
-                                sink.execute();
-                                componentOutputs.put(sink, sink.getOutput(0));
-                            }
-                        }
-                    }
+                if (connector != null && connector.getOwner() == null) {
+                    connector.setOwner(this);
                 }
             }
-            iterations++;
         }
+    }
 
-        // Collect outputs
-        for (Component component : components) {
-            if (component.getOutputs().size() > 0) {
-                outputs.put(component.getName(), componentOutputs.getOrDefault(component, false));
+    /**
+     * Discards cached structural data after the circuit is modified.
+     */
+    private void invalidate() {
+        netlist = null;
+        schedule = null;
+        bitParallelEvaluator = null;
+        stronglyConnectedComponents = null;
+        incrementalSimulator = null;
+        settledNetlist = null;
+        compiledCircuit = null;
+        version++;
+    }
+
+    /**
+     * Analyzes every output over its structural support only.
+     * Each output's table enumerates just the switches that can reach it
+     * through connectors, and outputs with the same support share one
+     * enumeration. Circuits with feedback, whose rows depend on state, are
+     * analyzed over all switches instead.
+     * 
+     * @param pool The pool to enumerate on, or null to enumerate sequentially
+     * @return Map of output column names to single-output tables, in truth table column order
+     * @throws IllegalArgumentException if an output depends on more than {@link TruthTable#MAX_INPUTS} switches
+     */
+    public Map<String, TruthTable> analyzeOutputCones(ForkJoinPool pool) {
+        Map<String, TruthTable> tables = new LinkedHashMap<>();
+        Netlist current = getNetlist();
+        if (current.getComponentCount() != current.getCircuitComponentCount() || !getSchedule().isAcyclic()) {
+            TruthTable truthTable = analyzeTruthTable(pool);
+            for (int o = 0; o < truthTable.getOutputCount(); o++) {
+                tables.put(truthTable.getOutputName(o), truthTable.selectOutput(o));
             }
+            return tables;
         }
 
-        return outputs;
+        List<Component> switchInputs = findSwitchInputs();
+        ConeOfInfluence cones = ConeOfInfluence.compute(getStronglyConnectedComponents(), switchInputs);
+        Map<BitSet, TruthTable> bySupport = new HashMap<>();
+        for (int o = 0; o < cones.getOutputCount(); o++) {
+            if (cones.getSupportSize(o) > TruthTable.MAX_INPUTS) {
+                throw new IllegalArgumentException(cones.getOutputName(o) + " depends on more than "
+                        + TruthTable.MAX_INPUTS + " inputs");
+            }
+            TruthTable truthTable = bySupport.computeIfAbsent(cones.getSupport(o), support -> {
+                List<Component> supportInputs = new ArrayList<>(support.cardinality());
+                support.stream().forEach(j -> supportInputs.add(switchInputs.get(j)));
+                return analyzeSwitches(supportInputs, pool);
+            });
+            tables.put(cones.getOutputName(o), truthTable.selectOutput(o));
+        }
+
+        // Leave the switches where a full analysis would: every switch on
+        for (Component sw : switchInputs) {
+            ((Switch) sw).setState(true);
+        }
+        simulate(new HashMap<>());
+        return tables;
+    }
+
+    /**
+     * Builds the truth table of a combinational circuit over some of its switches.
+     * Switches that are left out keep their state.
+     * 
+     * @param switchInputs The switches to enumerate, most significant first
+     * @param pool The pool to enumerate on, or null to enumerate sequentially
+     * @return The truth table over the given switches
+     */
+    private TruthTable analyzeSwitches(List<Component> switchInputs, ForkJoinPool pool) {
+        BitParallelEvaluator evaluator = getBitParallelEvaluator();
+        if (evaluator != null) {
+            return new TruthTableEnumerator(evaluator, switchInputs, 1L << switchInputs.size()).toTruthTable(pool);
+        }
+        TruthTable.Builder builder = new TruthTable.Builder();
+        if (usesGrayCode(switchInputs)) {
+            enumerateGrayCode(switchInputs, builder);
+        } else {
+            enumerateBinary(switchInputs, builder);
+        }
+        return builder.build();
     }
 
     /**
      * Analyzes the circuit and generates a truth table.
      * 
      * @return List of truth table rows
+     * @throws IllegalArgumentException if the circuit has more rows than a list can hold
      */
     public List<Map<String, Boolean>> analyze() {
-        List<Map<String, Boolean>> truthTable = new ArrayList<>();
+        return analyze((ForkJoinPool) null);
+    }
 
-        // Prefer using Switch components as primary inputs (this matches the UI model)
-        List<Component> switchInputs = new ArrayList<>();
-        for (Component component : components) {
-            if (component instanceof com.logisim.domain.components.Switch) {
-                switchInputs.add(component);
+    /**
+     * Analyzes the circuit and generates a truth table, splitting the input
+     * space across a fork/join pool when the circuit allows bit-parallel evaluation.
+     * The rows are identical to a sequential analysis.
+     * 
+     * @param pool The pool to enumerate on, or null to enumerate sequentially
+     * @return List of truth table rows
+     * @throws IllegalArgumentException if the circuit has more rows than a list can hold
+     */
+    public List<Map<String, Boolean>> analyze(ForkJoinPool pool) {
+        List<Component> switchInputs = findSwitchInputs();
+        if (switchInputs.size() >= Integer.SIZE - 1) {
+            throw new IllegalArgumentException("Cannot list the truth table rows of more than "
+                    + (Integer.SIZE - 2) + " inputs");
+        }
+        if (pool != null) {
+            BitParallelEvaluator evaluator = switchInputs.isEmpty() ? null : getBitParallelEvaluator();
+            if (evaluator != null) {
+                long numCombinations = 1L << switchInputs.size();
+                List<Map<String, Boolean>> truthTable =
+                        new TruthTableEnumerator(evaluator, switchInputs, numCombinations).enumerateParallel(pool);
+                applyLastCombination(switchInputs, numCombinations);
+                return truthTable;
             }
         }
 
-        if (!switchInputs.isEmpty()) {
-            // Generate combinations based on switches
-            int numInputs = switchInputs.size();
-            int numCombinations = (int) Math.pow(2, numInputs);
-
-            for (int i = 0; i < numCombinations; i++) {
-                Map<String, Boolean> row = new HashMap<>();
-
-                // Set switch states according to current combination
-                for (int j = 0; j < numInputs; j++) {
-                    boolean value = (i & (1 << (numInputs - 1 - j))) != 0;
-                    Component comp = switchInputs.get(j);
-                    com.logisim.domain.components.Switch sw =
-                            (com.logisim.domain.components.Switch) comp;
-                    sw.setState(value);
-                    row.put("Input_" + sw.getName(), value);
-                }
+        List<Map<String, Boolean>> truthTable = new ArrayList<>();
+        analyze(row -> truthTable.add(row.toMap()));
+        return truthTable;
+    }
 
-                // Simulate with the switch states already applied
-                Map<String, Boolean> outputs = simulate(new HashMap<>());
+    /**
+     * Analyzes the circuit into a columnar truth table.
+     * 
+     * @return The truth table
+     */
+    public TruthTable analyzeTruthTable() {
+        return analyzeTruthTable(null);
+    }
 
-                // Add outputs to row
-                for (Map.Entry<String, Boolean> output : outputs.entrySet()) {
-                    row.put("Output_" + output.getKey(), output.getValue());
-                }
+    /**
+     * Analyzes the circuit into a columnar truth table. Circuits that allow
+     * bit-parallel evaluation fill the output columns 64 rows at a time,
+     * split across a fork/join pool when one is given.
+     * 
+     * @param pool The pool to enumerate on, or null to enumerate sequentially
+     * @return The truth table
+     * @throws IllegalArgumentException if the circuit has more than {@link TruthTable#MAX_INPUTS} inputs
+     */
+    public TruthTable analyzeTruthTable(ForkJoinPool pool) {
+        return analyzeTruthTable(pool, null);
+    }
 
-                truthTable.add(row);
+    /**
+     * Analyzes the circuit into a columnar truth table, reporting rows to a progress monitor.
+     * The monitor is checked between blocks of rows; a cancelled analysis stops
+     * early and leaves the switches in whatever state the last row set.
+     * 
+     * @param pool The pool to enumerate on, or null to enumerate sequentially
+     * @param monitor The monitor receiving progress, or null for none
+     * @return The truth table
+     * @throws IllegalArgumentException if the circuit has more than {@link TruthTable#MAX_INPUTS} inputs
+     * @throws java.util.concurrent.CancellationException if the monitor was cancelled
+     */
+    public TruthTable analyzeTruthTable(ForkJoinPool pool, ProgressMonitor monitor) {
+        List<Component> switchInputs = findSwitchInputs();
+        if (monitor != null) {
+            monitor.start(switchInputs.isEmpty() || switchInputs.size() >= Long.SIZE - 1
+                    ? -1 : 1L << switchInputs.size());
+        }
+        BitParallelEvaluator evaluator = switchInputs.isEmpty() ? null : getBitParallelEvaluator();
+        if (evaluator != null && switchInputs.size() <= TruthTable.MAX_INPUTS) {
+            long numCombinations = 1L << switchInputs.size();
+            TruthTableEnumerator enumerator = new TruthTableEnumerator(evaluator, switchInputs, numCombinations);
+            enumerator.setProgressMonitor(monitor);
+            TruthTable truthTable = enumerator.toTruthTable(pool);
+            applyLastCombination(switchInputs, numCombinations);
+            return truthTable;
+        }
+
+        TruthTable.Builder builder = new TruthTable.Builder();
+        TruthTableVisitor sink = monitor == null ? builder : row -> {
+            monitor.checkCancelled();
+            builder.visitRow(row);
+            monitor.advance(1);
+        };
+        if (evaluator == null && usesGrayCode(switchInputs)) {
+            // The builder places rows by index, so no reordering is needed
+            enumerateGrayCode(switchInputs, sink);
+        } else {
+            analyze(sink);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Analyzes the circuit and streams the truth table to a visitor one row at a time.
+     * No row is retained, so memory use does not grow with the number of inputs.
+     * 
+     * @param visitor The visitor receiving the rows, in row order
+     * @throws IllegalArgumentException if visitor is null
+     */
+    public void analyze(TruthTableVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("Visitor cannot be null");
+        }
+
+        // Prefer using Switch components as primary inputs (this matches the UI model)
+        List<Component> switchInputs = findSwitchInputs();
+
+        if (!switchInputs.isEmpty()) {
+            // Generate combinations based on switches
+            int numInputs = switchInputs.size();
+            long numCombinations = 1L << numInputs;
+
+            // Combinational circuits of primitive gates evaluate 64 rows per pass
+            BitParallelEvaluator evaluator = getBitParallelEvaluator();
+            if (evaluator != null) {
+                new TruthTableEnumerator(evaluator, switchInputs, numCombinations).enumerate(visitor);
+                applyLastCombination(switchInputs, numCombinations);
+                return;
             }
 
-            return truthTable;
+            // Gray-code rows would arrive out of order, so streamed rows are always counted in binary order
+            enumerateBinary(switchInputs, visitor);
+            return;
         }
 
         // Fallback: treat components with inputs but no incoming connectors as abstract inputs
@@ -258,42 +713,211 @@ public class Circuit {
         for (Component component : components) {
             boolean hasInput = connectors.stream()
                     .anyMatch(c -> c.getSink() == component);
-            if (!hasInput && component.getInputs().size() > 0) {
+            if (!hasInput && component.getInputCount() > 0) {
                 inputComponents.add(component);
             }
         }
 
         if (inputComponents.isEmpty()) {
-            return truthTable;
+            return;
         }
 
         int numInputs = inputComponents.size();
-        int numCombinations = (int) Math.pow(2, numInputs);
-
-        for (int i = 0; i < numCombinations; i++) {
-            Map<String, Boolean> row = new HashMap<>();
-            Map<String, Boolean> inputs = new HashMap<>();
+        long numCombinations = 1L << numInputs;
+        Map<String, Boolean> inputs = new HashMap<>();
+        TruthTableRow row = null;
 
+        for (long i = 0; i < numCombinations; i++) {
             // Set input values based on binary representation
             for (int j = 0; j < numInputs; j++) {
-                boolean value = (i & (1 << (numInputs - 1 - j))) != 0;
-                Component inputComp = inputComponents.get(j);
-                inputs.put(inputComp.getName(), value);
-                row.put("Input_" + inputComp.getName(), value);
+                inputs.put(inputComponents.get(j).getName(), (i & (1L << (numInputs - 1 - j))) != 0);
             }
 
             // Simulate with these inputs
-            Map<String, Boolean> outputs = simulate(inputs);
+            simulate(inputs);
 
-            // Add outputs to row
-            for (Map.Entry<String, Boolean> output : outputs.entrySet()) {
-                row.put("Output_" + output.getKey(), output.getValue());
+            if (row == null) {
+                row = newTruthTableRow(inputComponents);
             }
+            fillTruthTableRow(row, i, inputComponents);
+            visitor.visitRow(row);
+        }
+    }
 
-            truthTable.add(row);
+    /**
+     * Collects the switches of the circuit in component order.
+     * 
+     * @return The switches, most significant input first
+     */
+    private List<Component> findSwitchInputs() {
+        List<Component> switchInputs = new ArrayList<>();
+        for (Component component : components) {
+            if (component instanceof Switch) {
+                switchInputs.add(component);
+            }
         }
+        return switchInputs;
+    }
 
-        return truthTable;
+    /**
+     * Creates a truth table row for the given inputs and the components that currently have outputs.
+     * 
+     * @param inputComponents The input components, most significant input first
+     * @return The row
+     */
+    private TruthTableRow newTruthTableRow(List<Component> inputComponents) {
+        String[] inputNames = new String[inputComponents.size()];
+        for (int j = 0; j < inputNames.length; j++) {
+            inputNames[j] = "Input_" + inputComponents.get(j).getName();
+        }
+        List<String> outputNames = new ArrayList<>();
+        for (Component component : components) {
+            if (component.getOutputCount() > 0) {
+                outputNames.add("Output_" + component.getName());
+            }
+        }
+        return new TruthTableRow(inputNames, outputNames.toArray(new String[0]));
+    }
+
+    /**
+     * Fills a truth table row from the settled circuit.
+     * 
+     * @param row The row to fill
+     * @param index The row index
+     * @param inputComponents The input components, most significant input first
+     */
+    private void fillTruthTableRow(TruthTableRow row, long index, List<Component> inputComponents) {
+        int numInputs = inputComponents.size();
+        row.setIndex(index);
+        for (int j = 0; j < numInputs; j++) {
+            row.setInput(j, (index & (1L << (numInputs - 1 - j))) != 0);
+        }
+        int column = 0;
+        for (Component component : components) {
+            if (component.getOutputCount() > 0 && column < row.getOutputCount()) {
+                row.setOutput(column++, component.getOutputBit(0));
+            }
+        }
+    }
+
+    /**
+     * Gets a bit-parallel evaluator for the current structure.
+     * 
+     * @return The evaluator, or null if the circuit has feedback or non-primitive components
+     */
+    private BitParallelEvaluator getBitParallelEvaluator() {
+        LevelizedSchedule current = getSchedule();
+        if (bitParallelEvaluator == null || bitParallelEvaluator.getNetlist() != current.getNetlist()) {
+            if (!current.isAcyclic() || !BitParallelEvaluator.supports(current.getNetlist())) {
+                return null;
+            }
+            bitParallelEvaluator = BitParallelEvaluator.compile(current);
+        }
+        return bitParallelEvaluator;
+    }
+
+    /**
+     * Visits every switch combination in binary order, simulating each row from scratch.
+     * 
+     * @param switchInputs The switches, most significant first
+     * @param visitor The visitor receiving the rows, in row order
+     */
+    private void enumerateBinary(List<Component> switchInputs, TruthTableVisitor visitor) {
+        int numInputs = switchInputs.size();
+        long numCombinations = 1L << numInputs;
+        TruthTableRow row = null;
+        for (long i = 0; i < numCombinations; i++) {
+            // Set switch states according to current combination
+            for (int j = 0; j < numInputs; j++) {
+                ((Switch) switchInputs.get(j)).setState((i & (1L << (numInputs - 1 - j))) != 0);
+            }
+
+            // Simulate with the switch states already applied
+            simulate(new HashMap<>());
+
+            if (row == null) {
+                row = newTruthTableRow(switchInputs);
+            }
+            fillTruthTableRow(row, i, switchInputs);
+            visitor.visitRow(row);
+        }
+    }
+
+    /**
+     * Checks whether the switch rows of this circuit can be walked in Gray-code order.
+     * Requires a combinational circuit, so that row values do not depend on row order.
+     */
+    private boolean usesGrayCode(List<Component> switchInputs) {
+        if (getEnumerationOrder() != EnumerationOrder.GRAY_CODE
+                || switchInputs.isEmpty() || switchInputs.size() > TruthTable.MAX_INPUTS) {
+            return false;
+        }
+        Netlist current = getNetlist();
+        return current.getComponentCount() == current.getCircuitComponentCount() && getSchedule().isAcyclic();
+    }
+
+    /**
+     * Visits every switch combination in Gray-code order, flipping one switch per row.
+     * Each flip is propagated through the switch's fanout cone only, and only the
+     * output columns of changed components are refreshed. Rows carry their
+     * canonical index; the switches are left at the last binary combination.
+     * 
+     * @param switchInputs The switches, most significant first
+     * @param visitor The visitor receiving the rows, in Gray-code order
+     */
+    private void enumerateGrayCode(List<Component> switchInputs, TruthTableVisitor visitor) {
+        int numInputs = switchInputs.size();
+        long numCombinations = 1L << numInputs;
+        for (Component sw : switchInputs) {
+            ((Switch) sw).setState(false);
+        }
+        simulate(new HashMap<>());
+
+        Netlist current = getNetlist();
+        int[] outputColumns = new int[current.getComponentCount()];
+        int column = 0;
+        for (int i = 0; i < outputColumns.length; i++) {
+            outputColumns[i] = current.getComponent(i).getOutputCount() > 0 ? column++ : -1;
+        }
+        TruthTableRow row = newTruthTableRow(switchInputs);
+        fillTruthTableRow(row, 0, switchInputs);
+        visitor.visitRow(row);
+
+        for (long i = 1; i < numCombinations; i++) {
+            int bit = Long.numberOfTrailingZeros(i);
+            long code = i ^ (i >>> 1);
+            boolean value = (code >>> bit & 1L) != 0;
+            SignalChanges changes = setSwitchState((Switch) switchInputs.get(numInputs - 1 - bit), value);
+            if (changes.isFullSimulation()) {
+                fillTruthTableRow(row, code, switchInputs);
+            } else {
+                row.setIndex(code);
+                row.setInput(numInputs - 1 - bit, value);
+                for (int c = changes.nextChanged(0); c >= 0; c = changes.nextChanged(c + 1)) {
+                    if (outputColumns[c] >= 0) {
+                        row.setOutput(outputColumns[c], current.getComponent(c).getOutputBit(0));
+                    }
+                }
+            }
+            visitor.visitRow(row);
+        }
+        applyLastCombination(switchInputs, numCombinations);
+    }
+
+    /**
+     * Leaves the switches at the last combination and settles the circuit for it,
+     * as after a row-by-row enumeration.
+     * 
+     * @param switchInputs The switches, most significant input first
+     * @param numCombinations Number of rows that were generated
+     */
+    private void applyLastCombination(List<Component> switchInputs, long numCombinations) {
+        int numInputs = switchInputs.size();
+        for (int j = 0; j < numInputs; j++) {
+            boolean value = ((numCombinations - 1) & (1L << (numInputs - 1 - j))) != 0;
+            ((Switch) switchInputs.get(j)).setState(value);
+        }
+        simulate(new HashMap<>());
     }
 
     /**
@@ -309,25 +933,6 @@ public class Circuit {
                 .orElse(null);
     }
 
-    /**
-     * Finds the input index for a connector in a sink component.
-     * 
-     * @param sink The sink component
-     * @param connector The connector
-     * @return The input index, or -1 if not found
-     */
-    private int findInputIndex(Component sink, Connector connector) {
-        // This is a simplified implementation
-        // In a real system, you might need to track which input port the connector connects to
-        List<Component> sources = new ArrayList<>();
-        for (Connector c : connectors) {
-            if (c.getSink() == sink) {
-                sources.add(c.getSource());
-            }
-        }
-        return sources.indexOf(connector.getSource());
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,28 +1,35 @@
 package com.logisim.domain;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Abstract base class for all circuit components.
  * Each component has inputs, outputs, and a position.
+ * Port values are packed one bit per port; {@link #getInputs()} and
+ * {@link #getOutputs()} expose them as lists for compatibility.
  * 
  * @author LogiSim Team
  * @version 1.0
  */
 public abstract class Component {
     protected String name;
-    protected List<Boolean> inputs;
-    protected List<Boolean> outputs;
+    protected long[] inputBits;
+    protected int inputCount;
+    protected long[] outputBits;
+    protected int outputCount;
     protected Position position;
+    private transient Circuit owner;
 
     /**
      * Default constructor.
      */
     public Component() {
-        this.inputs = new ArrayList<>();
-        this.outputs = new ArrayList<>();
+        this.inputBits = new long[0];
+        this.outputBits = new long[0];
         this.position = new Position(0, 0);
     }
 
@@ -35,17 +42,13 @@ public abstract class Component {
      */
     public Component(String name, int numInputs, int numOutputs) {
         this.name = name;
-        this.inputs = new ArrayList<>();
-        this.outputs = new ArrayList<>();
         this.position = new Position(0, 0);
-        
-        // Initialize inputs and outputs to false
-        for (int i = 0; i < numInputs; i++) {
-            inputs.add(false);
-        }
-        for (int i = 0; i < numOutputs; i++) {
-            outputs.add(false);
-        }
+
+        // Ports are packed one bit per port and start out false
+        this.inputCount = numInputs;
+        this.inputBits = new long[wordsFor(numInputs)];
+        this.outputCount = numOutputs;
+        this.outputBits = new long[wordsFor(numOutputs)];
     }
 
     /**
@@ -63,16 +66,48 @@ public abstract class Component {
      * @param name The component name
      */
     public void setName(String name) {
+        boolean renamed = !Objects.equals(this.name, name);
         this.name = name;
+        if (renamed) {
+            structureChanged();
+        }
+    }
+
+    /**
+     * Bumps the owning circuit's version after a change that affects the circuit's structure.
+     */
+    protected void structureChanged() {
+        if (owner != null) {
+            owner.structureChanged();
+        }
+    }
+
+    /**
+     * Sets the circuit notified when this component is renamed or restructured.
+     * 
+     * @param owner The owning circuit, or null if the component is not in a circuit
+     */
+    void setOwner(Circuit owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Gets the circuit notified when this component is renamed or restructured.
+     * 
+     * @return The owning circuit, or null
+     */
+    Circuit getOwner() {
+        return owner;
     }
 
     /**
      * Gets the list of input values.
+     * The list is a live view of the packed input ports.
      * 
      * @return List of input values
      */
     public List<Boolean> getInputs() {
-        return inputs;
+        return new PortList(true);
     }
 
     /**
@@ -82,18 +117,17 @@ public abstract class Component {
      * @param value The input value
      */
     public void setInput(int index, Boolean value) {
-        if (index >= 0 && index < inputs.size()) {
-            inputs.set(index, value != null ? value : false);
-        }
+        setInputBit(index, value != null && value);
     }
 
     /**
      * Gets the list of output values.
+     * The list is a live view of the packed output ports.
      * 
      * @return List of output values
      */
     public List<Boolean> getOutputs() {
-        return outputs;
+        return new PortList(false);
     }
 
     /**
@@ -103,12 +137,142 @@ public abstract class Component {
      * @return The output value
      */
     public Boolean getOutput(int index) {
-        if (index >= 0 && index < outputs.size()) {
-            return outputs.get(index);
+        return getOutputBit(index);
+    }
+
+    /**
+     * Gets the number of input ports.
+     * 
+     * @return The input count
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * Gets the number of output ports.
+     * 
+     * @return The output count
+     */
+    public int getOutputCount() {
+        return outputCount;
+    }
+
+    /**
+     * Gets an input value without boxing.
+     * 
+     * @param index The input index
+     * @return The input value, or false if the index is out of range
+     */
+    public boolean getInputBit(int index) {
+        return index >= 0 && index < inputCount && (inputBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets an input value without boxing. Out-of-range indices are ignored.
+     * 
+     * @param index The input index
+     * @param value The input value
+     */
+    public void setInputBit(int index, boolean value) {
+        if (index >= 0 && index < inputCount) {
+            if (value) {
+                inputBits[index >>> 6] |= 1L << index;
+            } else {
+                inputBits[index >>> 6] &= ~(1L << index);
+            }
+        }
+    }
+
+    /**
+     * Gets an output value without boxing.
+     * 
+     * @param index The output index
+     * @return The output value, or false if the index is out of range
+     */
+    public boolean getOutputBit(int index) {
+        return index >= 0 && index < outputCount && (outputBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets an output value. Out-of-range indices are ignored.
+     * 
+     * @param index The output index
+     * @param value The output value
+     */
+    protected void setOutputBit(int index, boolean value) {
+        if (index >= 0 && index < outputCount) {
+            if (value) {
+                outputBits[index >>> 6] |= 1L << index;
+            } else {
+                outputBits[index >>> 6] &= ~(1L << index);
+            }
+        }
+    }
+
+    /**
+     * Checks whether every input is true.
+     * 
+     * @return true if all inputs are true (also when there are none)
+     */
+    protected boolean allInputsHigh() {
+        int fullWords = inputCount >>> 6;
+        for (int w = 0; w < fullWords; w++) {
+            if (inputBits[w] != -1L) {
+                return false;
+            }
+        }
+        int rest = inputCount & 63;
+        return rest == 0 || inputBits[fullWords] == (1L << rest) - 1;
+    }
+
+    /**
+     * Checks whether at least one input is true.
+     * 
+     * @return true if any input is true
+     */
+    protected boolean anyInputHigh() {
+        for (long word : inputBits) {
+            if (word != 0) {
+                return true;
+            }
         }
         return false;
     }
 
+    /**
+     * Changes the number of input ports, keeping existing values.
+     * 
+     * @param count The new input count
+     */
+    protected final void resizeInputs(int count) {
+        inputBits = resize(inputBits, inputCount, count);
+        inputCount = count;
+    }
+
+    /**
+     * Changes the number of output ports, keeping existing values.
+     * 
+     * @param count The new output count
+     */
+    protected final void resizeOutputs(int count) {
+        outputBits = resize(outputBits, outputCount, count);
+        outputCount = count;
+    }
+
+    private static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static long[] resize(long[] bits, int oldCount, int newCount) {
+        long[] resized = Arrays.copyOf(bits, wordsFor(newCount));
+        if (newCount < oldCount && (newCount & 63) != 0) {
+            // Keep bits beyond the last port clear so word-wide checks stay valid
+            resized[newCount >>> 6] &= (1L << newCount) - 1;
+        }
+        return resized;
+    }
+
     /**
      * Gets the component position.
      * 
@@ -133,6 +297,52 @@ public abstract class Component {
      */
     public abstract void execute();
 
+    /**
+     * Live {@code List<Boolean>} view over packed input or output ports.
+     */
+    private final class PortList extends AbstractList<Boolean> implements RandomAccess {
+        private final boolean input;
+
+        PortList(boolean input) {
+            this.input = input;
+        }
+
+        @Override
+        public Boolean get(int index) {
+            Objects.checkIndex(index, size());
+            return input ? getInputBit(index) : getOutputBit(index);
+        }
+
+        @Override
+        public Boolean set(int index, Boolean value) {
+            Boolean previous = get(index);
+            if (input) {
+                setInputBit(index, value != null && value);
+            } else {
+                setOutputBit(index, value != null && value);
+            }
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Boolean value) {
+            if (index != size()) {
+                throw new UnsupportedOperationException("Ports can only be appended");
+            }
+            if (input) {
+                resizeInputs(inputCount + 1);
+            } else {
+                resizeOutputs(outputCount + 1);
+            }
+            set(index, value);
+        }
+
+        @Override
+        public int size() {
+            return input ? inputCount : outputCount;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
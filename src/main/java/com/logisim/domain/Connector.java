@@ -17,6 +17,7 @@ public class Connector {
     private Component sink;
     private int sourceOutputIndex;
     private int sinkInputIndex;
+    private transient Circuit owner;
 
     /**
      * Default constructor.
@@ -109,7 +110,11 @@ public class Connector {
      * @param source The source component
      */
     public void setSource(Component source) {
+        boolean rebound = this.source != source;
         this.source = source;
+        if (rebound) {
+            structureChanged();
+        }
     }
 
     /**
@@ -127,7 +132,11 @@ public class Connector {
      * @param sink The sink component
      */
     public void setSink(Component sink) {
+        boolean rebound = this.sink != sink;
         this.sink = sink;
+        if (rebound) {
+            structureChanged();
+        }
     }
 
     /**
@@ -145,7 +154,11 @@ public class Connector {
      * @param sourceOutputIndex The output index
      */
     public void setSourceOutputIndex(int sourceOutputIndex) {
+        boolean rebound = this.sourceOutputIndex != sourceOutputIndex;
         this.sourceOutputIndex = sourceOutputIndex;
+        if (rebound) {
+            structureChanged();
+        }
     }
 
     /**
@@ -163,7 +176,35 @@ public class Connector {
      * @param sinkInputIndex The input index
      */
     public void setSinkInputIndex(int sinkInputIndex) {
+        boolean rebound = this.sinkInputIndex != sinkInputIndex;
         this.sinkInputIndex = sinkInputIndex;
+        if (rebound) {
+            structureChanged();
+        }
+    }
+
+    /**
+     * Sets the circuit notified when this connector is rebound.
+     * 
+     * @param owner The owning circuit, or null if the connector is not in a circuit
+     */
+    void setOwner(Circuit owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Gets the circuit notified when this connector is rebound.
+     * 
+     * @return The owning circuit, or null
+     */
+    Circuit getOwner() {
+        return owner;
+    }
+
+    private void structureChanged() {
+        if (owner != null) {
+            owner.structureChanged();
+        }
     }
 
     /**
@@ -171,10 +212,7 @@ public class Connector {
      */
     public void process() {
         if (source != null && sink != null) {
-            Boolean outputValue = source.getOutput(sourceOutputIndex);
-            if (outputValue != null && sinkInputIndex < sink.getInputs().size()) {
-                sink.setInput(sinkInputIndex, outputValue);
-            }
+            sink.setInputBit(sinkInputIndex, source.getOutputBit(sourceOutputIndex));
         }
     }
 
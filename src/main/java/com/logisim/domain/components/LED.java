@@ -33,10 +33,7 @@ public class LED extends Component {
      * @return true if on, false if off
      */
     public boolean isOn() {
-        if (inputs.isEmpty()) {
-            return false;
-        }
-        return inputs.get(0) != null && inputs.get(0);
+        return getInputBit(0);
     }
 
     /**
@@ -3,22 +3,64 @@ package com.logisim.domain.components;
 import com.logisim.domain.Circuit;
 import com.logisim.domain.Component;
 import com.logisim.domain.Position;
+import com.logisim.domain.simulation.CircuitState;
+import com.logisim.domain.simulation.CompiledCircuit;
+import com.logisim.domain.simulation.Netlist;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a sub-circuit component that encapsulates another circuit.
  * Allows circuits to be used as modules/components in other circuits.
+ * The switches of the internal circuit are the inputs of the sub-circuit.
+ *
+ * <p>When the internal hierarchy is combinational, outputs are memoized by
+ * input vector in a bounded LRU cache, so repeated evaluations with inputs
+ * seen before skip the internal simulation. The cache is discarded whenever
+ * the structure of the internal circuit, or of any nested sub-circuit,
+ * changes. On a cache hit the ports of the internal components are not updated.</p>
+ *
+ * <p>Small combinational sub-circuits can instead be compiled into a lookup
+ * table holding the output words of every input vector, built on first use
+ * after the internal circuit is set or changed. Execution is then a single
+ * array copy.</p>
+ *
+ * <p>Instances built from a shared {@link CompiledCircuit} keep only their own
+ * {@link CircuitState} and never modify the definition's source circuit, so
+ * any number of instances can share one definition.</p>
  * 
  * @author LogiSim Team
  * @version 1.0
  */
 public class SubCircuit extends Component {
+    /**
+     * Default number of input vectors whose outputs are memoized.
+     */
+    public static final int DEFAULT_MEMO_CAPACITY = 1024;
+
+    /**
+     * Largest number of inputs compiled into a lookup table.
+     */
+    public static final int MAX_LOOKUP_INPUTS = 16;
+
     private Circuit internalCircuit;
     private Map<String, Integer> inputMapping; // Maps internal input component names to input indices
     private Map<String, Integer> outputMapping; // Maps internal output component names to output indices
+    private int memoCapacity = DEFAULT_MEMO_CAPACITY;
+    private boolean lookupTableEnabled;
+    private transient CompiledCircuit sharedDefinition;
+    private transient CircuitState state;
+    private transient Definition definition;
+    private transient OutputMemo memo;
+    private transient long memoHits;
+    private transient long memoMisses;
 
     /**
      * Default constructor.
@@ -36,68 +78,109 @@ public class SubCircuit extends Component {
      * @param internalCircuit The circuit to encapsulate
      */
     public SubCircuit(String name, Circuit internalCircuit) {
-        super(name, 0, 0);
+        super(name, internalCircuit == null ? 0 : findInputComponents(internalCircuit).size(),
+                internalCircuit == null ? 0 : findOutputComponents(internalCircuit).size());
         this.internalCircuit = internalCircuit;
         this.inputMapping = new HashMap<>();
         this.outputMapping = new HashMap<>();
-        initializePorts();
+        // The ports already have their final size, so only the mappings are built here
+        mapPorts();
+    }
+
+    /**
+     * Creates an instance of a shared compiled definition.
+     * 
+     * @param name The component name
+     * @param definition The compiled definition, shared with other instances
+     * @return The sub-circuit instance
+     * @throws IllegalArgumentException if definition is null
+     */
+    public static SubCircuit instantiate(String name, CompiledCircuit definition) {
+        SubCircuit instance = new SubCircuit(name, null);
+        instance.setSharedDefinition(definition);
+        return instance;
     }
 
     /**
      * Initializes input and output ports based on the internal circuit.
      */
     private void initializePorts() {
+        mapPorts();
         if (internalCircuit == null) {
             return;
         }
+        int inputs = findInputComponents(internalCircuit).size();
+        if (inputCount < inputs) {
+            resizeInputs(inputs);
+        }
+        int outputs = findOutputComponents(internalCircuit).size();
+        if (outputCount < outputs) {
+            resizeOutputs(outputs);
+        }
+    }
 
-        // Find input components (components with no incoming connectors)
-        List<com.logisim.domain.Component> inputComponents = internalCircuit.getComponents().stream()
-                .filter(comp -> {
-                    boolean hasInput = internalCircuit.getConnectors().stream()
-                            .anyMatch(conn -> conn.getSink() == comp);
-                    return !hasInput && comp.getInputs().size() > 0;
-                })
-                .toList();
+    /**
+     * Maps the internal input and output components to port indices.
+     */
+    private void mapPorts() {
+        inputMapping.clear();
+        outputMapping.clear();
+        definition = null;
+        if (internalCircuit == null) {
+            return;
+        }
+
+        // Find input components (the switches driving the internal circuit)
+        List<com.logisim.domain.Component> inputComponents = findInputComponents(internalCircuit);
 
         // Find output components (components with outputs but no outgoing connectors, or LEDs)
-        List<com.logisim.domain.Component> outputComponents = internalCircuit.getComponents().stream()
-                .filter(comp -> {
-                    boolean hasOutput = internalCircuit.getConnectors().stream()
-                            .anyMatch(conn -> conn.getSource() == comp);
-                    return (comp.getOutputs().size() > 0 && !hasOutput) || comp instanceof LED;
-                })
-                .toList();
+        List<com.logisim.domain.Component> outputComponents = findOutputComponents(internalCircuit);
 
         // Initialize inputs
         int inputIndex = 0;
         for (com.logisim.domain.Component inputComp : inputComponents) {
-            if (inputComp instanceof Switch) {
-                inputMapping.put(inputComp.getName(), inputIndex);
-                inputIndex++;
-            }
-        }
-        
-        // Resize inputs list
-        while (inputs.size() < inputIndex) {
-            inputs.add(false);
+            inputMapping.put(inputComp.getName(), inputIndex);
+            inputIndex++;
         }
 
         // Initialize outputs
         int outputIndex = 0;
         for (com.logisim.domain.Component outputComp : outputComponents) {
-            if (outputComp.getOutputs().size() > 0 || outputComp instanceof LED) {
-                outputMapping.put(outputComp.getName(), outputIndex);
-                outputIndex++;
-            }
-        }
-        
-        // Resize outputs list
-        while (outputs.size() < outputIndex) {
-            outputs.add(false);
+            outputMapping.put(outputComp.getName(), outputIndex);
+            outputIndex++;
         }
     }
 
+    /**
+     * Finds the input components of a circuit.
+     * Switches drive the internal circuit, so they are its inputs.
+     * 
+     * @param circuit The internal circuit
+     * @return The switches, in component order
+     */
+    public static List<com.logisim.domain.Component> findInputComponents(Circuit circuit) {
+        return circuit.getComponents().stream()
+                .filter(comp -> comp instanceof Switch)
+                .toList();
+    }
+
+    /**
+     * Finds the output components of a circuit: components with outputs but
+     * no outgoing connectors, and LEDs.
+     * 
+     * @param circuit The internal circuit
+     * @return The output components, in component order
+     */
+    public static List<com.logisim.domain.Component> findOutputComponents(Circuit circuit) {
+        return circuit.getComponents().stream()
+                .filter(comp -> {
+                    boolean hasOutput = circuit.getConnectors().stream()
+                            .anyMatch(conn -> conn.getSource() == comp);
+                    return (comp.getOutputCount() > 0 && !hasOutput) || comp instanceof LED;
+                })
+                .toList();
+    }
+
     /**
      * Gets the internal circuit.
      * 
@@ -109,12 +192,69 @@ public class SubCircuit extends Component {
 
     /**
      * Sets the internal circuit and reinitializes ports.
+     * The owning circuit's version changes, since its analysis depends on the internal circuit.
      * 
      * @param internalCircuit The internal circuit
      */
     public void setInternalCircuit(Circuit internalCircuit) {
         this.internalCircuit = internalCircuit;
+        this.sharedDefinition = null;
+        this.state = null;
         initializePorts();
+        structureChanged();
+    }
+
+    /**
+     * Gets the shared compiled definition.
+     * 
+     * @return The definition, or null if the internal circuit is simulated directly
+     */
+    public CompiledCircuit getSharedDefinition() {
+        return sharedDefinition;
+    }
+
+    /**
+     * Evaluates this instance through a shared compiled definition with its own state.
+     * The internal circuit becomes the definition's source circuit, which is no longer modified.
+     * 
+     * @param definition The compiled definition
+     * @throws IllegalArgumentException if definition is null
+     */
+    public void setSharedDefinition(CompiledCircuit definition) {
+        if (definition == null) {
+            throw new IllegalArgumentException("Definition cannot be null");
+        }
+        setInternalCircuit(definition.getSource());
+        this.sharedDefinition = definition;
+        this.state = definition.newState();
+    }
+
+    /**
+     * Gets the per-instance state used with a shared definition.
+     * 
+     * @return The instance state, or null without a shared definition
+     */
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the internal components bound to the input ports, in port order.
+     * 
+     * @return The internal switches, empty if there is no internal circuit
+     */
+    public List<com.logisim.domain.Component> getInputComponents() {
+        return internalCircuit == null ? List.of() : findInputComponents(internalCircuit);
+    }
+
+    /**
+     * Gets the internal components bound to the output ports, in port order.
+     * An LED output reports the value it displays; any other component reports its first output.
+     * 
+     * @return The internal output components, empty if there is no internal circuit
+     */
+    public List<com.logisim.domain.Component> getOutputComponents() {
+        return internalCircuit == null ? List.of() : findOutputComponents(internalCircuit);
     }
 
     /**
@@ -135,6 +275,104 @@ public class SubCircuit extends Component {
         return outputMapping;
     }
 
+    /**
+     * Gets the maximum number of memoized input vectors.
+     * 
+     * @return The memo capacity, 0 if memoization is disabled
+     */
+    public int getMemoCapacity() {
+        return memoCapacity;
+    }
+
+    /**
+     * Sets the maximum number of memoized input vectors.
+     * The least recently used vector is evicted when the cache is full.
+     * 
+     * @param memoCapacity The memo capacity, 0 to disable memoization
+     * @throws IllegalArgumentException if memoCapacity is negative
+     */
+    public void setMemoCapacity(int memoCapacity) {
+        if (memoCapacity < 0) {
+            throw new IllegalArgumentException("Memo capacity cannot be negative");
+        }
+        this.memoCapacity = memoCapacity;
+        clearMemo();
+    }
+
+    /**
+     * Gets the number of evaluations answered from the memo cache.
+     * 
+     * @return The hit count
+     */
+    public long getMemoHits() {
+        return memoHits;
+    }
+
+    /**
+     * Gets the number of evaluations that simulated the internal circuit while memoizing.
+     * 
+     * @return The miss count
+     */
+    public long getMemoMisses() {
+        return memoMisses;
+    }
+
+    /**
+     * Discards the memoized outputs and resets the hit and miss counters.
+     */
+    public void clearMemo() {
+        memo = null;
+        memoHits = 0;
+        memoMisses = 0;
+    }
+
+    /**
+     * Checks whether small combinational sub-circuits are compiled into a lookup table.
+     * 
+     * @return true if lookup tables are enabled
+     */
+    public boolean isLookupTableEnabled() {
+        return lookupTableEnabled;
+    }
+
+    /**
+     * Enables or disables lookup table compilation.
+     * Only sub-circuits with at most {@link #MAX_LOOKUP_INPUTS} inputs and no
+     * feedback are compiled; others are simulated as before.
+     * 
+     * @param lookupTableEnabled true to evaluate through a precomputed table
+     */
+    public void setLookupTableEnabled(boolean lookupTableEnabled) {
+        this.lookupTableEnabled = lookupTableEnabled;
+    }
+
+    /**
+     * Checks whether the next execution is answered from a lookup table.
+     * 
+     * @return true if the sub-circuit is compiled or will be on its next execution
+     */
+    public boolean usesLookupTable() {
+        if (!lookupTableEnabled || sharedDefinition != null || internalCircuit == null
+                || inputCount > MAX_LOOKUP_INPUTS) {
+            return false;
+        }
+        return currentDefinition().combinational;
+    }
+
+    /**
+     * Gets the snapshot of the internal hierarchy, taking a new one and
+     * dropping memoized outputs if the structure changed.
+     * 
+     * @return The current definition
+     */
+    private Definition currentDefinition() {
+        if (definition == null || !definition.isCurrent()) {
+            definition = new Definition(this);
+            memo = null;
+        }
+        return definition;
+    }
+
     /**
      * Executes the sub-circuit by simulating the internal circuit.
      */
@@ -142,34 +380,163 @@ public class SubCircuit extends Component {
     public void execute() {
         if (internalCircuit == null) {
             // Set all outputs to false if no circuit
-            for (int i = 0; i < outputs.size(); i++) {
-                outputs.set(i, false);
+            for (int i = 0; i < outputCount; i++) {
+                setOutputBit(i, false);
+            }
+            return;
+        }
+
+        if (sharedDefinition != null) {
+            sharedDefinition.evaluate(state, inputBits, outputBits);
+            return;
+        }
+        if (usesLookupTable()) {
+            if (definition.lookupTable == null) {
+                definition.lookupTable = buildLookupTable();
             }
+            int words = outputBits.length;
+            int row = (int) (inputCount == 0 ? 0L : inputBits[0] & ((1L << inputCount) - 1));
+            System.arraycopy(definition.lookupTable, row * words, outputBits, 0, words);
+            return;
+        }
+        currentDefinition();
+        if (memoCapacity == 0 || !definition.combinational || inputCount > Long.SIZE) {
+            simulateInternal();
             return;
         }
 
-        // Prepare inputs for internal circuit simulation
-        Map<String, Boolean> internalInputs = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : inputMapping.entrySet()) {
-            String componentName = entry.getKey();
-            int inputIndex = entry.getValue();
-            if (inputIndex < inputs.size()) {
-                Boolean inputValue = inputs.get(inputIndex);
-                internalInputs.put(componentName, inputValue != null ? inputValue : false);
+        if (memo == null) {
+            memo = new OutputMemo(memoCapacity);
+        }
+        long key = inputCount == 0 ? 0L : inputBits[0];
+        long[] cached = memo.get(key);
+        if (cached != null) {
+            memoHits++;
+            System.arraycopy(cached, 0, outputBits, 0, cached.length);
+            return;
+        }
+        memoMisses++;
+        simulateInternal();
+        memo.put(key, outputBits.clone());
+    }
+
+    /**
+     * Simulates the internal circuit for every input vector.
+     * 
+     * @return The output words of each vector, one row of output words per vector
+     */
+    private long[] buildLookupTable() {
+        int words = outputBits.length;
+        long[] saved = inputBits.clone();
+        long[] table = new long[(1 << inputCount) * words];
+        for (int row = 0; row < 1 << inputCount; row++) {
+            if (inputCount > 0) {
+                inputBits[0] = row;
             }
+            simulateInternal();
+            System.arraycopy(outputBits, 0, table, row * words, words);
+        }
+        System.arraycopy(saved, 0, inputBits, 0, saved.length);
+        return table;
+    }
+
+    /**
+     * Drives the internal switches from the inputs, simulates the internal
+     * circuit and copies its outputs.
+     */
+    private void simulateInternal() {
+        Switch[] switches = definition.switches;
+        for (int i = 0; i < switches.length && i < inputCount; i++) {
+            switches[i].setState(getInputBit(i));
         }
 
         // Simulate the internal circuit
-        Map<String, Boolean> internalOutputs = internalCircuit.simulate(internalInputs);
-
-        // Map internal outputs to this component's outputs
-        for (Map.Entry<String, Integer> entry : outputMapping.entrySet()) {
-            String componentName = entry.getKey();
-            int outputIndex = entry.getValue();
-            if (outputIndex < outputs.size()) {
-                Boolean outputValue = internalOutputs.get(componentName);
-                outputs.set(outputIndex, outputValue != null ? outputValue : false);
+        internalCircuit.simulate(new HashMap<>());
+
+        // Map internal outputs to this component's outputs; an LED reports what it displays
+        Component[] outputs = definition.outputs;
+        for (int i = 0; i < outputs.length && i < outputCount; i++) {
+            setOutputBit(i, outputs[i] instanceof LED led ? led.isOn() : outputs[i].getOutputBit(0));
+        }
+    }
+
+    /**
+     * Snapshot of the internal hierarchy that memoized outputs depend on.
+     * Every sub-circuit reachable from the internal circuit is recorded with
+     * the circuit and netlist it had, so any structural change is detected.
+     */
+    private static final class Definition {
+        private final Set<SubCircuit> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<SubCircuit> owners = new ArrayList<>();
+        private final List<Circuit> circuits = new ArrayList<>();
+        private final List<Netlist> netlists = new ArrayList<>();
+        private final Switch[] switches;
+        private final Component[] outputs;
+        private final boolean combinational;
+        private long[] lookupTable;
+
+        Definition(SubCircuit root) {
+            this.switches = findInputComponents(root.internalCircuit).toArray(new Switch[0]);
+            this.outputs = findOutputComponents(root.internalCircuit).toArray(new Component[0]);
+            this.combinational = collect(root);
+        }
+
+        /**
+         * Records a sub-circuit and everything below it.
+         *
+         * @return true if every recorded circuit is free of feedback
+         */
+        private boolean collect(SubCircuit owner) {
+            if (!seen.add(owner)) {
+                return true;
+            }
+            Circuit circuit = owner.internalCircuit;
+            owners.add(owner);
+            circuits.add(circuit);
+            if (circuit == null) {
+                netlists.add(null);
+                return true;
+            }
+            netlists.add(circuit.getNetlist());
+            boolean acyclic = circuit.getSchedule().isAcyclic();
+            for (Component component : circuit.getComponents()) {
+                if (component instanceof SubCircuit nested) {
+                    acyclic &= collect(nested);
+                }
+            }
+            return acyclic;
+        }
+
+        /**
+         * Checks that no recorded circuit changed structure since the snapshot.
+         */
+        boolean isCurrent() {
+            for (int i = 0; i < owners.size(); i++) {
+                Circuit circuit = owners.get(i).internalCircuit;
+                if (circuit != circuits.get(i) || (circuit != null && circuit.getNetlist() != netlists.get(i))) {
+                    return false;
+                }
             }
+            return true;
+        }
+    }
+
+    /**
+     * Output words by packed input vector, in least recently used order.
+     */
+    private static final class OutputMemo extends LinkedHashMap<Long, long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        OutputMemo(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return size() > capacity;
         }
     }
 
@@ -178,8 +545,8 @@ public class SubCircuit extends Component {
         return "SubCircuit{" +
                 "name='" + getName() + '\'' +
                 ", internalCircuit=" + (internalCircuit != null ? internalCircuit.getName() : "null") +
-                ", inputs=" + inputs.size() +
-                ", outputs=" + outputs.size() +
+                ", inputs=" + inputCount +
+                ", outputs=" + outputCount +
                 '}';
     }
 }
@@ -62,7 +62,7 @@ public class Switch extends Component {
      */
     @Override
     public void execute() {
-        outputs.set(0, state);
+        setOutputBit(0, state);
     }
 }
 
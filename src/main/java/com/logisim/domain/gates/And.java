@@ -43,19 +43,7 @@ public class And extends Component {
      */
     @Override
     public void execute() {
-        if (inputs.isEmpty()) {
-            outputs.set(0, false);
-            return;
-        }
-
-        boolean result = true;
-        for (Boolean input : inputs) {
-            if (input == null || !input) {
-                result = false;
-                break;
-            }
-        }
-        outputs.set(0, result);
+        setOutputBit(0, inputCount > 0 && allInputsHigh());
     }
 }
 
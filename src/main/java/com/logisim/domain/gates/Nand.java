@@ -33,19 +33,7 @@ public class Nand extends Component {
      */
     @Override
     public void execute() {
-        if (inputs.isEmpty()) {
-            outputs.set(0, true);
-            return;
-        }
-
-        boolean result = true;
-        for (Boolean input : inputs) {
-            if (input == null || !input) {
-                result = true;
-                break;
-            }
-        }
-        outputs.set(0, !result);
+        setOutputBit(0, inputCount == 0 || !allInputsHigh());
     }
 }
 
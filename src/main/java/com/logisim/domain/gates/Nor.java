@@ -33,19 +33,7 @@ public class Nor extends Component {
      */
     @Override
     public void execute() {
-        if (inputs.isEmpty()) {
-            outputs.set(0, true);
-            return;
-        }
-
-        boolean result = false;
-        for (Boolean input : inputs) {
-            if (input != null && input) {
-                result = true;
-                break;
-            }
-        }
-        outputs.set(0, !result);
+        setOutputBit(0, !anyInputHigh());
     }
 }
 
@@ -33,13 +33,7 @@ public class Not extends Component {
      */
     @Override
     public void execute() {
-        if (inputs.isEmpty()) {
-            outputs.set(0, false);
-            return;
-        }
-
-        Boolean input = inputs.get(0);
-        outputs.set(0, input == null || !input);
+        setOutputBit(0, inputCount > 0 && !getInputBit(0));
     }
 }
 
@@ -43,19 +43,7 @@ public class Or extends Component {
      */
     @Override
     public void execute() {
-        if (inputs.isEmpty()) {
-            outputs.set(0, false);
-            return;
-        }
-
-        boolean result = false;
-        for (Boolean input : inputs) {
-            if (input != null && input) {
-                result = true;
-                break;
-            }
-        }
-        outputs.set(0, result);
+        setOutputBit(0, anyInputHigh());
     }
 }
 
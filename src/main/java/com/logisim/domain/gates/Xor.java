@@ -33,14 +33,7 @@ public class Xor extends Component {
      */
     @Override
     public void execute() {
-        if (inputs.size() < 2) {
-            outputs.set(0, false);
-            return;
-        }
-
-        boolean a = inputs.get(0) != null && inputs.get(0);
-        boolean b = inputs.get(1) != null && inputs.get(1);
-        outputs.set(0, a ^ b);
+        setOutputBit(0, inputCount >= 2 && (getInputBit(0) ^ getInputBit(1)));
     }
 }
 
@@ -0,0 +1,243 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.components.Switch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Simulates many input vectors without building a map per vector.
+ * Vectors are packed into {@code long} arrays: input {@code j} of vector
+ * {@code v} is bit {@code j % 64} of word {@code v * getInputWords() + j / 64},
+ * and outputs are packed the same way with {@link #getOutputWords()}.
+ * Inputs are the circuit's switches and outputs the first output of every
+ * component that has one, both in circuit order, matching truth table columns.
+ *
+ * <p>Circuits of primitive gates evaluate 64 vectors per pass with a
+ * bit-parallel evaluator and leave the components untouched. Other circuits
+ * apply each vector to the switches in order and propagate only the switches
+ * that changed, so circuits with feedback see the vectors as a sequence.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class BatchSimulator {
+    private final Circuit circuit;
+    private Netlist netlist;
+    private Switch[] inputs;
+    private int[] inputIndices;
+    private int[] outputIndices;
+    private BitParallelEvaluator evaluator;
+    private long[] signals;
+
+    /**
+     * Constructor with the circuit to simulate.
+     *
+     * @param circuit The circuit
+     * @throws IllegalArgumentException if circuit is null
+     */
+    public BatchSimulator(Circuit circuit) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        this.circuit = circuit;
+        prepare();
+    }
+
+    /**
+     * Rebuilds the column tables if the circuit structure changed.
+     */
+    private void prepare() {
+        Netlist current = circuit.getNetlist();
+        if (current == netlist) {
+            return;
+        }
+        List<Switch> switches = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        for (int i = 0; i < current.getCircuitComponentCount(); i++) {
+            Component component = current.getComponent(i);
+            if (component instanceof Switch sw) {
+                switches.add(sw);
+            }
+            if (component.getOutputCount() > 0) {
+                outputs.add(i);
+            }
+        }
+        inputs = switches.toArray(new Switch[0]);
+        inputIndices = new int[inputs.length];
+        for (int j = 0; j < inputs.length; j++) {
+            inputIndices[j] = current.indexOf(inputs[j]);
+        }
+        outputIndices = outputs.stream().mapToInt(Integer::intValue).toArray();
+
+        LevelizedSchedule schedule = circuit.getSchedule();
+        evaluator = schedule.isAcyclic() && BitParallelEvaluator.supports(current)
+                ? BitParallelEvaluator.compile(schedule) : null;
+        signals = new long[current.getComponentCount()];
+        netlist = current;
+    }
+
+    /**
+     * Gets the number of inputs per vector.
+     *
+     * @return The input count
+     */
+    public int getInputCount() {
+        prepare();
+        return inputIndices.length;
+    }
+
+    /**
+     * Gets the number of outputs per vector.
+     *
+     * @return The output count
+     */
+    public int getOutputCount() {
+        prepare();
+        return outputIndices.length;
+    }
+
+    /**
+     * Gets the number of words holding one packed input vector.
+     *
+     * @return The input words per vector
+     */
+    public int getInputWords() {
+        return wordsFor(getInputCount());
+    }
+
+    /**
+     * Gets the number of words holding one packed output vector.
+     *
+     * @return The output words per vector
+     */
+    public int getOutputWords() {
+        return wordsFor(getOutputCount());
+    }
+
+    /**
+     * Gets the input column names, in packing order.
+     *
+     * @return The input names
+     */
+    public List<String> getInputNames() {
+        prepare();
+        List<String> names = new ArrayList<>(inputIndices.length);
+        for (int index : inputIndices) {
+            names.add("Input_" + netlist.getComponent(index).getName());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Gets the output column names, in packing order.
+     *
+     * @return The output names
+     */
+    public List<String> getOutputNames() {
+        prepare();
+        List<String> names = new ArrayList<>(outputIndices.length);
+        for (int index : outputIndices) {
+            names.add("Output_" + netlist.getComponent(index).getName());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Checks whether vectors are evaluated 64 at a time.
+     *
+     * @return true if the circuit allows bit-parallel evaluation
+     */
+    public boolean isBitParallel() {
+        prepare();
+        return evaluator != null;
+    }
+
+    /**
+     * Simulates packed input vectors into packed output vectors.
+     *
+     * @param inputVectors The packed input vectors
+     * @param vectorCount The number of vectors to simulate
+     * @param outputVectors The array receiving the packed output vectors
+     * @throws IllegalArgumentException if an array is too small for the vector count
+     */
+    public void simulate(long[] inputVectors, int vectorCount, long[] outputVectors) {
+        prepare();
+        int inputWords = wordsFor(inputIndices.length);
+        int outputWords = wordsFor(outputIndices.length);
+        if (vectorCount < 0
+                || (long) vectorCount * inputWords > inputVectors.length
+                || (long) vectorCount * outputWords > outputVectors.length) {
+            throw new IllegalArgumentException("Vector arrays are too small for " + vectorCount + " vectors");
+        }
+        Arrays.fill(outputVectors, 0, vectorCount * outputWords, 0L);
+        if (evaluator != null) {
+            simulateBitParallel(inputVectors, vectorCount, outputVectors, inputWords, outputWords);
+        } else {
+            simulateScalar(inputVectors, vectorCount, outputVectors, inputWords, outputWords);
+        }
+    }
+
+    /**
+     * Transposes blocks of 64 vectors into signal words and evaluates them at once.
+     */
+    private void simulateBitParallel(long[] inputVectors, int vectorCount, long[] outputVectors,
+                                     int inputWords, int outputWords) {
+        evaluator.captureUndrivenInputs();
+        for (int base = 0; base < vectorCount; base += Long.SIZE) {
+            int count = Math.min(Long.SIZE, vectorCount - base);
+            for (int j = 0; j < inputIndices.length; j++) {
+                int word = j >>> 6;
+                long word64 = 0L;
+                for (int k = 0; k < count; k++) {
+                    word64 |= (inputVectors[(base + k) * inputWords + word] >>> j & 1L) << k;
+                }
+                signals[inputIndices[j]] = word64;
+            }
+            evaluator.evaluate(signals);
+            long mask = count == Long.SIZE ? -1L : (1L << count) - 1;
+            for (int o = 0; o < outputIndices.length; o++) {
+                long bits = signals[outputIndices[o]] & mask;
+                long bit = 1L << o;
+                int word = o >>> 6;
+                while (bits != 0) {
+                    int k = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    outputVectors[(base + k) * outputWords + word] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies each vector to the switches and propagates the switches that changed.
+     */
+    private void simulateScalar(long[] inputVectors, int vectorCount, long[] outputVectors,
+                                int inputWords, int outputWords) {
+        for (int v = 0; v < vectorCount; v++) {
+            for (int j = 0; j < inputs.length; j++) {
+                boolean value = (inputVectors[v * inputWords + (j >>> 6)] >>> j & 1L) != 0;
+                if (inputs[j].getState() != value || v == 0) {
+                    circuit.setSwitchState(inputs[j], value);
+                }
+            }
+            if (inputs.length == 0 && v == 0) {
+                circuit.simulate(new HashMap<>());
+            }
+            for (int o = 0; o < outputIndices.length; o++) {
+                if (netlist.getComponent(outputIndices[o]).getOutputBit(0)) {
+                    outputVectors[v * outputWords + (o >>> 6)] |= 1L << o;
+                }
+            }
+        }
+    }
+
+    private static int wordsFor(int bits) {
+        return Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+    }
+}
@@ -0,0 +1,210 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+import com.logisim.domain.components.LED;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Nand;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Not;
+import com.logisim.domain.gates.Or;
+import com.logisim.domain.gates.Xor;
+
+import java.util.Arrays;
+
+/**
+ * Bit-parallel evaluator for levelized circuits built from primitive gates.
+ * Every signal is a {@code long} whose 64 bits carry 64 independent input
+ * combinations, so one pass over the schedule evaluates 64 truth table rows
+ * with plain bitwise operations.
+ *
+ * <p>Switch signals are supplied by the caller; every other component's
+ * signal is its first output. Input ports not driven by a connector keep the
+ * value they hold on the component when {@link #captureUndrivenInputs()} is called,
+ * matching what the scalar engines see.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class BitParallelEvaluator {
+    private static final int SWITCH = 0;
+    private static final int LED_SINK = 1;
+    private static final int AND = 2;
+    private static final int OR = 3;
+    private static final int NAND = 4;
+    private static final int NOR = 5;
+    private static final int NOT = 6;
+    private static final int XOR = 7;
+
+    private static final int UNDRIVEN = -1;
+    private static final int CONSTANT_FALSE = -2;
+
+    private final Netlist netlist;
+    private final int[] order;
+    private final int[] kinds;
+    private final int[] portOffsets;
+    private final int[] portSources;
+    private final long[] undrivenValues;
+
+    private BitParallelEvaluator(Netlist netlist, int[] order, int[] kinds, int[] portOffsets, int[] portSources) {
+        this.netlist = netlist;
+        this.order = order;
+        this.kinds = kinds;
+        this.portOffsets = portOffsets;
+        this.portSources = portSources;
+        this.undrivenValues = new long[portSources.length];
+    }
+
+    /**
+     * Checks whether every component of a netlist has a bitwise equivalent.
+     *
+     * @param netlist The netlist
+     * @return true if the netlist only contains primitive gates, switches and LEDs
+     */
+    public static boolean supports(Netlist netlist) {
+        for (int i = 0; i < netlist.getComponentCount(); i++) {
+            if (kindOf(netlist.getComponent(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compiles a levelized schedule into a bit-parallel evaluator.
+     *
+     * @param schedule The levelized schedule
+     * @return The evaluator
+     * @throws IllegalArgumentException if the schedule is cyclic or contains unsupported components
+     */
+    public static BitParallelEvaluator compile(LevelizedSchedule schedule) {
+        if (!schedule.isAcyclic()) {
+            throw new IllegalArgumentException("Circuit has feedback and cannot be evaluated bit-parallel");
+        }
+        Netlist netlist = schedule.getNetlist();
+        int[] order = new int[schedule.size()];
+        int[] kinds = new int[order.length];
+        int[] portOffsets = new int[order.length + 1];
+        for (int position = 0; position < order.length; position++) {
+            int component = schedule.getComponentAt(position);
+            Component instance = netlist.getComponent(component);
+            int kind = kindOf(instance);
+            if (kind < 0) {
+                throw new IllegalArgumentException(
+                        "Unsupported component for bit-parallel evaluation: " + instance.getClass().getSimpleName());
+            }
+            order[position] = component;
+            kinds[position] = kind;
+            portOffsets[position + 1] = portOffsets[position] + instance.getInputCount();
+        }
+
+        // Resolve every input port to the component driving it
+        int[] portSources = new int[portOffsets[order.length]];
+        Arrays.fill(portSources, UNDRIVEN);
+        for (int position = 0; position < order.length; position++) {
+            int component = order[position];
+            int portCount = portOffsets[position + 1] - portOffsets[position];
+            for (int f = netlist.getFaninStart(component); f < netlist.getFaninEnd(component); f++) {
+                int connector = netlist.getFaninConnector(f);
+                int port = netlist.getPort(connector);
+                int source = netlist.getSource(connector);
+                // Only the first output of a primitive exists; other outputs read as false
+                boolean readsSignal = netlist.getSourceOutput(connector) == 0
+                        && netlist.getComponent(source).getOutputCount() > 0;
+                if (port >= 0 && port < portCount) {
+                    portSources[portOffsets[position] + port] = readsSignal ? source : CONSTANT_FALSE;
+                }
+            }
+        }
+        return new BitParallelEvaluator(netlist, order, kinds, portOffsets, portSources);
+    }
+
+    private static int kindOf(Component component) {
+        Class<?> type = component.getClass();
+        if (type == Switch.class) return SWITCH;
+        if (type == LED.class) return LED_SINK;
+        if (type == And.class) return AND;
+        if (type == Or.class) return OR;
+        if (type == Nand.class) return NAND;
+        if (type == Nor.class) return NOR;
+        if (type == Not.class) return NOT;
+        if (type == Xor.class) return XOR;
+        return -1;
+    }
+
+    /**
+     * Gets the netlist this evaluator was compiled from.
+     *
+     * @return The netlist
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * Captures the current values of input ports that no connector drives.
+     * Call before evaluating if component ports may have changed since the last capture.
+     */
+    public void captureUndrivenInputs() {
+        for (int position = 0; position < order.length; position++) {
+            Component component = netlist.getComponent(order[position]);
+            for (int p = portOffsets[position]; p < portOffsets[position + 1]; p++) {
+                if (portSources[p] == UNDRIVEN) {
+                    undrivenValues[p] = component.getInputBit(p - portOffsets[position]) ? -1L : 0L;
+                } else {
+                    undrivenValues[p] = 0L;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates 64 input combinations at once.
+     * Switch entries of {@code signals} must be filled in by the caller; all
+     * other entries are overwritten with the first output of each component.
+     *
+     * @param signals One word per netlist component
+     */
+    public void evaluate(long[] signals) {
+        for (int position = 0; position < order.length; position++) {
+            int start = portOffsets[position];
+            int end = portOffsets[position + 1];
+            long result;
+            switch (kinds[position]) {
+                case SWITCH, LED_SINK -> {
+                    continue;
+                }
+                case AND, NAND -> {
+                    result = -1L;
+                    for (int p = start; p < end; p++) {
+                        result &= port(signals, p);
+                    }
+                    if (start == end) {
+                        result = 0L;
+                    }
+                    if (kinds[position] == NAND) {
+                        result = ~result;
+                    }
+                }
+                case OR, NOR -> {
+                    result = 0L;
+                    for (int p = start; p < end; p++) {
+                        result |= port(signals, p);
+                    }
+                    if (kinds[position] == NOR) {
+                        result = ~result;
+                    }
+                }
+                case NOT -> result = start == end ? 0L : ~port(signals, start);
+                case XOR -> result = end - start < 2 ? 0L : port(signals, start) ^ port(signals, start + 1);
+                default -> throw new IllegalStateException("Unknown component kind");
+            }
+            signals[order[position]] = result;
+        }
+    }
+
+    private long port(long[] signals, int port) {
+        int source = portSources[port];
+        return source >= 0 ? signals[source] : undrivenValues[port];
+    }
+}
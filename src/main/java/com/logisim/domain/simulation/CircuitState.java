@@ -0,0 +1,56 @@
+package com.logisim.domain.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Per-instance signal values of a {@link CompiledCircuit}.
+ * Holds one bit per component of the compiled definition and nothing else,
+ * so many instances can share one definition at the cost of their signal bits.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class CircuitState {
+    final long[] signals;
+
+    /**
+     * Constructor with the initial signal words.
+     * 
+     * @param signals The signal words, owned by the state
+     */
+    CircuitState(long[] signals) {
+        this.signals = signals;
+    }
+
+    /**
+     * Gets the value of a component signal.
+     * 
+     * @param component The component index in the compiled definition
+     * @return The signal value
+     */
+    public boolean get(int component) {
+        return (signals[component >>> 6] >>> component & 1L) != 0;
+    }
+
+    void set(int component, boolean value) {
+        if (value) {
+            signals[component >>> 6] |= 1L << component;
+        } else {
+            signals[component >>> 6] &= ~(1L << component);
+        }
+    }
+
+    /**
+     * Creates an independent copy of this state.
+     * 
+     * @return The copy
+     */
+    public CircuitState copy() {
+        return new CircuitState(signals.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitState{" + Arrays.toString(signals) + '}';
+    }
+}
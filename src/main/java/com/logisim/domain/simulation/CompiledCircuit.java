@@ -0,0 +1,422 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.components.LED;
+import com.logisim.domain.components.SubCircuit;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Nand;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Not;
+import com.logisim.domain.gates.Or;
+import com.logisim.domain.gates.Xor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable compiled snapshot of a circuit, used for sub-circuits and concurrent simulation.
+ * The hierarchy is flattened once into primitive gates with resolved port
+ * tables; the values of an instance live in a separate {@link CircuitState},
+ * so any number of sub-circuit instances can share one definition without
+ * touching each other's signals or the source circuit. For the same reason
+ * any number of threads may evaluate one snapshot at once, each with its own state.
+ *
+ * <p>Inputs are the switches of the source circuit and outputs are its output
+ * components, in the same order as the ports of a {@link SubCircuit}.
+ * Acyclic definitions are evaluated in one pass in topological order; definitions
+ * with feedback are swept until no signal changes, keeping their state per instance.
+ * Later changes to the source circuit are not seen by the compiled definition;
+ * {@link #getVersion()} records the structural version it was compiled at, and
+ * {@link #isCurrent()} also checks the circuits nested in it through sub-circuits.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class CompiledCircuit {
+    private static final int SWITCH = 0;
+    private static final int LED_SINK = 1;
+    private static final int AND = 2;
+    private static final int OR = 3;
+    private static final int NAND = 4;
+    private static final int NOR = 5;
+    private static final int NOT = 6;
+    private static final int XOR = 7;
+
+    private static final int CONSTANT_FALSE = -1;
+    private static final int CONSTANT_TRUE = -2;
+
+    private final Circuit source;
+    private final long version;
+    private final Circuit[] nestedCircuits;
+    private final long[] nestedVersions;
+    private final List<String> inputNames;
+    private final List<String> outputNames;
+    private final Map<String, Integer> inputIndices;
+    private final int componentCount;
+    private final int[] kinds;
+    private final int[] portOffsets;
+    private final int[] portSources;
+    private final int[] order;
+    private final boolean acyclic;
+    private final int[] inputSignals;
+    private final int[] outputSignals;
+    private final long[] initialSignals;
+
+    private CompiledCircuit(Circuit source, long version, Circuit[] nestedCircuits, long[] nestedVersions,
+                            List<String> inputNames, List<String> outputNames, int[] kinds, int[] portOffsets, int[] portSources, int[] order,
+                            boolean acyclic, int[] inputSignals, int[] outputSignals, long[] initialSignals) {
+        this.source = source;
+        this.version = version;
+        this.nestedCircuits = nestedCircuits;
+        this.nestedVersions = nestedVersions;
+        this.inputNames = List.copyOf(inputNames);
+        this.outputNames = List.copyOf(outputNames);
+        Map<String, Integer> indices = new HashMap<>();
+        for (int j = 0; j < inputNames.size(); j++) {
+            indices.put(inputNames.get(j), j);
+        }
+        this.inputIndices = Map.copyOf(indices);
+        this.componentCount = kinds.length;
+        this.kinds = kinds;
+        this.portOffsets = portOffsets;
+        this.portSources = portSources;
+        this.order = order;
+        this.acyclic = acyclic;
+        this.inputSignals = inputSignals;
+        this.outputSignals = outputSignals;
+        this.initialSignals = initialSignals;
+    }
+
+    /**
+     * Compiles a circuit definition at its current structural version.
+     * The circuit must not be modified while it is being compiled.
+     *
+     * @param definition The circuit to compile
+     * @return The compiled definition
+     * @throws IllegalArgumentException if the definition is null or contains components without a compiled form
+     */
+    public static CompiledCircuit compile(Circuit definition) {
+        if (definition == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        long version = definition.getVersion();
+        List<Circuit> nested = new ArrayList<>();
+        collectNested(definition, Collections.newSetFromMap(new IdentityHashMap<>()), nested);
+        long[] nestedVersions = new long[nested.size()];
+        for (int i = 0; i < nestedVersions.length; i++) {
+            nestedVersions[i] = nested.get(i).getVersion();
+        }
+        FlattenedCircuit flattened = FlattenedCircuit.flatten(definition);
+        Netlist netlist = flattened.getCircuit().getNetlist();
+        int count = netlist.getCircuitComponentCount();
+
+        int[] kinds = new int[count];
+        int[] portOffsets = new int[count + 1];
+        long[] initialSignals = new long[(count + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < count; i++) {
+            Component component = netlist.getComponent(i);
+            kinds[i] = kindOf(component);
+            if (kinds[i] < 0) {
+                throw new IllegalArgumentException(
+                        "Unsupported component for compilation: " + component.getClass().getSimpleName());
+            }
+            portOffsets[i + 1] = portOffsets[i] + component.getInputCount();
+            if (component.getOutputCount() > 0 && component.getOutputBit(0)) {
+                initialSignals[i >>> 6] |= 1L << i;
+            }
+        }
+
+        // Undriven ports keep the value they hold now; the last connector into a port wins
+        int[] portSources = new int[portOffsets[count]];
+        for (int i = 0; i < count; i++) {
+            Component component = netlist.getComponent(i);
+            for (int p = portOffsets[i]; p < portOffsets[i + 1]; p++) {
+                portSources[p] = component.getInputBit(p - portOffsets[i]) ? CONSTANT_TRUE : CONSTANT_FALSE;
+            }
+            for (int f = netlist.getFaninStart(i); f < netlist.getFaninEnd(i); f++) {
+                int connector = netlist.getFaninConnector(f);
+                int port = netlist.getPort(connector);
+                int driver = netlist.getSource(connector);
+                if (port >= 0 && port < component.getInputCount() && driver >= 0 && driver < count) {
+                    portSources[portOffsets[i] + port] = netlist.getSourceOutput(connector) == 0
+                            && netlist.getComponent(driver).getOutputCount() > 0 ? driver : CONSTANT_FALSE;
+                }
+            }
+        }
+
+        List<Component> inputs = SubCircuit.findInputComponents(definition);
+        int[] inputSignals = new int[inputs.size()];
+        for (int j = 0; j < inputSignals.length; j++) {
+            inputSignals[j] = signalIndex(netlist, flattened.resolveOutput(inputs.get(j), 0));
+        }
+        List<Component> outputs = SubCircuit.findOutputComponents(definition);
+        int[] outputSignals = new int[outputs.size()];
+        for (int k = 0; k < outputSignals.length; k++) {
+            Component output = outputs.get(k);
+            outputSignals[k] = signalIndex(netlist, output instanceof LED
+                    ? flattened.resolveInput(output, 0)
+                    : flattened.resolveOutput(output, 0));
+        }
+
+        LevelizedSchedule schedule = LevelizedSchedule.compile(netlist);
+        int[] order = new int[count];
+        if (schedule.isAcyclic()) {
+            for (int position = 0; position < count; position++) {
+                order[position] = schedule.getComponentAt(position);
+            }
+        } else {
+            Arrays.setAll(order, i -> i);
+        }
+        List<String> inputNames = inputs.stream().map(Component::getName).toList();
+        List<String> outputNames = outputs.stream().map(Component::getName).toList();
+        return new CompiledCircuit(definition, version, nested.toArray(new Circuit[0]), nestedVersions,
+                inputNames, outputNames, kinds, portOffsets, portSources, order, schedule.isAcyclic(), inputSignals, outputSignals, initialSignals);
+    }
+
+    /**
+     * Collects the circuits nested in a circuit through sub-circuits, at any depth.
+     */
+    private static void collectNested(Circuit circuit, Set<Circuit> seen, List<Circuit> nested) {
+        seen.add(circuit);
+        for (Component component : circuit.getComponents()) {
+            if (component instanceof SubCircuit sub && sub.getInternalCircuit() != null
+                    && seen.add(sub.getInternalCircuit())) {
+                nested.add(sub.getInternalCircuit());
+                collectNested(sub.getInternalCircuit(), seen, nested);
+            }
+        }
+    }
+
+    private static int signalIndex(Netlist netlist, FlattenedCircuit.Signal signal) {
+        if (signal.component() == null) {
+            return signal.value() ? CONSTANT_TRUE : CONSTANT_FALSE;
+        }
+        int index = netlist.indexOf(signal.component());
+        return index >= 0 && signal.output() == 0 && signal.component().getOutputCount() > 0
+                ? index : CONSTANT_FALSE;
+    }
+
+    private static int kindOf(Component component) {
+        Class<?> type = component.getClass();
+        if (type == Switch.class) return SWITCH;
+        if (type == LED.class) return LED_SINK;
+        if (type == And.class) return AND;
+        if (type == Or.class) return OR;
+        if (type == Nand.class) return NAND;
+        if (type == Nor.class) return NOR;
+        if (type == Not.class) return NOT;
+        if (type == Xor.class) return XOR;
+        return -1;
+    }
+
+    /**
+     * Gets the circuit this definition was compiled from.
+     * The source is live and mutable; only the snapshot itself is thread-safe.
+     *
+     * @return The source circuit
+     */
+    public Circuit getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the structural version of the source circuit this snapshot was compiled at.
+     *
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether the source circuit, and every circuit nested in it, is still at
+     * the version this snapshot was compiled at.
+     *
+     * @return true if the snapshot reflects the current structure
+     */
+    public boolean isCurrent() {
+        if (source.getVersion() != version) {
+            return false;
+        }
+        for (int i = 0; i < nestedCircuits.length; i++) {
+            if (nestedCircuits[i].getVersion() != nestedVersions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the input names, the names of the source switches in input order.
+     *
+     * @return The input names
+     */
+    public List<String> getInputNames() {
+        return inputNames;
+    }
+
+    /**
+     * Gets the output names, the names of the source output components in output order.
+     *
+     * @return The output names
+     */
+    public List<String> getOutputNames() {
+        return outputNames;
+    }
+
+    /**
+     * Gets the number of primitive components, i.e. the number of signal bits per instance.
+     *
+     * @return The component count
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Gets the number of inputs.
+     *
+     * @return The input count
+     */
+    public int getInputCount() {
+        return inputSignals.length;
+    }
+
+    /**
+     * Gets the number of outputs.
+     *
+     * @return The output count
+     */
+    public int getOutputCount() {
+        return outputSignals.length;
+    }
+
+    /**
+     * Checks whether the definition is free of feedback.
+     *
+     * @return true if outputs depend only on the current inputs
+     */
+    public boolean isCombinational() {
+        return acyclic;
+    }
+
+    /**
+     * Creates the state of a new instance, holding the signal values the source circuit had when compiled.
+     *
+     * @return The instance state
+     */
+    public CircuitState newState() {
+        return new CircuitState(initialSignals.clone());
+    }
+
+    /**
+     * Evaluates one instance.
+     *
+     * @param state The instance state, updated in place
+     * @param inputs The packed input bits, bit {@code j} for input {@code j}
+     * @param outputs The packed output bits, overwritten
+     */
+    public void evaluate(CircuitState state, long[] inputs, long[] outputs) {
+        for (int j = 0; j < inputSignals.length; j++) {
+            if (inputSignals[j] >= 0) {
+                boolean value = j >>> 6 < inputs.length && (inputs[j >>> 6] >>> j & 1L) != 0;
+                state.set(inputSignals[j], value);
+            }
+        }
+
+        if (acyclic) {
+            for (int component : order) {
+                if (kinds[component] > LED_SINK) {
+                    state.set(component, compute(state, component));
+                }
+            }
+        } else {
+            boolean changed = true;
+            for (int pass = 0; changed && pass < EventDrivenSimulator.MAX_ITERATIONS; pass++) {
+                changed = false;
+                for (int component : order) {
+                    if (kinds[component] > LED_SINK) {
+                        boolean value = compute(state, component);
+                        if (value != state.get(component)) {
+                            state.set(component, value);
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        Arrays.fill(outputs, 0L);
+        for (int k = 0; k < outputSignals.length && k >>> 6 < outputs.length; k++) {
+            if (read(state, outputSignals[k])) {
+                outputs[k >>> 6] |= 1L << k;
+            }
+        }
+    }
+
+    /**
+     * Evaluates one instance with named inputs.
+     * Inputs missing from the map are false; unknown names are ignored.
+     *
+     * @param state The instance state, updated in place
+     * @param inputs Map of input names to their values
+     * @return Map of output names to their values
+     */
+    public Map<String, Boolean> simulate(CircuitState state, Map<String, Boolean> inputs) {
+        long[] packedInputs = new long[Math.max(1, (inputSignals.length + Long.SIZE - 1) / Long.SIZE)];
+        for (Map.Entry<String, Boolean> entry : inputs.entrySet()) {
+            Integer j = inputIndices.get(entry.getKey());
+            if (j != null && Boolean.TRUE.equals(entry.getValue())) {
+                packedInputs[j >>> 6] |= 1L << j;
+            }
+        }
+        long[] packedOutputs = new long[Math.max(1, (outputSignals.length + Long.SIZE - 1) / Long.SIZE)];
+        evaluate(state, packedInputs, packedOutputs);
+
+        Map<String, Boolean> outputs = new HashMap<>();
+        for (int k = 0; k < outputNames.size(); k++) {
+            outputs.put(outputNames.get(k), (packedOutputs[k >>> 6] >>> k & 1L) != 0);
+        }
+        return outputs;
+    }
+
+    private boolean compute(CircuitState state, int component) {
+        int start = portOffsets[component];
+        int end = portOffsets[component + 1];
+        switch (kinds[component]) {
+            case AND, NAND -> {
+                boolean all = start < end;
+                for (int p = start; p < end && all; p++) {
+                    all = read(state, portSources[p]);
+                }
+                return kinds[component] == AND ? all : !all;
+            }
+            case OR, NOR -> {
+                boolean any = false;
+                for (int p = start; p < end && !any; p++) {
+                    any = read(state, portSources[p]);
+                }
+                return kinds[component] == OR ? any : !any;
+            }
+            case NOT -> {
+                return start < end && !read(state, portSources[start]);
+            }
+            case XOR -> {
+                return end - start >= 2 && read(state, portSources[start]) ^ read(state, portSources[start + 1]);
+            }
+            default -> throw new IllegalStateException("Unknown component kind");
+        }
+    }
+
+    private static boolean read(CircuitState state, int signal) {
+        return signal >= 0 ? state.get(signal) : signal == CONSTANT_TRUE;
+    }
+}
@@ -0,0 +1,135 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Structural support of every output: the inputs that can reach it through connectors.
+ * An output that depends on 3 of 30 switches only needs 8 truth table rows
+ * instead of 2^30. Supports are computed once per strongly connected
+ * component, in topological order, so every connector is visited once.
+ * Outputs follow truth table column order: every circuit component with outputs.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class ConeOfInfluence {
+    private final int[] outputComponents;
+    private final String[] outputNames;
+    private final BitSet[] supports;
+
+    private ConeOfInfluence(int[] outputComponents, String[] outputNames, BitSet[] supports) {
+        this.outputComponents = outputComponents;
+        this.outputNames = outputNames;
+        this.supports = supports;
+    }
+
+    /**
+     * Computes the support of every output over a list of inputs.
+     *
+     * @param components The strongly connected components of the circuit
+     * @param inputs The input components, in truth table column order
+     * @return The supports
+     */
+    public static ConeOfInfluence compute(StronglyConnectedComponents components, List<? extends Component> inputs) {
+        Netlist netlist = components.getNetlist();
+        int count = netlist.getCircuitComponentCount();
+        BitSet[] reach = new BitSet[count];
+        for (int j = 0; j < inputs.size(); j++) {
+            int index = netlist.indexOf(inputs.get(j));
+            if (index >= 0 && index < count) {
+                if (reach[index] == null) {
+                    reach[index] = new BitSet();
+                }
+                reach[index].set(j);
+            }
+        }
+
+        // Every member of an SCC reaches every other member, so they share one support
+        for (int scc = 0; scc < components.getCount(); scc++) {
+            BitSet support = new BitSet();
+            for (int position = components.getStart(scc); position < components.getEnd(scc); position++) {
+                int component = components.getComponentAt(position);
+                if (reach[component] != null) {
+                    support.or(reach[component]);
+                }
+                for (int f = netlist.getFaninStart(component); f < netlist.getFaninEnd(component); f++) {
+                    int source = netlist.getSource(netlist.getFaninConnector(f));
+                    if (source >= 0 && source < count && components.getSccOf(source) != scc) {
+                        support.or(reach[source]);
+                    }
+                }
+            }
+            for (int position = components.getStart(scc); position < components.getEnd(scc); position++) {
+                reach[components.getComponentAt(position)] = support;
+            }
+        }
+
+        List<Integer> outputs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (netlist.getComponent(i).getOutputCount() > 0) {
+                outputs.add(i);
+            }
+        }
+        int[] outputComponents = outputs.stream().mapToInt(Integer::intValue).toArray();
+        String[] outputNames = new String[outputComponents.length];
+        BitSet[] supports = new BitSet[outputComponents.length];
+        for (int o = 0; o < outputComponents.length; o++) {
+            outputNames[o] = "Output_" + netlist.getComponent(outputComponents[o]).getName();
+            supports[o] = reach[outputComponents[o]];
+        }
+        return new ConeOfInfluence(outputComponents, outputNames, supports);
+    }
+
+    /**
+     * Gets the number of outputs.
+     *
+     * @return The output count
+     */
+    public int getOutputCount() {
+        return outputComponents.length;
+    }
+
+    /**
+     * Gets the truth table column name of an output.
+     *
+     * @param output The output column
+     * @return The output name
+     */
+    public String getOutputName(int output) {
+        return outputNames[output];
+    }
+
+    /**
+     * Gets the netlist index of the component behind an output.
+     *
+     * @param output The output column
+     * @return The component index
+     */
+    public int getOutputComponent(int output) {
+        return outputComponents[output];
+    }
+
+    /**
+     * Gets the inputs an output structurally depends on.
+     *
+     * @param output The output column
+     * @return A copy of the input columns in the support
+     */
+    public BitSet getSupport(int output) {
+        return (BitSet) supports[output].clone();
+    }
+
+    /**
+     * Gets the number of inputs an output structurally depends on.
+     *
+     * @param output The output column
+     * @return The support size
+     */
+    public int getSupportSize(int output) {
+        return supports[output].cardinality();
+    }
+}
@@ -0,0 +1,25 @@
+package com.logisim.domain.simulation;
+
+/**
+ * Orders in which truth table analysis can walk the input space.
+ * Rows are always reported with their canonical (binary) index.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public enum EnumerationOrder {
+    /**
+     * Counts rows in binary order and simulates every row from scratch.
+     */
+    BINARY,
+
+    /**
+     * Walks rows in Gray-code order so exactly one switch flips per step, and
+     * propagates each flip through its fanout cone only. Used for columnar truth
+     * tables of combinational circuits, which place rows by index; circuits with
+     * feedback, whose rows depend on the previous row, and rows streamed to a
+     * visitor, which must arrive in row order without being retained, are
+     * counted in binary order.
+     */
+    GRAY_CODE
+}
@@ -0,0 +1,105 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Event-driven simulation engine.
+ * Keeps a work-list of connectors whose source output changed and only
+ * re-evaluates sinks whose inputs actually change. Connectors are swept in
+ * circuit order, so a change reaches later connectors in the same pass and
+ * earlier connectors in the next pass, exactly like a full rescan would.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public class EventDrivenSimulator {
+    /**
+     * Maximum number of propagation passes before giving up on convergence.
+     */
+    public static final int MAX_ITERATIONS = 100;
+
+    private final Netlist netlist;
+
+    /**
+     * Constructor with the netlist to simulate.
+     *
+     * @param netlist The netlist
+     */
+    public EventDrivenSimulator(Netlist netlist) {
+        this.netlist = netlist;
+    }
+
+    /**
+     * Simulates the netlist with given input values.
+     *
+     * @param inputs Map of component names to their input values
+     * @return Map of component names to their output values
+     */
+    public Map<String, Boolean> simulate(Map<String, Boolean> inputs) {
+        int ownCount = netlist.getCircuitComponentCount();
+        boolean[] known = new boolean[netlist.getComponentCount()];
+
+        netlist.applyInputs(inputs);
+
+        // Execute all components once
+        for (int i = 0; i < ownCount; i++) {
+            netlist.getComponent(i).execute();
+            known[i] = true;
+        }
+
+        // Every connector may differ from its sink after the first evaluation
+        int connectorCount = netlist.getConnectorCount();
+        BitSet pending = new BitSet(connectorCount);
+        pending.set(0, connectorCount);
+
+        int iterations = 0;
+        while (!pending.isEmpty() && iterations < MAX_ITERATIONS) {
+            for (int c = pending.nextSetBit(0); c >= 0; c = pending.nextSetBit(c + 1)) {
+                pending.clear(c);
+                int source = netlist.getSource(c);
+                if (source < 0 || !known[source]) {
+                    continue;
+                }
+
+                int sink = netlist.getSink(c);
+                int port = netlist.getPort(c);
+                Component sinkComponent = netlist.getComponent(sink);
+                if (port < 0 || port >= sinkComponent.getInputCount()) {
+                    continue;
+                }
+                boolean sourceOutput = netlist.getComponent(source).getOutputBit(netlist.getSourceOutput(c));
+                if (sinkComponent.getInputBit(port) != sourceOutput) {
+                    sinkComponent.setInputBit(port, sourceOutput);
+                    sinkComponent.execute();
+                    known[sink] = true;
+                    scheduleFanout(sink, pending);
+                }
+            }
+            iterations++;
+        }
+
+        return netlist.collectOutputs();
+    }
+
+    /**
+     * Marks the connectors leaving a component whose value no longer matches the port they drive.
+     *
+     * @param component The component that was re-executed
+     * @param pending The pending connector set
+     */
+    private void scheduleFanout(int component, BitSet pending) {
+        Component source = netlist.getComponent(component);
+        for (int f = netlist.getFanoutStart(component); f < netlist.getFanoutEnd(component); f++) {
+            int connector = netlist.getFanoutConnector(f);
+            Component sink = netlist.getComponent(netlist.getSink(connector));
+            int port = netlist.getPort(connector);
+            if (port >= 0 && port < sink.getInputCount()
+                    && sink.getInputBit(port) != source.getOutputBit(netlist.getSourceOutput(connector))) {
+                pending.set(connector);
+            }
+        }
+    }
+}
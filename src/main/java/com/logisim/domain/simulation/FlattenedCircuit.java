@@ -0,0 +1,399 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.LED;
+import com.logisim.domain.components.SubCircuit;
+import com.logisim.domain.components.Switch;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A circuit hierarchy inlined into a single flat circuit of primitive components.
+ * Every component inside a sub-circuit instance is copied once, named by its
+ * instance path (for example {@code "FA/HA1/XOR"}), and connectors crossing a
+ * sub-circuit boundary are rewired to connect the primitive driver directly
+ * to the primitive sink. The flat circuit is an ordinary {@link Circuit}, so
+ * every simulation engine and the truth table analysis can run on it, and a
+ * signal crossing a boundary costs the same as any other connector.
+ *
+ * <p>Sub-circuit boundary ports that nothing drives keep the value they held
+ * when the hierarchy was flattened. Switches inside a sub-circuit that are not
+ * bound to a port keep their state.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class FlattenedCircuit {
+    /**
+     * Separator between the instance names of a hierarchical path.
+     */
+    public static final String PATH_SEPARATOR = "/";
+
+    private final Circuit circuit;
+    private final Flattener flattener;
+    private final Instance root;
+
+    private FlattenedCircuit(Flattener flattener, Instance root) {
+        this.circuit = flattener.flat;
+        this.flattener = flattener;
+        this.root = root;
+    }
+
+    /**
+     * Flattens a circuit hierarchy.
+     * The original circuits are not modified.
+     *
+     * @param top The top-level circuit
+     * @return The flattened circuit
+     * @throws IllegalArgumentException if a sub-circuit contains itself or a component cannot be copied
+     */
+    public static FlattenedCircuit flatten(Circuit top) {
+        if (top == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        Flattener flattener = new Flattener(top);
+        Instance root = new Instance("", top, null, null);
+        flattener.build(root);
+        flattener.wire(root);
+        return new FlattenedCircuit(flattener, root);
+    }
+
+    /**
+     * Gets the flat circuit.
+     *
+     * @return The flat circuit of primitive components
+     */
+    public Circuit getCircuit() {
+        return circuit;
+    }
+
+    /**
+     * Gets the hierarchy component a flat component was copied from.
+     *
+     * @param flatComponent A component of the flat circuit
+     * @return The original component, or null if the component is not part of the flat circuit
+     */
+    public Component getOriginal(Component flatComponent) {
+        return flattener.originals.get(flatComponent);
+    }
+
+    /**
+     * Gets the path of the sub-circuit instance a flat component belongs to.
+     *
+     * @param flatComponent A component of the flat circuit
+     * @return The instance path, empty for top-level components, or null if the component is unknown
+     */
+    public String getInstancePath(Component flatComponent) {
+        return flattener.instancePaths.get(flatComponent);
+    }
+
+    /**
+     * Simulates the flat circuit and reports the results under hierarchical names.
+     *
+     * @param inputs Map of component names to their input values
+     * @return Map of hierarchical names to output values
+     * @see #reportHierarchy(Map)
+     */
+    public Map<String, Boolean> simulate(Map<String, Boolean> inputs) {
+        return reportHierarchy(circuit.simulate(inputs));
+    }
+
+    /**
+     * Adds the values of components that were inlined away to the outputs of
+     * the flat circuit: each sub-circuit instance reports its first output and
+     * each bound switch reports the value driving it, both under their
+     * hierarchical path. Together with the flat components' own entries, the
+     * top-level names report the same values a simulation of the hierarchy does.
+     *
+     * @param outputs The outputs of the settled flat circuit, updated in place
+     * @return The updated outputs
+     */
+    public Map<String, Boolean> reportHierarchy(Map<String, Boolean> outputs) {
+        for (int i = 0; i < flattener.boundaryNames.size(); i++) {
+            outputs.put(flattener.boundaryNames.get(i), flattener.boundaryDrivers.get(i).read());
+        }
+        return outputs;
+    }
+
+    /**
+     * Finds the flat signal carrying an output of a top-level component.
+     * This also resolves the outputs of top-level sub-circuits, which have no flat copy.
+     *
+     * @param component A component of the top-level circuit
+     * @param output The output index
+     * @return The signal
+     */
+    public Signal resolveOutput(Component component, int output) {
+        return flattener.resolve(root, component, output);
+    }
+
+    /**
+     * Finds the flat signal driving an input port of a top-level component.
+     *
+     * @param sink A component of the top-level circuit
+     * @param port The input port
+     * @return The signal, or a constant holding the port's value if nothing drives it
+     */
+    public Signal resolveInput(Component sink, int port) {
+        return flattener.resolveInput(root, sink, port);
+    }
+
+    /**
+     * Source of a flat signal: an output of a flat component, or a constant
+     * when the component is null.
+     *
+     * @param component The flat component, or null for a constant
+     * @param output The output index of the flat component
+     * @param value The constant value
+     */
+    public record Signal(Component component, int output, boolean value) {
+        static Signal constant(boolean value) {
+            return new Signal(null, 0, value);
+        }
+
+        /**
+         * Reads the current value of the signal.
+         *
+         * @return The value
+         */
+        public boolean read() {
+            return component != null ? component.getOutputBit(output) : value;
+        }
+    }
+
+    /**
+     * One occurrence of a circuit in the hierarchy.
+     */
+    private static final class Instance {
+        private final String prefix;
+        private final Circuit circuit;
+        private final Instance parent;
+        private final SubCircuit owner;
+        private final Netlist netlist;
+        private final Map<Component, Component> copies = new IdentityHashMap<>();
+        private final Map<Component, Instance> children = new IdentityHashMap<>();
+        private final Map<Component, Integer> boundPorts = new IdentityHashMap<>();
+
+        Instance(String prefix, Circuit circuit, Instance parent, SubCircuit owner) {
+            this.prefix = prefix;
+            this.circuit = circuit;
+            this.parent = parent;
+            this.owner = owner;
+            this.netlist = circuit != null ? circuit.getNetlist() : null;
+        }
+
+        boolean contains(Circuit candidate) {
+            for (Instance instance = this; instance != null; instance = instance.parent) {
+                if (instance.circuit == candidate) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Builds the flat circuit in two passes: copy every primitive, then wire them.
+     */
+    private static final class Flattener {
+        private final Circuit flat;
+        private final Map<Component, Component> originals = new IdentityHashMap<>();
+        private final Map<Component, String> instancePaths = new IdentityHashMap<>();
+        private final List<String> boundaryNames = new ArrayList<>();
+        private final List<Signal> boundaryDrivers = new ArrayList<>();
+        private final Map<SubCircuit, BitSet> resolving = new IdentityHashMap<>();
+        private final List<Instance> instances = new ArrayList<>();
+
+        Flattener(Circuit top) {
+            this.flat = new Circuit(top.getName());
+            this.flat.setSimulationMode(top.getSimulationMode());
+        }
+
+        /**
+         * Copies the primitives of an instance and recurses into its sub-circuits.
+         */
+        void build(Instance instance) {
+            instances.add(instance);
+            if (instance.circuit == null) {
+                return;
+            }
+            if (instance.owner != null) {
+                List<Component> inputs = instance.owner.getInputComponents();
+                for (int port = 0; port < inputs.size() && port < instance.owner.getInputCount(); port++) {
+                    instance.boundPorts.put(inputs.get(port), port);
+                }
+            }
+            for (Component component : instance.circuit.getComponents()) {
+                if (component instanceof SubCircuit sub) {
+                    Circuit internal = sub.getInternalCircuit();
+                    if (internal != null && instance.contains(internal)) {
+                        throw new IllegalArgumentException("Sub-circuit " + sub.getName() + " contains itself");
+                    }
+                    Instance child = new Instance(instance.prefix + sub.getName() + PATH_SEPARATOR, internal, instance, sub);
+                    instance.children.put(sub, child);
+                    build(child);
+                } else if (instance.owner == null || !(component instanceof Switch)) {
+                    Component copy = copyOf(component, instance.prefix + component.getName());
+                    instance.copies.put(component, copy);
+                    originals.put(copy, component);
+                    instancePaths.put(copy, pathOf(instance));
+                    flat.addComponent(copy);
+                }
+            }
+        }
+
+        /**
+         * Adds the flat connectors of every instance and records the inlined values to report.
+         */
+        void wire(Instance root) {
+            for (Instance instance : instances) {
+                if (instance.circuit == null) {
+                    continue;
+                }
+                Netlist netlist = instance.netlist;
+                for (int c = 0; c < netlist.getConnectorCount(); c++) {
+                    int sink = netlist.getSink(c);
+                    int source = netlist.getSource(c);
+                    if (source < 0 || sink >= netlist.getCircuitComponentCount()
+                            || source >= netlist.getCircuitComponentCount()) {
+                        continue;
+                    }
+                    Component flatSink = instance.copies.get(netlist.getComponent(sink));
+                    int port = netlist.getPort(c);
+                    if (flatSink == null || port < 0 || port >= flatSink.getInputCount()) {
+                        continue;
+                    }
+                    Signal driver = resolve(instance, netlist.getComponent(source), netlist.getSourceOutput(c));
+                    if (driver.component() != null) {
+                        Connector connector = new Connector(driver.component(), flatSink);
+                        connector.setSourceOutputIndex(driver.output());
+                        connector.setSinkInputIndex(port);
+                        flat.addConnector(connector);
+                    } else {
+                        flatSink.setInputBit(port, driver.value());
+                    }
+                }
+                if (instance != root) {
+                    String path = instance.parent.prefix + instance.owner.getName();
+                    if (instance.owner.getOutputCount() > 0) {
+                        boundaryNames.add(path);
+                        boundaryDrivers.add(resolve(instance.parent, instance.owner, 0));
+                    }
+                    for (Map.Entry<Component, Integer> bound : instance.boundPorts.entrySet()) {
+                        boundaryNames.add(instance.prefix + bound.getKey().getName());
+                        boundaryDrivers.add(resolve(instance, bound.getKey(), 0));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Finds the flat signal behind an output of a hierarchy component.
+         */
+        private Signal resolve(Instance instance, Component component, int output) {
+            Component copy = instance.copies.get(component);
+            if (copy != null) {
+                return new Signal(copy, output, false);
+            }
+            Integer port = instance.boundPorts.get(component);
+            if (port != null) {
+                return resolveInput(instance.parent, instance.owner, port);
+            }
+            if (component instanceof Switch sw) {
+                return Signal.constant(sw.getState());
+            }
+            Instance child = instance.children.get(component);
+            if (child == null || child.circuit == null) {
+                return Signal.constant(false);
+            }
+            List<Component> outputs = child.owner.getOutputComponents();
+            if (output >= outputs.size() || output >= child.owner.getOutputCount()) {
+                return Signal.constant(false);
+            }
+            Component inner = outputs.get(output);
+            if (inner instanceof LED led) {
+                // An LED output reports what it displays, i.e. whatever drives it
+                return resolveInput(child, led, 0);
+            }
+            return resolve(child, inner, 0);
+        }
+
+        /**
+         * Finds the flat signal driving an input port, falling back to the value the port holds.
+         * When several connectors drive the port, the last one wins.
+         */
+        private Signal resolveInput(Instance instance, Component sink, int port) {
+            if (sink instanceof SubCircuit owner) {
+                BitSet ports = resolving.computeIfAbsent(owner, key -> new BitSet());
+                if (ports.get(port)) {
+                    // The port drives itself through sub-circuit boundaries only
+                    return Signal.constant(sink.getInputBit(port));
+                }
+                ports.set(port);
+                try {
+                    return findDriver(instance, sink, port);
+                } finally {
+                    ports.clear(port);
+                }
+            }
+            return findDriver(instance, sink, port);
+        }
+
+        private Signal findDriver(Instance instance, Component sink, int port) {
+            Netlist netlist = instance.netlist;
+            int sinkIndex = netlist.indexOf(sink);
+            int start = sinkIndex >= 0 ? netlist.getFaninStart(sinkIndex) : 0;
+            int end = sinkIndex >= 0 ? netlist.getFaninEnd(sinkIndex) : 0;
+            for (int f = end - 1; f >= start; f--) {
+                int connector = netlist.getFaninConnector(f);
+                int source = netlist.getSource(connector);
+                if (netlist.getPort(connector) == port && source >= 0
+                        && source < netlist.getCircuitComponentCount()) {
+                    return resolve(instance, netlist.getComponent(source), netlist.getSourceOutput(connector));
+                }
+            }
+            return Signal.constant(port < sink.getInputCount() && sink.getInputBit(port));
+        }
+
+        private static String pathOf(Instance instance) {
+            String prefix = instance.prefix;
+            return prefix.isEmpty() ? "" : prefix.substring(0, prefix.length() - PATH_SEPARATOR.length());
+        }
+
+        /**
+         * Creates a copy of a primitive component with the same ports and state.
+         */
+        private static Component copyOf(Component original, String name) {
+            Component copy;
+            try {
+                try {
+                    copy = original.getClass().getConstructor(String.class, int.class)
+                            .newInstance(name, original.getInputCount());
+                } catch (NoSuchMethodException e) {
+                    copy = original.getClass().getConstructor(String.class).newInstance(name);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(
+                        "Cannot flatten component: " + original.getClass().getSimpleName(), e);
+            }
+            List<Boolean> inputs = copy.getInputs();
+            while (copy.getInputCount() < original.getInputCount()) {
+                inputs.add(false);
+            }
+            for (int i = 0; i < original.getInputCount(); i++) {
+                copy.setInputBit(i, original.getInputBit(i));
+            }
+            if (original instanceof Switch sw) {
+                ((Switch) copy).setState(sw.getState());
+            }
+            copy.setPosition(original.getPosition());
+            return copy;
+        }
+    }
+}
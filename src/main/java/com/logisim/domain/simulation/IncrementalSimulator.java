@@ -0,0 +1,135 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+
+import java.util.BitSet;
+
+/**
+ * Propagates a local change through a settled circuit.
+ * Starting from a component whose outputs were changed by the caller, only
+ * its fanout cone is re-evaluated. Components are visited in the order of
+ * {@link StronglyConnectedComponents}, so every component outside a feedback
+ * loop is evaluated at most once; changes that flow back into a loop are
+ * swept again, up to {@link EventDrivenSimulator#MAX_ITERATIONS} times.
+ *
+ * <p>The circuit must be settled before each update: every component's
+ * outputs must follow from its ports, and every driven port must hold its
+ * source's value. A full simulation that converged leaves it that way.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class IncrementalSimulator {
+    private final StronglyConnectedComponents components;
+    private final int[] positions;
+
+    /**
+     * Constructor with the precomputed components of a netlist.
+     *
+     * @param components The strongly connected components
+     */
+    public IncrementalSimulator(StronglyConnectedComponents components) {
+        this.components = components;
+        this.positions = new int[components.getNetlist().getCircuitComponentCount()];
+        for (int position = 0; position < positions.length; position++) {
+            positions[components.getComponentAt(position)] = position;
+        }
+    }
+
+    /**
+     * Gets the netlist this simulator propagates through.
+     *
+     * @return The netlist
+     */
+    public Netlist getNetlist() {
+        return components.getNetlist();
+    }
+
+    /**
+     * Propagates the outputs of a component that the caller has just changed.
+     *
+     * @param component Index of the changed component in the netlist
+     * @return The components whose outputs changed, including {@code component}
+     */
+    public SignalChanges propagate(int component) {
+        Netlist netlist = components.getNetlist();
+        BitSet changed = new BitSet();
+        BitSet pending = new BitSet();
+        changed.set(component);
+        schedule(netlist, component, pending);
+
+        boolean stable = true;
+        int sweeps = 0;
+        int position = pending.nextSetBit(0);
+        while (position >= 0) {
+            pending.clear(position);
+            int current = components.getComponentAt(position);
+            if (evaluate(netlist, current)) {
+                changed.set(current);
+                schedule(netlist, current, pending);
+            }
+            int next = pending.nextSetBit(position + 1);
+            if (next < 0) {
+                // Only a feedback loop can schedule an earlier position
+                next = pending.nextSetBit(0);
+                if (next >= 0 && ++sweeps >= EventDrivenSimulator.MAX_ITERATIONS) {
+                    stable = false;
+                    break;
+                }
+            }
+            position = next;
+        }
+        return new SignalChanges(netlist, changed, stable, false);
+    }
+
+    /**
+     * Drives the ports of a component and re-executes it if any port changed.
+     *
+     * @return true if an output of the component changed
+     */
+    private static boolean evaluate(Netlist netlist, int component) {
+        Component sink = netlist.getComponent(component);
+        int portCount = sink.getInputCount();
+        boolean portChanged = false;
+        for (int f = netlist.getFaninStart(component); f < netlist.getFaninEnd(component); f++) {
+            int connector = netlist.getFaninConnector(f);
+            int port = netlist.getPort(connector);
+            int source = netlist.getSource(connector);
+            if (source >= 0 && port >= 0 && port < portCount) {
+                boolean value = netlist.getComponent(source).getOutputBit(netlist.getSourceOutput(connector));
+                if (sink.getInputBit(port) != value) {
+                    sink.setInputBit(port, value);
+                    portChanged = true;
+                }
+            }
+        }
+        if (!portChanged) {
+            return false;
+        }
+
+        int outputCount = sink.getOutputCount();
+        long before = 0L;
+        for (int output = 0; output < outputCount && output < Long.SIZE; output++) {
+            before |= sink.getOutputBit(output) ? 1L << output : 0L;
+        }
+        sink.execute();
+        long after = 0L;
+        for (int output = 0; output < outputCount && output < Long.SIZE; output++) {
+            after |= sink.getOutputBit(output) ? 1L << output : 0L;
+        }
+        // Sinks such as LEDs have no outputs but still show a new value
+        return before != after || outputCount == 0;
+    }
+
+    /**
+     * Marks the circuit components driven by a component.
+     */
+    private void schedule(Netlist netlist, int component, BitSet pending) {
+        for (int f = netlist.getFanoutStart(component); f < netlist.getFanoutEnd(component); f++) {
+            int sink = netlist.getSink(netlist.getFanoutConnector(f));
+            if (sink < positions.length) {
+                pending.set(positions[sink]);
+            }
+        }
+    }
+}
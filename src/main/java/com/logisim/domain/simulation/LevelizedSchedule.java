@@ -0,0 +1,179 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Levelized evaluation schedule for acyclic circuits.
+ * Components are sorted topologically once; each simulation then drives and
+ * executes every component exactly once in schedule order, without a
+ * convergence loop. Level {@code n} holds the components whose longest path
+ * from a circuit input is {@code n} connectors long.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class LevelizedSchedule {
+    private final Netlist netlist;
+    private final boolean acyclic;
+    private final int[] order;
+    private final int[] levelOffsets;
+
+    private LevelizedSchedule(Netlist netlist, boolean acyclic, int[] order, int[] levelOffsets) {
+        this.netlist = netlist;
+        this.acyclic = acyclic;
+        this.order = order;
+        this.levelOffsets = levelOffsets;
+    }
+
+    /**
+     * Levelizes a netlist.
+     * The schedule is marked cyclic when the connectors form a feedback loop or
+     * reference components outside the circuit.
+     *
+     * @param netlist The netlist to schedule
+     * @return The schedule
+     */
+    public static LevelizedSchedule compile(Netlist netlist) {
+        int count = netlist.getComponentCount();
+        if (count != netlist.getCircuitComponentCount()) {
+            return new LevelizedSchedule(netlist, false, new int[0], new int[] {0});
+        }
+
+        // Kahn's algorithm, one frontier per level
+        int[] remaining = new int[count];
+        for (int c = 0; c < netlist.getConnectorCount(); c++) {
+            if (netlist.getSource(c) >= 0) {
+                remaining[netlist.getSink(c)]++;
+            }
+        }
+        int[] order = new int[count];
+        int[] levelOffsets = new int[count + 1];
+        int scheduled = 0;
+        for (int i = 0; i < count; i++) {
+            if (remaining[i] == 0) {
+                order[scheduled++] = i;
+            }
+        }
+        int levels = 0;
+        int levelStart = 0;
+        while (levelStart < scheduled) {
+            int levelEnd = scheduled;
+            levelOffsets[levels++] = levelStart;
+            for (int i = levelStart; i < levelEnd; i++) {
+                int component = order[i];
+                for (int f = netlist.getFanoutStart(component); f < netlist.getFanoutEnd(component); f++) {
+                    int sink = netlist.getSink(netlist.getFanoutConnector(f));
+                    if (--remaining[sink] == 0) {
+                        order[scheduled++] = sink;
+                    }
+                }
+            }
+            Arrays.sort(order, levelEnd, scheduled);
+            levelStart = levelEnd;
+        }
+        levelOffsets[levels] = scheduled;
+
+        if (scheduled < count) {
+            return new LevelizedSchedule(netlist, false, new int[0], new int[] {0});
+        }
+        return new LevelizedSchedule(netlist, true, order, Arrays.copyOf(levelOffsets, levels + 1));
+    }
+
+    /**
+     * Gets the netlist this schedule was compiled from.
+     *
+     * @return The netlist
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * Checks whether the circuit could be levelized.
+     *
+     * @return true if the schedule can be used, false if the circuit has feedback
+     */
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    /**
+     * Gets the number of levels.
+     *
+     * @return The level count
+     */
+    public int getLevelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    /**
+     * Gets the position of the first component of a level in {@link #getComponentAt(int)}.
+     *
+     * @param level The level
+     * @return The first schedule position of the level
+     */
+    public int getLevelStart(int level) {
+        return levelOffsets[level];
+    }
+
+    /**
+     * Gets the position after the last component of a level.
+     *
+     * @param level The level
+     * @return The end schedule position of the level (exclusive)
+     */
+    public int getLevelEnd(int level) {
+        return levelOffsets[level + 1];
+    }
+
+    /**
+     * Gets the number of scheduled components.
+     *
+     * @return The schedule length
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Gets the component index at a schedule position.
+     *
+     * @param position The schedule position
+     * @return The component index in the netlist
+     */
+    public int getComponentAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Simulates the circuit in a single pass over the schedule.
+     *
+     * @param inputs Map of component names to their input values
+     * @return Map of component names to their output values
+     * @throws IllegalStateException if the circuit is not acyclic
+     */
+    public Map<String, Boolean> simulate(Map<String, Boolean> inputs) {
+        if (!acyclic) {
+            throw new IllegalStateException("Circuit has feedback and cannot be levelized");
+        }
+
+        netlist.applyInputs(inputs);
+        for (int component : order) {
+            Component sink = netlist.getComponent(component);
+            int portCount = sink.getInputCount();
+            for (int f = netlist.getFaninStart(component); f < netlist.getFaninEnd(component); f++) {
+                int connector = netlist.getFaninConnector(f);
+                int port = netlist.getPort(connector);
+                if (port >= 0 && port < portCount) {
+                    Component source = netlist.getComponent(netlist.getSource(connector));
+                    sink.setInputBit(port, source.getOutputBit(netlist.getSourceOutput(connector)));
+                }
+            }
+            sink.execute();
+        }
+        return netlist.collectOutputs();
+    }
+}
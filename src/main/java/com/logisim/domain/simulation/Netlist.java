@@ -0,0 +1,380 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Connectivity index over the components and connectors of a circuit.
+ * Components and connectors are numbered by their position in the circuit lists,
+ * and each connector is resolved once to a source output and a sink input port.
+ * Simulation engines use the precomputed fanout lists instead of rescanning
+ * the connector list on every propagation step.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class Netlist {
+    private final Component[] components;
+    private final int circuitComponentCount;
+    private final Map<Component, Integer> componentIndices;
+    private final Map<String, Integer> nameIndices;
+    private final int connectorCount;
+    private final int[] connectorSources;
+    private final int[] connectorSourceOutputs;
+    private final int[] connectorSinks;
+    private final int[] connectorPorts;
+    private final int[] fanoutOffsets;
+    private final int[] fanoutConnectors;
+    private final int[] faninOffsets;
+    private final int[] faninConnectors;
+
+    /**
+     * Builds the index for the given component and connector lists.
+     * Components referenced by connectors but missing from the component list
+     * are indexed after the circuit components so that they can still be driven.
+     *
+     * @param circuitComponents The circuit components, in circuit order
+     * @param circuitConnectors The circuit connectors, in circuit order
+     */
+    public Netlist(List<Component> circuitComponents, List<Connector> circuitConnectors) {
+        this.componentIndices = new IdentityHashMap<>();
+        this.nameIndices = new HashMap<>();
+        List<Component> indexed = new ArrayList<>(circuitComponents.size());
+        for (Component component : circuitComponents) {
+            if (component != null && !componentIndices.containsKey(component)) {
+                componentIndices.put(component, indexed.size());
+                if (component.getName() != null) {
+                    nameIndices.putIfAbsent(component.getName(), indexed.size());
+                }
+                indexed.add(component);
+            }
+        }
+        this.circuitComponentCount = indexed.size();
+
+        this.connectorCount = circuitConnectors.size();
+        this.connectorSources = new int[connectorCount];
+        this.connectorSourceOutputs = new int[connectorCount];
+        this.connectorSinks = new int[connectorCount];
+        this.connectorPorts = new int[connectorCount];
+
+        // Ports are taken from Connector.sinkInputIndex. Sinks whose connectors do not carry
+        // distinct indices (projects saved before ports were recorded) fall back to numbering
+        // their distinct drivers in connector order.
+        Map<Driver, Integer> legacyPorts = new HashMap<>();
+        Map<Integer, Integer> driverCountBySink = new HashMap<>();
+        Map<Port, Driver> driverByPort = new HashMap<>();
+        Set<Integer> legacySinks = new HashSet<>();
+        int[] legacyPortOf = new int[connectorCount];
+        for (int i = 0; i < connectorCount; i++) {
+            Connector connector = circuitConnectors.get(i);
+            if (connector == null || connector.getSource() == null || connector.getSink() == null) {
+                connectorSources[i] = -1;
+                connectorSinks[i] = -1;
+                connectorPorts[i] = -1;
+                continue;
+            }
+            int source = indexOf(connector.getSource(), indexed);
+            int sink = indexOf(connector.getSink(), indexed);
+            Driver driver = new Driver(sink, source, connector.getSourceOutputIndex());
+            Integer legacyPort = legacyPorts.get(driver);
+            if (legacyPort == null) {
+                legacyPort = driverCountBySink.merge(sink, 1, Integer::sum) - 1;
+                legacyPorts.put(driver, legacyPort);
+            }
+            Driver previous = driverByPort.putIfAbsent(new Port(sink, connector.getSinkInputIndex()), driver);
+            if (previous != null && !previous.equals(driver)) {
+                legacySinks.add(sink);
+            }
+            connectorSources[i] = source;
+            connectorSourceOutputs[i] = connector.getSourceOutputIndex();
+            connectorSinks[i] = sink;
+            connectorPorts[i] = connector.getSinkInputIndex();
+            legacyPortOf[i] = legacyPort;
+        }
+        for (int i = 0; i < connectorCount; i++) {
+            if (connectorSinks[i] >= 0 && legacySinks.contains(connectorSinks[i])) {
+                connectorPorts[i] = legacyPortOf[i];
+            }
+        }
+        this.components = indexed.toArray(new Component[0]);
+
+        // Fanout and fanin lists in compressed form, connectors ascending per component
+        this.fanoutOffsets = offsets(connectorSources, components.length);
+        this.fanoutConnectors = group(connectorSources, fanoutOffsets);
+        this.faninOffsets = offsets(connectorSinks, components.length);
+        this.faninConnectors = group(connectorSinks, faninOffsets);
+    }
+
+    /**
+     * Computes per-component start offsets for connectors grouped by component.
+     */
+    private static int[] offsets(int[] connectorComponents, int componentCount) {
+        int[] offsets = new int[componentCount + 1];
+        for (int component : connectorComponents) {
+            if (component >= 0) {
+                offsets[component + 1]++;
+            }
+        }
+        for (int c = 0; c < componentCount; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        return offsets;
+    }
+
+    /**
+     * Lists connectors grouped by component, using offsets from {@link #offsets(int[], int)}.
+     */
+    private static int[] group(int[] connectorComponents, int[] offsets) {
+        int[] grouped = new int[offsets[offsets.length - 1]];
+        int[] next = new int[offsets.length - 1];
+        for (int i = 0; i < connectorComponents.length; i++) {
+            int component = connectorComponents[i];
+            if (component >= 0) {
+                grouped[offsets[component] + next[component]++] = i;
+            }
+        }
+        return grouped;
+    }
+
+    /**
+     * A source output feeding a sink, used as a key while resolving bindings.
+     */
+    private record Driver(int sink, int source, int outputIndex) {
+    }
+
+    /**
+     * A sink input port, used as a key while resolving bindings.
+     */
+    private record Port(int sink, int index) {
+    }
+
+    /**
+     * Finds the index of a component, appending it if it is not indexed yet.
+     */
+    private int indexOf(Component component, List<Component> indexed) {
+        Integer index = componentIndices.get(component);
+        if (index == null) {
+            index = indexed.size();
+            componentIndices.put(component, index);
+            indexed.add(component);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the total number of indexed components.
+     *
+     * @return The component count, including components only reachable through connectors
+     */
+    public int getComponentCount() {
+        return components.length;
+    }
+
+    /**
+     * Gets the number of components that belong to the circuit itself.
+     * These occupy indices {@code 0..getCircuitComponentCount()-1}.
+     *
+     * @return The circuit component count
+     */
+    public int getCircuitComponentCount() {
+        return circuitComponentCount;
+    }
+
+    /**
+     * Gets the component at the given index.
+     *
+     * @param index The component index
+     * @return The component
+     */
+    public Component getComponent(int index) {
+        return components[index];
+    }
+
+    /**
+     * Gets the index of a component.
+     *
+     * @param component The component
+     * @return The index, or -1 if the component is not part of this netlist
+     */
+    public int indexOf(Component component) {
+        Integer index = componentIndices.get(component);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Finds the first circuit component with the given name.
+     * Equivalent to {@code Circuit.findComponentByName} but without a linear scan.
+     *
+     * @param name The component name
+     * @return The component index, or -1 if not found
+     */
+    public int findByName(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer index = nameIndices.get(name);
+        if (index != null && name.equals(components[index].getName())) {
+            return index;
+        }
+        // Names are mutable; fall back to a scan if the index is out of date
+        for (int i = 0; i < circuitComponentCount; i++) {
+            if (name.equals(components[i].getName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of connectors.
+     *
+     * @return The connector count
+     */
+    public int getConnectorCount() {
+        return connectorCount;
+    }
+
+    /**
+     * Gets the source component index of a connector.
+     *
+     * @param connector The connector index
+     * @return The source index, or -1 if the connector is not attached
+     */
+    public int getSource(int connector) {
+        return connectorSources[connector];
+    }
+
+    /**
+     * Gets the source output port a connector reads.
+     *
+     * @param connector The connector index
+     * @return The source output index
+     */
+    public int getSourceOutput(int connector) {
+        return connectorSourceOutputs[connector];
+    }
+
+    /**
+     * Gets the sink component index of a connector.
+     *
+     * @param connector The connector index
+     * @return The sink index, or -1 if the connector is not attached
+     */
+    public int getSink(int connector) {
+        return connectorSinks[connector];
+    }
+
+    /**
+     * Gets the sink input port a connector drives.
+     * The port may lie outside the sink's current inputs, in which case the connector is ignored.
+     *
+     * @param connector The connector index
+     * @return The input port index, or -1 if the connector is not attached
+     */
+    public int getPort(int connector) {
+        return connectorPorts[connector];
+    }
+
+    /**
+     * Gets the start of a component's fanout range in {@link #getFanoutConnector(int)}.
+     *
+     * @param component The component index
+     * @return The first fanout position
+     */
+    public int getFanoutStart(int component) {
+        return fanoutOffsets[component];
+    }
+
+    /**
+     * Gets the end (exclusive) of a component's fanout range.
+     *
+     * @param component The component index
+     * @return The position after the last fanout entry
+     */
+    public int getFanoutEnd(int component) {
+        return fanoutOffsets[component + 1];
+    }
+
+    /**
+     * Gets the connector stored at a fanout position.
+     * Connectors of one source are stored in ascending connector order.
+     *
+     * @param position The fanout position
+     * @return The connector index
+     */
+    public int getFanoutConnector(int position) {
+        return fanoutConnectors[position];
+    }
+
+    /**
+     * Gets the start of a component's fanin range in {@link #getFaninConnector(int)}.
+     *
+     * @param component The component index
+     * @return The first fanin position
+     */
+    public int getFaninStart(int component) {
+        return faninOffsets[component];
+    }
+
+    /**
+     * Gets the end (exclusive) of a component's fanin range.
+     *
+     * @param component The component index
+     * @return The position after the last fanin entry
+     */
+    public int getFaninEnd(int component) {
+        return faninOffsets[component + 1];
+    }
+
+    /**
+     * Gets the connector stored at a fanin position.
+     * Connectors of one sink are stored in ascending connector order.
+     *
+     * @param position The fanin position
+     * @return The connector index
+     */
+    public int getFaninConnector(int position) {
+        return faninConnectors[position];
+    }
+
+    /**
+     * Applies named input values to input port 0 of the matching components.
+     *
+     * @param inputs Map of component names to their input values
+     */
+    public void applyInputs(Map<String, Boolean> inputs) {
+        for (Map.Entry<String, Boolean> entry : inputs.entrySet()) {
+            int index = findByName(entry.getKey());
+            if (index >= 0) {
+                Component component = components[index];
+                if (component.getInputCount() > 0) {
+                    component.setInput(0, entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the first output of every circuit component that has outputs.
+     *
+     * @return Map of component names to their output values
+     */
+    public Map<String, Boolean> collectOutputs() {
+        Map<String, Boolean> outputs = new HashMap<>();
+        for (int i = 0; i < circuitComponentCount; i++) {
+            Component component = components[i];
+            if (component.getOutputCount() > 0) {
+                outputs.put(component.getName(), component.getOutputBit(0));
+            }
+        }
+        return outputs;
+    }
+}
@@ -0,0 +1,105 @@
+package com.logisim.domain.simulation;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the progress of a long-running analysis and lets another thread cancel it.
+ * The running task reports completed work units (rows or vectors) and checks
+ * for cancellation between blocks; observers poll the counters instead of
+ * receiving a callback per unit. All methods are thread-safe.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class ProgressMonitor {
+    private final LongAdder completed = new LongAdder();
+    private volatile long total = -1;
+    private volatile long startNanos = System.nanoTime();
+    private volatile boolean cancelled;
+
+    /**
+     * Marks the start of the work and records its size.
+     *
+     * @param total The number of units to process, or -1 if unknown
+     */
+    public void start(long total) {
+        this.total = total;
+        this.startNanos = System.nanoTime();
+        completed.reset();
+    }
+
+    /**
+     * Records completed units.
+     *
+     * @param units The number of units just completed
+     */
+    public void advance(long units) {
+        completed.add(units);
+    }
+
+    /**
+     * Requests cancellation; the task stops at its next check.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether cancellation was requested.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the calling task if cancellation was requested.
+     *
+     * @throws CancellationException if cancelled
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Analysis cancelled");
+        }
+    }
+
+    /**
+     * Gets the number of completed units.
+     *
+     * @return The completed units
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the number of units to process.
+     *
+     * @return The total, or -1 if unknown
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the completed fraction of the work.
+     *
+     * @return A value between 0 and 1, or -1 if the total is unknown
+     */
+    public double getFraction() {
+        long size = total;
+        return size > 0 ? Math.min(1.0, (double) getCompleted() / size) : -1;
+    }
+
+    /**
+     * Gets the average throughput since the start.
+     *
+     * @return Completed units per second
+     */
+    public double getRate() {
+        double seconds = Math.max(System.nanoTime() - startNanos, 1L) / 1e9;
+        return getCompleted() / seconds;
+    }
+}
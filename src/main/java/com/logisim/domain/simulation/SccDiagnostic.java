@@ -0,0 +1,95 @@
+package com.logisim.domain.simulation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of iterating one feedback loop (a strongly connected component) to a fixed point.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class SccDiagnostic {
+    /**
+     * How the iteration of a feedback loop ended.
+     */
+    public enum Status {
+        /** The loop reached a stable state. */
+        CONVERGED,
+        /** The loop revisited an earlier state and will never settle. */
+        OSCILLATING,
+        /** The loop neither settled nor repeated within the iteration limit. */
+        ITERATION_LIMIT
+    }
+
+    private final List<String> componentNames;
+    private final Status status;
+    private final int iterations;
+    private final int period;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param componentNames Names of the components in the loop
+     * @param status How the iteration ended
+     * @param iterations Number of sweeps performed
+     * @param period Length of the detected cycle, or 0 if none was detected
+     */
+    public SccDiagnostic(List<String> componentNames, Status status, int iterations, int period) {
+        this.componentNames = Collections.unmodifiableList(componentNames);
+        this.status = status;
+        this.iterations = iterations;
+        this.period = period;
+    }
+
+    /**
+     * Gets the names of the components in the loop.
+     *
+     * @return The component names, in circuit order
+     */
+    public List<String> getComponentNames() {
+        return componentNames;
+    }
+
+    /**
+     * Gets how the iteration ended.
+     *
+     * @return The status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether the loop reached a stable state.
+     *
+     * @return true if the loop converged
+     */
+    public boolean isStable() {
+        return status == Status.CONVERGED;
+    }
+
+    /**
+     * Gets the number of sweeps over the loop.
+     *
+     * @return The iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the number of sweeps after which an oscillating loop repeats its state.
+     *
+     * @return The period, or 0 if the loop did not oscillate
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    @Override
+    public String toString() {
+        return "SccDiagnostic{components=" + componentNames + ", status=" + status
+                + ", iterations=" + iterations + ", period=" + period + "}";
+    }
+}
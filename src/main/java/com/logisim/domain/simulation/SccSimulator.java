@@ -0,0 +1,120 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simulation engine driven by the strongly connected components of the circuit.
+ * Components outside feedback loops are driven and executed exactly once, in
+ * topological order. Each feedback loop is swept on its own until its outputs
+ * stop changing; a loop that revisits an earlier state is reported as
+ * oscillating instead of being iterated up to a global pass limit.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public class SccSimulator {
+    private final StronglyConnectedComponents components;
+
+    /**
+     * Constructor with the precomputed components of a netlist.
+     *
+     * @param components The strongly connected components
+     */
+    public SccSimulator(StronglyConnectedComponents components) {
+        this.components = components;
+    }
+
+    /**
+     * Simulates the netlist with given input values.
+     *
+     * @param inputs Map of component names to their input values
+     * @return The outputs and one diagnostic per feedback loop
+     */
+    public SimulationResult simulate(Map<String, Boolean> inputs) {
+        Netlist netlist = components.getNetlist();
+        netlist.applyInputs(inputs);
+
+        List<SccDiagnostic> diagnostics = new ArrayList<>();
+        for (int scc = 0; scc < components.getCount(); scc++) {
+            int start = components.getStart(scc);
+            if (!components.hasFeedback(scc)) {
+                evaluate(netlist, components.getComponentAt(start));
+            } else {
+                diagnostics.add(iterate(netlist, start, components.getEnd(scc)));
+            }
+        }
+        return new SimulationResult(netlist.collectOutputs(), diagnostics);
+    }
+
+    /**
+     * Sweeps a feedback loop until its outputs are stable or a state repeats.
+     */
+    private SccDiagnostic iterate(Netlist netlist, int start, int end) {
+        Map<BitSet, Integer> seen = new HashMap<>();
+        BitSet state = captureState(netlist, start, end);
+        seen.put(state, 0);
+        for (int iteration = 1; iteration <= EventDrivenSimulator.MAX_ITERATIONS; iteration++) {
+            for (int position = start; position < end; position++) {
+                evaluate(netlist, components.getComponentAt(position));
+            }
+            BitSet next = captureState(netlist, start, end);
+            if (next.equals(state)) {
+                return diagnostic(netlist, start, end, SccDiagnostic.Status.CONVERGED, iteration, 0);
+            }
+            Integer first = seen.putIfAbsent(next, iteration);
+            if (first != null) {
+                return diagnostic(netlist, start, end, SccDiagnostic.Status.OSCILLATING, iteration, iteration - first);
+            }
+            state = next;
+        }
+        return diagnostic(netlist, start, end, SccDiagnostic.Status.ITERATION_LIMIT,
+                EventDrivenSimulator.MAX_ITERATIONS, 0);
+    }
+
+    /**
+     * Drives the connected input ports of a component and executes it.
+     */
+    private static void evaluate(Netlist netlist, int component) {
+        Component sink = netlist.getComponent(component);
+        int portCount = sink.getInputCount();
+        for (int f = netlist.getFaninStart(component); f < netlist.getFaninEnd(component); f++) {
+            int connector = netlist.getFaninConnector(f);
+            int port = netlist.getPort(connector);
+            int source = netlist.getSource(connector);
+            if (source >= 0 && port >= 0 && port < portCount) {
+                sink.setInputBit(port, netlist.getComponent(source).getOutputBit(netlist.getSourceOutput(connector)));
+            }
+        }
+        sink.execute();
+    }
+
+    /**
+     * Packs every output bit of the loop members into one bitset.
+     */
+    private BitSet captureState(Netlist netlist, int start, int end) {
+        BitSet state = new BitSet();
+        int bit = 0;
+        for (int position = start; position < end; position++) {
+            Component member = netlist.getComponent(components.getComponentAt(position));
+            for (int output = 0; output < member.getOutputCount(); output++) {
+                state.set(bit++, member.getOutputBit(output));
+            }
+        }
+        return state;
+    }
+
+    private SccDiagnostic diagnostic(Netlist netlist, int start, int end,
+                                     SccDiagnostic.Status status, int iterations, int period) {
+        List<String> names = new ArrayList<>(end - start);
+        for (int position = start; position < end; position++) {
+            names.add(netlist.getComponent(components.getComponentAt(position)).getName());
+        }
+        return new SccDiagnostic(names, status, iterations, period);
+    }
+}
@@ -0,0 +1,126 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Components whose outputs changed during an incremental update.
+ * Lets a view repaint only the affected components instead of the whole circuit.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class SignalChanges {
+    private final Netlist netlist;
+    private final BitSet changed;
+    private final boolean stable;
+    private final boolean fullSimulation;
+
+    /**
+     * Constructor with the changed component indices.
+     *
+     * @param netlist The netlist the indices refer to
+     * @param changed Indices of the components whose outputs changed
+     * @param stable Whether every feedback loop settled
+     * @param fullSimulation Whether the whole circuit was simulated instead of a fanout cone
+     */
+    public SignalChanges(Netlist netlist, BitSet changed, boolean stable, boolean fullSimulation) {
+        this.netlist = netlist;
+        this.changed = changed;
+        this.stable = stable;
+        this.fullSimulation = fullSimulation;
+    }
+
+    /**
+     * Gets the number of changed components.
+     *
+     * @return The change count
+     */
+    public int size() {
+        return changed.cardinality();
+    }
+
+    /**
+     * Checks whether any output changed.
+     *
+     * @return true if nothing changed
+     */
+    public boolean isEmpty() {
+        return changed.isEmpty();
+    }
+
+    /**
+     * Checks whether a component's outputs changed.
+     *
+     * @param component The component
+     * @return true if the component changed
+     */
+    public boolean contains(Component component) {
+        int index = netlist.indexOf(component);
+        return index >= 0 && changed.get(index);
+    }
+
+    /**
+     * Finds the next changed component index, for iterating without allocating.
+     *
+     * @param fromIndex The first component index to check
+     * @return The next changed index, or -1 if there is none
+     */
+    public int nextChanged(int fromIndex) {
+        return changed.nextSetBit(fromIndex);
+    }
+
+    /**
+     * Gets the changed components, in circuit order.
+     *
+     * @return The changed components
+     */
+    public List<Component> getChangedComponents() {
+        List<Component> components = new ArrayList<>(changed.cardinality());
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            components.add(netlist.getComponent(i));
+        }
+        return components;
+    }
+
+    /**
+     * Gets the new first output of every changed component that has outputs.
+     * Keys match the names used by {@link Netlist#collectOutputs()}.
+     *
+     * @return Map of component names to their output values
+     */
+    public Map<String, Boolean> getChangedOutputs() {
+        Map<String, Boolean> outputs = new LinkedHashMap<>();
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            Component component = netlist.getComponent(i);
+            if (i < netlist.getCircuitComponentCount() && component.getOutputCount() > 0) {
+                outputs.put(component.getName(), component.getOutputBit(0));
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Checks whether every feedback loop reached a stable state.
+     *
+     * @return true if the outputs are settled
+     */
+    public boolean isStable() {
+        return stable;
+    }
+
+    /**
+     * Checks whether the change required a full simulation.
+     * In that case every component is reported as changed.
+     *
+     * @return true if the whole circuit was simulated
+     */
+    public boolean isFullSimulation() {
+        return fullSimulation;
+    }
+}
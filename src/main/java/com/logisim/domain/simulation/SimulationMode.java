@@ -0,0 +1,20 @@
+package com.logisim.domain.simulation;
+
+/**
+ * Simulation strategies a circuit can use.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public enum SimulationMode {
+    /**
+     * Event-driven propagation; handles any circuit, including feedback loops.
+     */
+    EVENT_DRIVEN,
+
+    /**
+     * Single pass over a cached levelized schedule; circuits with feedback
+     * fall back to event-driven propagation.
+     */
+    COMPILED
+}
@@ -0,0 +1,75 @@
+package com.logisim.domain.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outputs of a simulation together with a diagnostic for every feedback loop it iterated.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class SimulationResult {
+    private final Map<String, Boolean> outputs;
+    private final List<SccDiagnostic> diagnostics;
+
+    /**
+     * Constructor with outputs and loop diagnostics.
+     *
+     * @param outputs Map of component names to their output values
+     * @param diagnostics One diagnostic per feedback loop, in evaluation order
+     */
+    public SimulationResult(Map<String, Boolean> outputs, List<SccDiagnostic> diagnostics) {
+        this.outputs = outputs;
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * Gets the simulated outputs.
+     *
+     * @return Map of component names to their output values
+     */
+    public Map<String, Boolean> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * Gets the diagnostics of every feedback loop.
+     *
+     * @return The diagnostics; empty for acyclic circuits
+     */
+    public List<SccDiagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Checks whether every feedback loop reached a stable state.
+     *
+     * @return true if the outputs are settled
+     */
+    public boolean isStable() {
+        for (SccDiagnostic diagnostic : diagnostics) {
+            if (!diagnostic.isStable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the diagnostics of the loops that did not settle.
+     *
+     * @return The unstable loops
+     */
+    public List<SccDiagnostic> getUnstableLoops() {
+        List<SccDiagnostic> unstable = new ArrayList<>();
+        for (SccDiagnostic diagnostic : diagnostics) {
+            if (!diagnostic.isStable()) {
+                unstable.add(diagnostic);
+            }
+        }
+        return unstable;
+    }
+}
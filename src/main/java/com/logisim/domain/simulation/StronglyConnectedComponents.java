@@ -0,0 +1,220 @@
+package com.logisim.domain.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components of a circuit's connector graph, found with Tarjan's algorithm.
+ * Components are grouped by SCC and the SCCs are listed in topological order,
+ * so evaluating them in order sees every driver outside an SCC already settled.
+ * An SCC has feedback when it holds more than one component or a component
+ * that drives itself.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class StronglyConnectedComponents {
+    private final Netlist netlist;
+    private final int[] order;
+    private final int[] offsets;
+    private final int[] sccOf;
+    private final boolean[] feedback;
+
+    private StronglyConnectedComponents(Netlist netlist, int[] order, int[] offsets, int[] sccOf, boolean[] feedback) {
+        this.netlist = netlist;
+        this.order = order;
+        this.offsets = offsets;
+        this.sccOf = sccOf;
+        this.feedback = feedback;
+    }
+
+    /**
+     * Computes the strongly connected components of a netlist.
+     * Only components of the circuit are considered; connectors to or from
+     * components outside the circuit are ignored.
+     *
+     * @param netlist The netlist
+     * @return The components
+     */
+    public static StronglyConnectedComponents compute(Netlist netlist) {
+        int count = netlist.getCircuitComponentCount();
+        int[] index = new int[count];
+        int[] lowLink = new int[count];
+        boolean[] onStack = new boolean[count];
+        Arrays.fill(index, -1);
+        int[] stack = new int[count];
+        int stackSize = 0;
+        // Explicit call stack: component and position in its fanout list
+        int[] callComponent = new int[count];
+        int[] callPosition = new int[count];
+        int[] sccOf = new int[count];
+        int[] members = new int[count];
+        int[] sccEnds = new int[count + 1];
+        int memberCount = 0;
+        int sccCount = 0;
+        int nextIndex = 0;
+
+        for (int root = 0; root < count; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callComponent[0] = root;
+            callPosition[0] = netlist.getFanoutStart(root);
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int component = callComponent[depth];
+                if (callPosition[depth] < netlist.getFanoutEnd(component)) {
+                    int sink = netlist.getSink(netlist.getFanoutConnector(callPosition[depth]++));
+                    if (sink >= count) {
+                        continue;
+                    }
+                    if (index[sink] < 0) {
+                        index[sink] = lowLink[sink] = nextIndex++;
+                        stack[stackSize++] = sink;
+                        onStack[sink] = true;
+                        depth++;
+                        callComponent[depth] = sink;
+                        callPosition[depth] = netlist.getFanoutStart(sink);
+                    } else if (onStack[sink]) {
+                        lowLink[component] = Math.min(lowLink[component], index[sink]);
+                    }
+                    continue;
+                }
+
+                if (lowLink[component] == index[component]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        sccOf[member] = sccCount;
+                        members[memberCount++] = member;
+                    } while (member != component);
+                    sccEnds[++sccCount] = memberCount;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callComponent[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[component]);
+                }
+            }
+        }
+
+        // Tarjan emits SCCs in reverse topological order
+        int[] order = new int[count];
+        int[] offsets = new int[sccCount + 1];
+        boolean[] feedback = new boolean[sccCount];
+        int[] topological = new int[count];
+        int position = 0;
+        for (int scc = 0; scc < sccCount; scc++) {
+            int source = sccCount - 1 - scc;
+            offsets[scc] = position;
+            for (int m = sccEnds[source]; m < sccEnds[source + 1]; m++) {
+                order[position++] = members[m];
+            }
+            Arrays.sort(order, offsets[scc], position);
+            topological[source] = scc;
+        }
+        offsets[sccCount] = position;
+        for (int component = 0; component < count; component++) {
+            sccOf[component] = topological[sccOf[component]];
+        }
+        for (int scc = 0; scc < sccCount; scc++) {
+            feedback[scc] = offsets[scc + 1] - offsets[scc] > 1 || drivesItself(netlist, order[offsets[scc]]);
+        }
+        return new StronglyConnectedComponents(netlist, order, offsets, sccOf, feedback);
+    }
+
+    private static boolean drivesItself(Netlist netlist, int component) {
+        for (int f = netlist.getFanoutStart(component); f < netlist.getFanoutEnd(component); f++) {
+            if (netlist.getSink(netlist.getFanoutConnector(f)) == component) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the netlist these components were computed from.
+     *
+     * @return The netlist
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * Gets the number of strongly connected components.
+     *
+     * @return The SCC count
+     */
+    public int getCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets the position of the first member of an SCC in {@link #getComponentAt(int)}.
+     *
+     * @param scc The SCC, in topological order
+     * @return The first position
+     */
+    public int getStart(int scc) {
+        return offsets[scc];
+    }
+
+    /**
+     * Gets the position after the last member of an SCC.
+     *
+     * @param scc The SCC, in topological order
+     * @return The end position (exclusive)
+     */
+    public int getEnd(int scc) {
+        return offsets[scc + 1];
+    }
+
+    /**
+     * Gets the component at a position; members of an SCC are in ascending index order.
+     *
+     * @param position The position
+     * @return The component index in the netlist
+     */
+    public int getComponentAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Gets the SCC a component belongs to.
+     *
+     * @param component The component index in the netlist
+     * @return The SCC, in topological order
+     */
+    public int getSccOf(int component) {
+        return sccOf[component];
+    }
+
+    /**
+     * Checks whether an SCC contains a feedback loop.
+     *
+     * @param scc The SCC
+     * @return true if the SCC has more than one member or a member driving itself
+     */
+    public boolean hasFeedback(int scc) {
+        return feedback[scc];
+    }
+
+    /**
+     * Checks whether any SCC contains a feedback loop.
+     *
+     * @return true if the circuit has feedback
+     */
+    public boolean hasFeedback() {
+        for (boolean loop : feedback) {
+            if (loop) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,386 @@
+package com.logisim.domain.simulation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar truth table.
+ * Input columns are not stored: row {@code i} assigns input {@code j} (of
+ * {@code n}) the value of bit {@code n-1-j} of {@code i}. Each output column
+ * is a bitset holding one bit per row, so a table costs one bit per output
+ * per row and any cell is read in constant time. Column order is the order in
+ * which the analysis produced the columns and is stable across runs.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class TruthTable {
+    /**
+     * Largest number of inputs whose output bitsets still fit in a Java array.
+     */
+    public static final int MAX_INPUTS = 36;
+
+    private static final TruthTable EMPTY = new TruthTable(new String[0], new String[0], 0, new long[0][]);
+
+    private final String[] inputNames;
+    private final String[] outputNames;
+    private final long rowCount;
+    private final long[][] outputWords;
+    private final Map<String, Integer> inputColumns;
+    private final Map<String, Integer> outputColumns;
+
+    /**
+     * Constructor taking ownership of the column arrays.
+     * 
+     * @param inputNames Input column names, most significant input first
+     * @param outputNames Output column names
+     * @param rowCount Number of rows
+     * @param outputWords One bitset per output column, bit {@code i} holding row {@code i}
+     */
+    TruthTable(String[] inputNames, String[] outputNames, long rowCount, long[][] outputWords) {
+        this.inputNames = inputNames;
+        this.outputNames = outputNames;
+        this.rowCount = rowCount;
+        this.outputWords = outputWords;
+        this.inputColumns = columnIndex(inputNames);
+        this.outputColumns = columnIndex(outputNames);
+    }
+
+    /**
+     * Gets the table with no rows and no columns.
+     * 
+     * @return The empty table
+     */
+    public static TruthTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a table from output bitsets computed elsewhere, covering every
+     * row of its inputs.
+     *
+     * @param inputNames Input column names, most significant input first
+     * @param outputNames Output column names
+     * @param outputWords One bitset per output column, bit {@code i} holding row {@code i}
+     * @return The truth table
+     * @throws IllegalArgumentException if there are too many inputs or a bitset has the wrong length
+     */
+    public static TruthTable fromColumns(List<String> inputNames, List<String> outputNames, long[][] outputWords) {
+        if (inputNames.size() > MAX_INPUTS) {
+            throw new IllegalArgumentException("Truth table cannot hold more than " + MAX_INPUTS + " inputs");
+        }
+        if (outputWords.length != outputNames.size()) {
+            throw new IllegalArgumentException("Expected one bitset per output column");
+        }
+        long rowCount = 1L << inputNames.size();
+        long wordCount = (rowCount + Long.SIZE - 1) / Long.SIZE;
+        long[][] words = new long[outputWords.length][];
+        for (int o = 0; o < words.length; o++) {
+            if (outputWords[o].length != wordCount) {
+                throw new IllegalArgumentException("Bitset of output " + outputNames.get(o) + " has the wrong length");
+            }
+            words[o] = outputWords[o].clone();
+        }
+        return new TruthTable(inputNames.toArray(new String[0]), outputNames.toArray(new String[0]), rowCount, words);
+    }
+
+    /**
+     * Maps column names to columns; for repeated names the last column wins.
+     */
+    private static Map<String, Integer> columnIndex(String[] names) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int column = 0; column < names.length; column++) {
+            index.put(names[column], column);
+        }
+        return index;
+    }
+
+    /**
+     * Allocates zeroed output bitsets for a table.
+     * 
+     * @param outputCount Number of output columns
+     * @param rowCount Number of rows
+     * @return The bitsets
+     */
+    static long[][] allocateColumns(int outputCount, long rowCount) {
+        return new long[outputCount][(int) ((rowCount + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * Gets the number of rows.
+     * 
+     * @return The row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Checks whether the table has no rows.
+     * 
+     * @return true if the table is empty
+     */
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    /**
+     * Gets the number of input columns.
+     * 
+     * @return The input column count
+     */
+    public int getInputCount() {
+        return inputNames.length;
+    }
+
+    /**
+     * Gets the number of output columns.
+     * 
+     * @return The output column count
+     */
+    public int getOutputCount() {
+        return outputNames.length;
+    }
+
+    /**
+     * Gets the name of an input column.
+     * 
+     * @param column The input column
+     * @return The column name
+     */
+    public String getInputName(int column) {
+        return inputNames[column];
+    }
+
+    /**
+     * Gets the name of an output column.
+     * 
+     * @param column The output column
+     * @return The column name
+     */
+    public String getOutputName(int column) {
+        return outputNames[column];
+    }
+
+    /**
+     * Gets the input column names in column order.
+     * 
+     * @return Unmodifiable list of input column names
+     */
+    public List<String> getInputNames() {
+        return Collections.unmodifiableList(Arrays.asList(inputNames));
+    }
+
+    /**
+     * Gets the output column names in column order.
+     * 
+     * @return Unmodifiable list of output column names
+     */
+    public List<String> getOutputNames() {
+        return Collections.unmodifiableList(Arrays.asList(outputNames));
+    }
+
+    /**
+     * Finds an input column by name.
+     * 
+     * @param name The column name
+     * @return The column, or -1 if there is none
+     */
+    public int indexOfInput(String name) {
+        return inputColumns.getOrDefault(name, -1);
+    }
+
+    /**
+     * Finds an output column by name.
+     * 
+     * @param name The column name
+     * @return The column, or -1 if there is none
+     */
+    public int indexOfOutput(String name) {
+        return outputColumns.getOrDefault(name, -1);
+    }
+
+    /**
+     * Gets the value of an input cell.
+     * 
+     * @param row The row
+     * @param column The input column
+     * @return The value
+     */
+    public boolean getInput(long row, int column) {
+        checkRow(row);
+        if (column < 0 || column >= inputNames.length) {
+            throw new IndexOutOfBoundsException("Input column " + column + " out of range");
+        }
+        return (row >>> (inputNames.length - 1 - column) & 1L) != 0;
+    }
+
+    /**
+     * Gets the value of an output cell.
+     * 
+     * @param row The row
+     * @param column The output column
+     * @return The value
+     */
+    public boolean getOutput(long row, int column) {
+        checkRow(row);
+        return (outputWords[column][(int) (row >>> 6)] >>> row & 1L) != 0;
+    }
+
+    /**
+     * Gets the value of a cell by column name, inputs taking precedence.
+     * 
+     * @param row The row
+     * @param name The column name
+     * @return The value, or null if no column has that name
+     */
+    public Boolean getValue(long row, String name) {
+        Integer column = inputColumns.get(name);
+        if (column != null) {
+            return getInput(row, column);
+        }
+        column = outputColumns.get(name);
+        return column != null ? getOutput(row, column) : null;
+    }
+
+    /**
+     * Gets the table of a single output over the same inputs.
+     * The column is shared, not copied, since tables are immutable.
+     * 
+     * @param column The output column
+     * @return A table with one output column
+     */
+    public TruthTable selectOutput(int column) {
+        return new TruthTable(inputNames, new String[] {outputNames[column]}, rowCount,
+                new long[][] {outputWords[column]});
+    }
+
+    /**
+     * Gets 64 consecutive rows of an output column as a word.
+     * Bit {@code k} holds row {@code 64 * word + k}; bits past the last row are zero.
+     * 
+     * @param column The output column
+     * @param word The word index
+     * @return The word
+     */
+    public long getOutputWord(int column, int word) {
+        return outputWords[column][word];
+    }
+
+    /**
+     * Gets the number of words per output column.
+     * 
+     * @return The word count
+     */
+    public int getWordCount() {
+        return (int) ((rowCount + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Streams the rows to a visitor in row order.
+     * 
+     * @param visitor The visitor receiving the rows
+     */
+    public void forEachRow(TruthTableVisitor visitor) {
+        TruthTableRow row = new TruthTableRow(inputNames, outputNames);
+        for (long i = 0; i < rowCount; i++) {
+            row.setIndex(i);
+            for (int j = 0; j < inputNames.length; j++) {
+                row.setInput(j, getInput(i, j));
+            }
+            for (int o = 0; o < outputNames.length; o++) {
+                row.setOutput(o, getOutput(i, o));
+            }
+            visitor.visitRow(row);
+        }
+    }
+
+    private void checkRow(long row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TruthTable that = (TruthTable) o;
+        return rowCount == that.rowCount
+                && Arrays.equals(inputNames, that.inputNames)
+                && Arrays.equals(outputNames, that.outputNames)
+                && Arrays.deepEquals(outputWords, that.outputWords);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(rowCount);
+        result = 31 * result + Arrays.hashCode(inputNames);
+        result = 31 * result + Arrays.hashCode(outputNames);
+        return 31 * result + Arrays.deepHashCode(outputWords);
+    }
+
+    @Override
+    public String toString() {
+        return "TruthTable{" +
+                "inputs=" + Arrays.toString(inputNames) +
+                ", outputs=" + Arrays.toString(outputNames) +
+                ", rows=" + rowCount +
+                '}';
+    }
+
+    /**
+     * Builds a truth table from streamed rows.
+     * The columns are taken from the first row; rows may arrive in any order.
+     */
+    public static final class Builder implements TruthTableVisitor {
+        private String[] inputNames;
+        private String[] outputNames;
+        private long rowCount;
+        private long[][] outputWords;
+
+        @Override
+        public void visitRow(TruthTableRow row) {
+            if (outputWords == null) {
+                if (row.getInputCount() > MAX_INPUTS) {
+                    throw new IllegalArgumentException(
+                            "Truth table cannot hold more than " + MAX_INPUTS + " inputs");
+                }
+                inputNames = new String[row.getInputCount()];
+                for (int j = 0; j < inputNames.length; j++) {
+                    inputNames[j] = row.getInputName(j);
+                }
+                outputNames = new String[row.getOutputCount()];
+                for (int o = 0; o < outputNames.length; o++) {
+                    outputNames[o] = row.getOutputName(o);
+                }
+                rowCount = 1L << inputNames.length;
+                outputWords = allocateColumns(outputNames.length, rowCount);
+            }
+            long index = row.getIndex();
+            if (index < 0 || index >= rowCount) {
+                throw new IllegalArgumentException("Row " + index + " out of range");
+            }
+            for (int o = 0; o < outputNames.length; o++) {
+                if (row.getOutput(o)) {
+                    outputWords[o][(int) (index >>> 6)] |= 1L << index;
+                }
+            }
+        }
+
+        /**
+         * Creates the table from the rows visited so far.
+         * 
+         * @return The truth table
+         */
+        public TruthTable build() {
+            if (outputWords == null) {
+                return EMPTY;
+            }
+            return new TruthTable(inputNames, outputNames, rowCount, outputWords);
+        }
+    }
+}
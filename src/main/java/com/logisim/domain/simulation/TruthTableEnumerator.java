@@ -0,0 +1,282 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Enumerates the truth table of a combinational circuit with a bit-parallel evaluator.
+ * Row {@code i} assigns input {@code j} (of {@code n}) the value of bit {@code n-1-j}
+ * of {@code i}, so the first input is the most significant one.
+ *
+ * <p>Evaluation only touches the evaluator's port tables and a signal buffer
+ * owned by the caller, so disjoint row ranges can be produced concurrently.
+ * The values of undriven ports are captured when the enumerator is created.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class TruthTableEnumerator {
+    /**
+     * Smallest row range handed to a single fork/join task.
+     */
+    private static final int ROWS_PER_TASK = 4096;
+
+    /**
+     * Bit {@code k} of word {@code b} is bit {@code b} of the row index {@code k}.
+     */
+    private static final long[] ROW_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    private final BitParallelEvaluator evaluator;
+    private final int[] inputIndices;
+    private final String[] inputColumns;
+    private final int[] outputIndices;
+    private final String[] outputColumns;
+    private final long rowCount;
+    private ProgressMonitor monitor;
+
+    /**
+     * Constructor with evaluator, input components and row count.
+     *
+     * @param evaluator The bit-parallel evaluator
+     * @param inputs The switches driving the circuit, most significant first
+     * @param rowCount Number of rows to enumerate
+     */
+    public TruthTableEnumerator(BitParallelEvaluator evaluator, List<? extends Component> inputs, long rowCount) {
+        this.evaluator = evaluator;
+        this.rowCount = rowCount;
+        Netlist netlist = evaluator.getNetlist();
+
+        this.inputIndices = new int[inputs.size()];
+        this.inputColumns = new String[inputs.size()];
+        for (int j = 0; j < inputs.size(); j++) {
+            inputIndices[j] = netlist.indexOf(inputs.get(j));
+            inputColumns[j] = "Input_" + inputs.get(j).getName();
+        }
+
+        List<Integer> outputs = new ArrayList<>();
+        for (int i = 0; i < netlist.getCircuitComponentCount(); i++) {
+            if (netlist.getComponent(i).getOutputCount() > 0) {
+                outputs.add(i);
+            }
+        }
+        this.outputIndices = outputs.stream().mapToInt(Integer::intValue).toArray();
+        this.outputColumns = new String[outputIndices.length];
+        for (int k = 0; k < outputIndices.length; k++) {
+            outputColumns[k] = "Output_" + netlist.getComponent(outputIndices[k]).getName();
+        }
+
+        evaluator.captureUndrivenInputs();
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return The row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Sets the monitor that receives row progress and can cancel the enumeration.
+     *
+     * @param monitor The monitor, or null for none
+     */
+    public void setProgressMonitor(ProgressMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Enumerates every row on the calling thread.
+     *
+     * @return The truth table rows, in row order
+     */
+    public List<Map<String, Boolean>> enumerateAll() {
+        List<Map<String, Boolean>> rows = new ArrayList<>((int) Math.min(rowCount, Integer.MAX_VALUE));
+        enumerate(row -> rows.add(row.toMap()));
+        return rows;
+    }
+
+    /**
+     * Streams every row to a visitor on the calling thread.
+     * A single row object and signal buffer are reused, so memory use does
+     * not grow with the number of rows.
+     *
+     * @param visitor The visitor receiving the rows, in row order
+     */
+    public void enumerate(TruthTableVisitor visitor) {
+        enumerate(0, rowCount, (base, count, signals, row) -> {
+            for (int k = 0; k < count; k++) {
+                fillRow(row, signals, base, k);
+                visitor.visitRow(row);
+            }
+        });
+    }
+
+    /**
+     * Enumerates every row, splitting the input space into ranges evaluated on a fork/join pool.
+     * Each task owns its signal buffer; the rows are identical to {@link #enumerateAll()}.
+     *
+     * @param pool The pool to run on
+     * @return The truth table rows, in row order
+     * @throws IllegalArgumentException if there are more rows than a list can hold
+     */
+    public List<Map<String, Boolean>> enumerateParallel(ForkJoinPool pool) {
+        if (rowCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot list " + rowCount + " truth table rows");
+        }
+        // Tasks write disjoint slots without resizing, and invoke returns only after every task completed
+        List<Map<String, Boolean>> rows = new ArrayList<>(Collections.nCopies((int) rowCount, null));
+        pool.invoke(new RangeTask(0, rowCount, (base, count, signals, row) -> {
+            for (int k = 0; k < count; k++) {
+                fillRow(row, signals, base, k);
+                rows.set((int) (base + k), row.toMap());
+            }
+        }));
+        return rows;
+    }
+
+    /**
+     * Builds the columnar truth table.
+     * Every evaluated block already holds 64 rows of each output, so blocks
+     * are copied into the output bitsets word by word.
+     *
+     * @param pool The pool to run on, or null to build on the calling thread
+     * @return The truth table
+     * @throws IllegalArgumentException if there are more than {@link TruthTable#MAX_INPUTS} inputs
+     */
+    public TruthTable toTruthTable(ForkJoinPool pool) {
+        if (inputIndices.length > TruthTable.MAX_INPUTS) {
+            throw new IllegalArgumentException("Truth table cannot hold more than " + TruthTable.MAX_INPUTS + " inputs");
+        }
+        long[][] outputWords = TruthTable.allocateColumns(outputIndices.length, rowCount);
+        BlockSink sink = (base, count, signals, row) -> {
+            long mask = count == Long.SIZE ? -1L : (1L << count) - 1;
+            int word = (int) (base >>> 6);
+            for (int o = 0; o < outputIndices.length; o++) {
+                outputWords[o][word] = signals[outputIndices[o]] & mask;
+            }
+        };
+        if (pool != null) {
+            pool.invoke(new RangeTask(0, rowCount, sink));
+        } else {
+            enumerate(0, rowCount, sink);
+        }
+        return new TruthTable(inputColumns.clone(), outputColumns.clone(), rowCount, outputWords);
+    }
+
+    /**
+     * Evaluates the blocks of a range and hands each one to a sink.
+     *
+     * @param fromRow The first row, a multiple of 64
+     * @param toRow The end row (exclusive)
+     * @param sink The sink receiving the evaluated blocks
+     * @throws java.util.concurrent.CancellationException if the progress monitor was cancelled
+     */
+    private void enumerate(long fromRow, long toRow, BlockSink sink) {
+        long[] signals = new long[evaluator.getNetlist().getComponentCount()];
+        TruthTableRow row = new TruthTableRow(inputColumns, outputColumns);
+        for (long base = fromRow; base < toRow; base += Long.SIZE) {
+            if (monitor != null) {
+                monitor.checkCancelled();
+            }
+            int count = (int) Math.min(Long.SIZE, toRow - base);
+            evaluateBlock(base, signals);
+            sink.accept(base, count, signals, row);
+            if (monitor != null) {
+                monitor.advance(count);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the 64 rows starting at {@code base}.
+     */
+    private void evaluateBlock(long base, long[] signals) {
+        int n = inputIndices.length;
+        for (int j = 0; j < n; j++) {
+            signals[inputIndices[j]] = inputWord(n - 1 - j, base);
+        }
+        evaluator.evaluate(signals);
+    }
+
+    /**
+     * Fills a row with bit {@code k} of the evaluated block.
+     */
+    private void fillRow(TruthTableRow row, long[] signals, long base, int k) {
+        row.setIndex(base + k);
+        for (int j = 0; j < inputIndices.length; j++) {
+            row.setInput(j, (signals[inputIndices[j]] >>> k & 1L) != 0);
+        }
+        for (int o = 0; o < outputIndices.length; o++) {
+            row.setOutput(o, (signals[outputIndices[o]] >>> k & 1L) != 0);
+        }
+    }
+
+    /**
+     * Builds the word holding one input bit for 64 consecutive rows.
+     *
+     * @param bit The bit of the row index that carries this input
+     * @param base The index of the first row (a multiple of 64)
+     * @return The input word
+     */
+    static long inputWord(int bit, long base) {
+        if (bit < ROW_PATTERNS.length) {
+            return ROW_PATTERNS[bit];
+        }
+        return bit < Long.SIZE - 1 && (base >>> bit & 1L) != 0 ? -1L : 0L;
+    }
+
+    /**
+     * Receives the evaluated blocks of an enumeration.
+     */
+    @FunctionalInterface
+    private interface BlockSink {
+        /**
+         * Consumes one evaluated block.
+         *
+         * @param base The index of the first row of the block
+         * @param count The number of rows of the block that belong to the range
+         * @param signals The evaluated signals
+         * @param row A row object owned by the current range
+         */
+        void accept(long base, int count, long[] signals, TruthTableRow row);
+    }
+
+    /**
+     * Fork/join task evaluating the blocks of a range.
+     */
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long fromRow;
+        private final long toRow;
+        private final transient BlockSink sink;
+
+        RangeTask(long fromRow, long toRow, BlockSink sink) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= ROWS_PER_TASK) {
+                enumerate(fromRow, toRow, sink);
+                return;
+            }
+            // Split on a 64-row boundary so every block stays word aligned
+            long middle = fromRow + ((toRow - fromRow) / 2 & -Long.SIZE);
+            invokeAll(new RangeTask(fromRow, middle, sink), new RangeTask(middle, toRow, sink));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.logisim.domain.simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cursor over one row of a streamed truth table.
+ * Column names follow the truth table convention ("Input_" or "Output_"
+ * followed by the component name). A single instance is refilled for every
+ * row, so enumerating a table allocates nothing per row.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class TruthTableRow {
+    private final String[] inputNames;
+    private final String[] outputNames;
+    private final boolean[] inputValues;
+    private final boolean[] outputValues;
+    private long index;
+
+    /**
+     * Constructor with the column names.
+     * 
+     * @param inputNames Input column names, most significant input first
+     * @param outputNames Output column names
+     */
+    public TruthTableRow(String[] inputNames, String[] outputNames) {
+        this.inputNames = inputNames;
+        this.outputNames = outputNames;
+        this.inputValues = new boolean[inputNames.length];
+        this.outputValues = new boolean[outputNames.length];
+    }
+
+    /**
+     * Gets the row index.
+     * 
+     * @return The row index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the row index.
+     * 
+     * @param index The row index
+     */
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    /**
+     * Gets the number of input columns.
+     * 
+     * @return The input column count
+     */
+    public int getInputCount() {
+        return inputNames.length;
+    }
+
+    /**
+     * Gets the name of an input column.
+     * 
+     * @param column The input column
+     * @return The column name
+     */
+    public String getInputName(int column) {
+        return inputNames[column];
+    }
+
+    /**
+     * Gets the value of an input column.
+     * 
+     * @param column The input column
+     * @return The value
+     */
+    public boolean getInput(int column) {
+        return inputValues[column];
+    }
+
+    /**
+     * Sets the value of an input column.
+     * 
+     * @param column The input column
+     * @param value The value
+     */
+    public void setInput(int column, boolean value) {
+        inputValues[column] = value;
+    }
+
+    /**
+     * Gets the number of output columns.
+     * 
+     * @return The output column count
+     */
+    public int getOutputCount() {
+        return outputNames.length;
+    }
+
+    /**
+     * Gets the name of an output column.
+     * 
+     * @param column The output column
+     * @return The column name
+     */
+    public String getOutputName(int column) {
+        return outputNames[column];
+    }
+
+    /**
+     * Gets the value of an output column.
+     * 
+     * @param column The output column
+     * @return The value
+     */
+    public boolean getOutput(int column) {
+        return outputValues[column];
+    }
+
+    /**
+     * Sets the value of an output column.
+     * 
+     * @param column The output column
+     * @param value The value
+     */
+    public void setOutput(int column, boolean value) {
+        outputValues[column] = value;
+    }
+
+    /**
+     * Copies the row into a map keyed by column name.
+     * When two columns share a name, the later column wins.
+     * 
+     * @return Map of column names to values
+     */
+    public Map<String, Boolean> toMap() {
+        Map<String, Boolean> row = new HashMap<>();
+        for (int j = 0; j < inputNames.length; j++) {
+            row.put(inputNames[j], inputValues[j]);
+        }
+        for (int o = 0; o < outputNames.length; o++) {
+            row.put(outputNames[o], outputValues[o]);
+        }
+        return row;
+    }
+}
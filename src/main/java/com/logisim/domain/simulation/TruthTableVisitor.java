@@ -0,0 +1,19 @@
+package com.logisim.domain.simulation;
+
+/**
+ * Receives truth table rows one at a time as they are produced.
+ * Implements the Visitor design pattern.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface TruthTableVisitor {
+    /**
+     * Called once per row, in row order.
+     * The row object is reused for the next row and must not be retained.
+     * 
+     * @param row The current row
+     */
+    void visitRow(TruthTableRow row);
+}
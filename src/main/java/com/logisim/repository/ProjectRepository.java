@@ -1,5 +1,6 @@
 package com.logisim.repository;
 
+import com.logisim.domain.Circuit;
 import com.logisim.domain.Project;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -91,6 +92,7 @@ public class ProjectRepository {
             Project project = gson.fromJson(reader, Project.class);
             if (project != null) {
                 project.setPath(filePath);
+                migratePortBindings(project);
                 logger.info("Project loaded successfully: {}", project.getName());
             }
             return project;
@@ -100,6 +102,20 @@ public class ProjectRepository {
         }
     }
 
+    /**
+     * Assigns explicit input ports to connectors of projects saved without them.
+     * 
+     * @param project The loaded project
+     */
+    private void migratePortBindings(Project project) {
+        for (Circuit circuit : project.getCircuits()) {
+            int updated = circuit.migratePortBindings();
+            if (updated > 0) {
+                logger.info("Assigned input ports to {} connectors in circuit {}", updated, circuit.getName());
+            }
+        }
+    }
+
     /**
      * Exports a project diagram to a file.
      * Note: This method requires a Canvas snapshot to be passed from the UI layer.
@@ -0,0 +1,225 @@
+package com.logisim.repository;
+
+import com.logisim.domain.simulation.TruthTable;
+import com.logisim.domain.simulation.TruthTableRow;
+import com.logisim.domain.simulation.TruthTableVisitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a canonical sum-of-products expression term by term.
+ * The layout matches the expression generator: a single product is written
+ * bare, several are written as {@code (a & b) | (c & !d)}, and an empty sum
+ * is {@code 0}. Only the first product is buffered, until it is known whether
+ * parentheses are needed, so writing an expression to a file takes no more
+ * memory than one product.
+ *
+ * <p>With a term cap, products past the cap are counted but not written, and
+ * {@link #finish()} appends a summary such as {@code | ... (+250 more terms)}.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public class SumOfProductsWriter implements TruthTableVisitor {
+    private final Appendable out;
+    private final String outputVariable;
+    private final long maxTerms;
+    private final StringBuilder first = new StringBuilder();
+    private int outputColumn = -1;
+    private long termCount;
+    private boolean finished;
+
+    /**
+     * Constructor with the destination and the output whose true rows become products.
+     *
+     * @param out The destination, typically a buffered writer
+     * @param outputVariable The output column name, or null when products are written with {@link #writeTerm}
+     * @throws IllegalArgumentException if out is null
+     */
+    public SumOfProductsWriter(Appendable out, String outputVariable) {
+        this(out, outputVariable, 0);
+    }
+
+    /**
+     * Constructor with the destination, the output and a term cap.
+     *
+     * @param out The destination, typically a buffered writer
+     * @param outputVariable The output column name, or null when products are written with {@link #writeTerm}
+     * @param maxTerms Largest number of products written, 0 for no cap
+     * @throws IllegalArgumentException if out is null or maxTerms is negative
+     */
+    public SumOfProductsWriter(Appendable out, String outputVariable, long maxTerms) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+        if (maxTerms < 0) {
+            throw new IllegalArgumentException("Term cap cannot be negative");
+        }
+        this.out = out;
+        this.outputVariable = outputVariable;
+        this.maxTerms = maxTerms;
+    }
+
+    /**
+     * Writes the sum of one output of a columnar truth table, visiting only its true rows.
+     *
+     * @param truthTable The truth table
+     * @param outputColumn The output column
+     * @param out The destination
+     * @param maxTerms Largest number of products written, 0 for no cap
+     * @return The number of products in the sum, including those past the cap
+     * @throws IOException if the destination fails
+     */
+    public static long write(TruthTable truthTable, int outputColumn, Appendable out, long maxTerms)
+            throws IOException {
+        SumOfProductsWriter writer = new SumOfProductsWriter(out, null, maxTerms);
+        int inputCount = truthTable.getInputCount();
+        for (int word = 0; word < truthTable.getWordCount(); word++) {
+            long bits = truthTable.getOutputWord(outputColumn, word);
+            while (bits != 0) {
+                long row = (long) word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                writer.writeTerm(term -> {
+                    for (int j = 0; j < inputCount; j++) {
+                        if (j > 0) {
+                            term.append(" & ");
+                        }
+                        if (!truthTable.getInput(row, j)) {
+                            term.append('!');
+                        }
+                        term.append(truthTable.getInputName(j));
+                    }
+                });
+            }
+        }
+        writer.finish();
+        return writer.getTermCount();
+    }
+
+    @Override
+    public void visitRow(TruthTableRow row) {
+        if (outputColumn < 0) {
+            outputColumn = resolveOutput(row);
+        }
+        if (!row.getOutput(outputColumn) || row.getInputCount() == 0) {
+            return;
+        }
+        try {
+            writeTerm(term -> {
+                for (int j = 0; j < row.getInputCount(); j++) {
+                    if (j > 0) {
+                        term.append(" & ");
+                    }
+                    if (!row.getInput(j)) {
+                        term.append('!');
+                    }
+                    term.append(row.getInputName(j));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write expression term", e);
+        }
+    }
+
+    /**
+     * Finds the output column; for repeated names the last column wins.
+     */
+    private int resolveOutput(TruthTableRow row) {
+        int column = -1;
+        for (int o = 0; o < row.getOutputCount(); o++) {
+            if (row.getOutputName(o).equals(outputVariable)) {
+                column = o;
+            }
+        }
+        if (column < 0) {
+            throw new IllegalArgumentException("Unknown output: " + outputVariable);
+        }
+        return column;
+    }
+
+    /**
+     * Adds one product to the sum.
+     *
+     * @param term Writes the product's literals
+     * @throws IOException if the destination fails
+     * @throws IllegalStateException if the sum was already finished
+     */
+    public void writeTerm(Term term) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Expression already finished");
+        }
+        termCount++;
+        if (maxTerms > 0 && termCount > maxTerms) {
+            return;
+        }
+        if (termCount == 1) {
+            term.appendTo(first);
+            return;
+        }
+        if (termCount == 2) {
+            out.append('(').append(first).append(") | (");
+            first.setLength(0);
+        } else {
+            out.append(") | (");
+        }
+        term.appendTo(out);
+    }
+
+    /**
+     * Completes the sum: closes the last product, or writes {@code 0} if there were none,
+     * and appends the truncation summary if the cap was reached.
+     *
+     * @throws IOException if the destination fails
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        long written = maxTerms > 0 ? Math.min(termCount, maxTerms) : termCount;
+        long omitted = termCount - written;
+        if (termCount == 0) {
+            out.append('0');
+        } else if (written == 1) {
+            out.append(omitted > 0 ? "(" + first + ")" : first);
+        } else {
+            out.append(')');
+        }
+        if (omitted > 0) {
+            out.append(" | ... (+").append(Long.toString(omitted)).append(omitted == 1 ? " more term)" : " more terms)");
+        }
+    }
+
+    /**
+     * Gets the number of products added so far, including those past the cap.
+     *
+     * @return The term count
+     */
+    public long getTermCount() {
+        return termCount;
+    }
+
+    /**
+     * Checks whether products were left out because of the cap.
+     *
+     * @return true if the sum is truncated
+     */
+    public boolean isTruncated() {
+        return maxTerms > 0 && termCount > maxTerms;
+    }
+
+    /**
+     * Writes the literals of one product.
+     */
+    @FunctionalInterface
+    public interface Term {
+        /**
+         * Appends the product's literals, joined with {@code " & "}.
+         *
+         * @param out The destination
+         * @throws IOException if the destination fails
+         */
+        void appendTo(Appendable out) throws IOException;
+    }
+}
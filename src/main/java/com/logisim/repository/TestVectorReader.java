@@ -0,0 +1,110 @@
+package com.logisim.repository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads test vectors from a compact text file into packed arrays.
+ * Each vector is one line of {@code 0}/{@code 1} characters, one per input
+ * in switch order. Blank lines and lines starting with {@code #} are
+ * skipped, and {@code _} or spaces may group digits for readability.
+ * Vectors are read in blocks, so files of any length stream in constant memory.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public class TestVectorReader {
+    private final BufferedReader in;
+    private final int inputCount;
+    private final int inputWords;
+    private long lineNumber;
+
+    /**
+     * Constructor with the source and vector width.
+     * 
+     * @param in The source
+     * @param inputCount The number of inputs per vector
+     * @throws IllegalArgumentException if in is null or inputCount is negative
+     */
+    public TestVectorReader(Reader in, int inputCount) {
+        if (in == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+        if (inputCount < 0) {
+            throw new IllegalArgumentException("Input count cannot be negative");
+        }
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        this.inputCount = inputCount;
+        this.inputWords = Math.max(1, (inputCount + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Reads up to {@code maxVectors} vectors into a packed array.
+     * 
+     * @param vectors The array receiving the packed vectors
+     * @param maxVectors The maximum number of vectors to read
+     * @return The number of vectors read; 0 at the end of the file
+     * @throws IllegalArgumentException if a line is not a valid vector
+     * @throws UncheckedIOException if reading fails
+     */
+    public int read(long[] vectors, int maxVectors) {
+        int count = 0;
+        try {
+            String line;
+            while (count < maxVectors && (line = in.readLine()) != null) {
+                lineNumber++;
+                if (parse(line, vectors, count * inputWords)) {
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read test vectors", e);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of lines read so far.
+     * 
+     * @return The line number of the last line read
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private boolean parse(String line, long[] vectors, int offset) {
+        int length = line.length();
+        int start = 0;
+        while (start < length && Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        if (start == length || line.charAt(start) == '#') {
+            return false;
+        }
+
+        for (int w = 0; w < inputWords; w++) {
+            vectors[offset + w] = 0L;
+        }
+        int input = 0;
+        for (int i = start; i < length; i++) {
+            char c = line.charAt(i);
+            if (c == '_' || Character.isWhitespace(c)) {
+                continue;
+            }
+            if ((c != '0' && c != '1') || input >= inputCount) {
+                throw new IllegalArgumentException("Invalid test vector at line " + lineNumber + ": " + line);
+            }
+            if (c == '1') {
+                vectors[offset + (input >>> 6)] |= 1L << input;
+            }
+            input++;
+        }
+        if (input != inputCount) {
+            throw new IllegalArgumentException("Expected " + inputCount + " inputs at line " + lineNumber
+                    + " but found " + input);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,71 @@
+package com.logisim.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes packed output vectors as lines of {@code 0}/{@code 1} characters,
+ * one per output, in the format read by {@link TestVectorReader}.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public class TestVectorWriter {
+    private final Appendable out;
+    private final int outputCount;
+    private final int outputWords;
+    private final StringBuilder line;
+    private long vectorCount;
+
+    /**
+     * Constructor with the destination and vector width.
+     * 
+     * @param out The destination, typically a buffered writer
+     * @param outputCount The number of outputs per vector
+     * @throws IllegalArgumentException if out is null or outputCount is negative
+     */
+    public TestVectorWriter(Appendable out, int outputCount) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+        if (outputCount < 0) {
+            throw new IllegalArgumentException("Output count cannot be negative");
+        }
+        this.out = out;
+        this.outputCount = outputCount;
+        this.outputWords = Math.max(1, (outputCount + Long.SIZE - 1) / Long.SIZE);
+        this.line = new StringBuilder(outputCount + 1);
+    }
+
+    /**
+     * Writes packed vectors, one line each.
+     * 
+     * @param vectors The packed vectors
+     * @param count The number of vectors to write
+     * @throws UncheckedIOException if writing fails
+     */
+    public void write(long[] vectors, int count) {
+        try {
+            for (int v = 0; v < count; v++) {
+                line.setLength(0);
+                int offset = v * outputWords;
+                for (int o = 0; o < outputCount; o++) {
+                    line.append((vectors[offset + (o >>> 6)] >>> o & 1L) != 0 ? '1' : '0');
+                }
+                out.append(line).append('\n');
+            }
+            vectorCount += count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write test vectors", e);
+        }
+    }
+
+    /**
+     * Gets the number of vectors written so far.
+     * 
+     * @return The vector count
+     */
+    public long getVectorCount() {
+        return vectorCount;
+    }
+}
@@ -0,0 +1,99 @@
+package com.logisim.repository;
+
+import com.logisim.domain.simulation.TruthTableRow;
+import com.logisim.domain.simulation.TruthTableVisitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes streamed truth table rows as comma-separated values.
+ * The header line holds the column names, inputs first; each row follows
+ * as 0/1 values. Rows are written as they arrive, so exporting a table
+ * needs no more memory than a single row.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public class TruthTableCsvWriter implements TruthTableVisitor {
+    private final Appendable out;
+    private boolean headerWritten;
+    private long rowCount;
+
+    /**
+     * Constructor with the destination.
+     * 
+     * @param out The destination, typically a buffered writer
+     * @throws IllegalArgumentException if out is null
+     */
+    public TruthTableCsvWriter(Appendable out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+        this.out = out;
+    }
+
+    @Override
+    public void visitRow(TruthTableRow row) {
+        try {
+            if (!headerWritten) {
+                writeHeader(row);
+                headerWritten = true;
+            }
+            for (int j = 0; j < row.getInputCount(); j++) {
+                if (j > 0) {
+                    out.append(',');
+                }
+                out.append(row.getInput(j) ? '1' : '0');
+            }
+            for (int o = 0; o < row.getOutputCount(); o++) {
+                if (o > 0 || row.getInputCount() > 0) {
+                    out.append(',');
+                }
+                out.append(row.getOutput(o) ? '1' : '0');
+            }
+            out.append('\n');
+            rowCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write truth table row", e);
+        }
+    }
+
+    private void writeHeader(TruthTableRow row) throws IOException {
+        for (int j = 0; j < row.getInputCount(); j++) {
+            if (j > 0) {
+                out.append(',');
+            }
+            out.append(escape(row.getInputName(j)));
+        }
+        for (int o = 0; o < row.getOutputCount(); o++) {
+            if (o > 0 || row.getInputCount() > 0) {
+                out.append(',');
+            }
+            out.append(escape(row.getOutputName(o)));
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Quotes a column name if it contains characters with a meaning in CSV.
+     * 
+     * @param name The column name
+     * @return The CSV field
+     */
+    private static String escape(String name) {
+        if (name.indexOf(',') < 0 && name.indexOf('"') < 0 && name.indexOf('\n') < 0) {
+            return name;
+        }
+        return '"' + name.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Gets the number of rows written so far.
+     * 
+     * @return The row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+}
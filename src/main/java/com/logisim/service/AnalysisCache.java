@@ -0,0 +1,255 @@
+package com.logisim.service;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.components.SubCircuit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Size-bounded cache of analysis results keyed by circuit and structural version.
+ * An entry stays valid while the circuit, and every circuit nested in it
+ * through sub-circuits, keeps the version it had when the entry was stored.
+ * Each circuit holds at most one entry per kind, and the least recently used
+ * entry is evicted once the cache is full, so the circuits of a project
+ * share one bound.
+ *
+ * <p>Circuits are matched by identity rather than by name, so two circuits
+ * with the same name never see each other's results. All methods are
+ * thread-safe.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class AnalysisCache {
+    /**
+     * Number of entries kept by default.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor with the default capacity.
+     */
+    public AnalysisCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with capacity.
+     *
+     * @param capacity Maximum number of entries, 0 to disable caching
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public AnalysisCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Looks up the result of an analysis of the circuit at its current version.
+     * A stale entry is removed and counted as a miss.
+     *
+     * @param circuit The circuit
+     * @param kind The kind of analysis
+     * @param type The type of the result
+     * @param <T> The result type
+     * @return The cached result, or null if there is no current one
+     */
+    public synchronized <T> T get(Circuit circuit, String kind, Class<T> type) {
+        Key key = new Key(circuit, kind);
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.isCurrent() || !type.isInstance(entry.value)) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return type.cast(entry.value);
+    }
+
+    /**
+     * Stores the result of an analysis, replacing the circuit's previous result of the same kind.
+     * Nothing is stored if a circuit changed after the snapshot was taken,
+     * since the result may then describe neither version.
+     *
+     * @param snapshot The versions taken with {@link #snapshot(Circuit)} before the analysis
+     * @param kind The kind of analysis
+     * @param value The result
+     */
+    public synchronized void put(Snapshot snapshot, String kind, Object value) {
+        if (capacity == 0 || value == null || !snapshot.isCurrent()) {
+            return;
+        }
+        entries.put(new Key(snapshot.circuits[0], kind), new Entry(snapshot, value));
+        if (entries.size() > capacity) {
+            Iterator<Key> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Records the versions of a circuit and of every circuit nested in it.
+     *
+     * @param circuit The circuit
+     * @return The snapshot
+     */
+    public static Snapshot snapshot(Circuit circuit) {
+        Set<Circuit> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Circuit> circuits = new ArrayList<>();
+        collect(circuit, seen, circuits);
+        long[] versions = new long[circuits.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = circuits.get(i).getVersion();
+        }
+        return new Snapshot(circuits.toArray(new Circuit[0]), versions);
+    }
+
+    private static void collect(Circuit circuit, Set<Circuit> seen, List<Circuit> circuits) {
+        if (circuit == null || !seen.add(circuit)) {
+            return;
+        }
+        circuits.add(circuit);
+        for (Component component : circuit.getComponents()) {
+            if (component instanceof SubCircuit subCircuit) {
+                collect(subCircuit.getInternalCircuit(), seen, circuits);
+            }
+        }
+    }
+
+    /**
+     * Removes every entry of a circuit, for example when it leaves its project.
+     *
+     * @param circuit The circuit
+     */
+    public synchronized void evict(Circuit circuit) {
+        entries.keySet().removeIf(key -> key.circuit == circuit);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that found no current entry.
+     *
+     * @return The miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * The versions of a circuit and its nested circuits at one point in time.
+     */
+    public static final class Snapshot {
+        private final Circuit[] circuits;
+        private final long[] versions;
+
+        private Snapshot(Circuit[] circuits, long[] versions) {
+            this.circuits = circuits;
+            this.versions = versions;
+        }
+
+        /**
+         * Checks whether none of the circuits changed since the snapshot was taken.
+         *
+         * @return true if every version is unchanged
+         */
+        public boolean isCurrent() {
+            for (int i = 0; i < circuits.length; i++) {
+                if (circuits[i].getVersion() != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Identity key of a circuit and analysis kind.
+     */
+    private static final class Key {
+        private final Circuit circuit;
+        private final String kind;
+
+        Key(Circuit circuit, String kind) {
+            this.circuit = circuit;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && other.circuit == circuit && other.kind.equals(kind);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(circuit) + kind.hashCode();
+        }
+    }
+
+    /**
+     * A cached result and the versions it was computed at.
+     */
+    private static final class Entry {
+        private final Snapshot snapshot;
+        private final Object value;
+
+        Entry(Snapshot snapshot, Object value) {
+            this.snapshot = snapshot;
+            this.value = value;
+        }
+
+        boolean isCurrent() {
+            return snapshot.isCurrent();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.logisim.service;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.TruthTable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary decision diagrams of every output of a circuit.
+ * Each output is built once from the circuit's structure, so minterm counts,
+ * satisfiability and covers cost time in the size of the diagrams rather than
+ * in the 2^n rows of a truth table. Input variables keep the truth table's
+ * column order; the manager may test them in another order internally.
+ *
+ * <p>Queries share one manager and are synchronized.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class BddAnalysis {
+    private final BddManager manager;
+    private final List<String> inputVariables;
+    private final Map<String, Integer> outputs;
+
+    private BddAnalysis(BddManager manager, List<String> inputVariables, Map<String, Integer> outputs) {
+        this.manager = manager;
+        this.inputVariables = inputVariables;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Builds the diagram of every output of a circuit.
+     * Gates are translated from the circuit's expression graph in order, and
+     * each intermediate diagram is released after its last use so that
+     * garbage collection can reclaim it.
+     *
+     * @param circuit The circuit
+     * @param reorder true to sift the variable order while building and once at the end
+     * @return The analysis
+     * @throws IllegalArgumentException if the circuit has feedback, foreign components or non-primitive components
+     */
+    static BddAnalysis build(Circuit circuit, boolean reorder) {
+        ExpressionDag dag = new ExpressionDag();
+        Map<String, Integer> structure = new BooleanExpressionGenerator().extractStructure(circuit, dag);
+
+        Set<String> names = new LinkedHashSet<>();
+        for (Component component : circuit.getComponents()) {
+            if (component instanceof Switch) {
+                names.add("Input_" + component.getName());
+            }
+        }
+        List<String> inputVariables = List.copyOf(names);
+        Map<String, Integer> variables = new HashMap<>();
+        for (int v = 0; v < inputVariables.size(); v++) {
+            variables.put(inputVariables.get(v), v);
+        }
+
+        // Count uses by outputs and by reachable parents, so every node is released after its last use
+        int[] uses = new int[dag.size()];
+        for (int node : structure.values()) {
+            uses[node]++;
+        }
+        for (int node = dag.size() - 1; node > ExpressionDag.TRUE; node--) {
+            if (uses[node] == 0) {
+                continue;
+            }
+            switch (dag.getOperator(node)) {
+                case NOT -> uses[dag.getLeft(node)]++;
+                case AND, OR, XOR -> {
+                    uses[dag.getLeft(node)]++;
+                    uses[dag.getRight(node)]++;
+                }
+                default -> {
+                }
+            }
+        }
+
+        BddManager manager = new BddManager(inputVariables.size());
+        manager.setAutoReorder(reorder);
+        int[] bdds = new int[dag.size()];
+        bdds[ExpressionDag.TRUE] = BddManager.TRUE;
+        for (int node = ExpressionDag.TRUE + 1; node < dag.size(); node++) {
+            if (uses[node] == 0) {
+                continue;
+            }
+            int left = bdds[dag.getLeft(node)];
+            int right = bdds[dag.getRight(node)];
+            bdds[node] = manager.ref(switch (dag.getOperator(node)) {
+                case VARIABLE -> manager.variable(variables.get(dag.getVariableName(node)));
+                case NOT -> manager.not(left);
+                case AND -> manager.and(left, right);
+                case OR -> manager.or(left, right);
+                case XOR -> manager.xor(left, right);
+                case CONSTANT -> throw new IllegalStateException("Constant node " + node);
+            });
+            switch (dag.getOperator(node)) {
+                case NOT -> release(manager, bdds, uses, dag.getLeft(node));
+                case AND, OR, XOR -> {
+                    release(manager, bdds, uses, dag.getLeft(node));
+                    release(manager, bdds, uses, dag.getRight(node));
+                }
+                default -> {
+                }
+            }
+        }
+
+        Map<String, Integer> outputs = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : structure.entrySet()) {
+            // Output references are kept for the lifetime of the analysis
+            outputs.put(entry.getKey(), bdds[entry.getValue()]);
+        }
+        if (reorder) {
+            manager.reorder();
+        }
+        manager.gc();
+        return new BddAnalysis(manager, inputVariables, Collections.unmodifiableMap(outputs));
+    }
+
+    private static void release(BddManager manager, int[] bdds, int[] uses, int node) {
+        if (--uses[node] == 0) {
+            manager.deref(bdds[node]);
+        }
+    }
+
+    /**
+     * Gets the input variable names, in truth table column order.
+     *
+     * @return The input variables
+     */
+    public List<String> getInputVariables() {
+        return inputVariables;
+    }
+
+    /**
+     * Gets the output variable names, in truth table column order.
+     *
+     * @return The output variables
+     */
+    public List<String> getOutputVariables() {
+        return new ArrayList<>(outputs.keySet());
+    }
+
+    /**
+     * Gets the number of diagram nodes held for all outputs, including the terminals.
+     *
+     * @return The node count
+     */
+    public synchronized int getNodeCount() {
+        return manager.getNodeCount();
+    }
+
+    /**
+     * Counts the input assignments that make an output true.
+     *
+     * @param outputVariable The output
+     * @return The minterm count
+     * @throws IllegalArgumentException if the output does not exist
+     */
+    public synchronized BigInteger countMinterms(String outputVariable) {
+        return manager.satCount(node(outputVariable));
+    }
+
+    /**
+     * Checks whether some input assignment makes an output true.
+     *
+     * @param outputVariable The output
+     * @return true if the output is satisfiable
+     * @throws IllegalArgumentException if the output does not exist
+     */
+    public synchronized boolean isSatisfiable(String outputVariable) {
+        return node(outputVariable) != BddManager.FALSE;
+    }
+
+    /**
+     * Finds an input assignment that makes an output true.
+     *
+     * @param outputVariable The output
+     * @return Map of input variables to values, or null if the output is never true
+     * @throws IllegalArgumentException if the output does not exist
+     */
+    public synchronized Map<String, Boolean> findSatisfying(String outputVariable) {
+        boolean[] assignment = manager.anySat(node(outputVariable));
+        if (assignment == null) {
+            return null;
+        }
+        Map<String, Boolean> inputs = new LinkedHashMap<>();
+        for (int v = 0; v < assignment.length; v++) {
+            inputs.put(inputVariables.get(v), assignment[v]);
+        }
+        return inputs;
+    }
+
+    /**
+     * Computes an irredundant sum-of-products cover of an output.
+     *
+     * @param outputVariable The output
+     * @return The products
+     * @throws IllegalArgumentException if the output does not exist or there are more than 63 inputs
+     */
+    public synchronized List<LogicMinimizer.Cube> getCover(String outputVariable) {
+        return manager.cover(node(outputVariable));
+    }
+
+    /**
+     * Formats the irredundant cover of an output as a sum-of-products expression.
+     *
+     * @param outputVariable The output
+     * @return The expression
+     * @throws IllegalArgumentException if the output does not exist or there are more than 63 inputs
+     */
+    public synchronized String getExpression(String outputVariable) {
+        return BooleanExpressionGenerator.formatCover(getCover(outputVariable), inputVariables);
+    }
+
+    /**
+     * Expands the diagrams into a truth table.
+     *
+     * @return The truth table
+     * @throws IllegalArgumentException if there are more than {@link TruthTable#MAX_INPUTS} inputs
+     */
+    public synchronized TruthTable toTruthTable() {
+        long[][] words = new long[outputs.size()][];
+        int o = 0;
+        for (int node : outputs.values()) {
+            words[o++] = manager.toOnSet(node);
+        }
+        return TruthTable.fromColumns(inputVariables, getOutputVariables(), words);
+    }
+
+    private int node(String outputVariable) {
+        Integer node = outputs.get(outputVariable);
+        if (node == null) {
+            throw new IllegalArgumentException("Unknown output: " + outputVariable);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,844 @@
+package com.logisim.service;
+
+import com.logisim.domain.simulation.TruthTable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduced ordered binary decision diagrams over a fixed set of variables.
+ * Nodes are integers into parallel arrays. A unique table makes every node
+ * canonical, so two functions are equal exactly when their nodes are equal,
+ * and a direct-mapped computed table caches {@code ite} results.
+ *
+ * <p>Nodes are reclaimed by mark-and-sweep garbage collection from the nodes
+ * held with {@link #ref(int)}. Collection only runs at the start of a public
+ * operation, with that operation's operands protected, so a result must be
+ * referenced before the next operation if it is still needed after it.
+ * Variable order can be improved by sifting, either on request with
+ * {@link #reorder()} or automatically at those same points. Reordering keeps
+ * every node's meaning, so existing handles stay valid.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class BddManager {
+    /**
+     * The node of the constant false.
+     */
+    public static final int FALSE = 0;
+
+    /**
+     * The node of the constant true.
+     */
+    public static final int TRUE = 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int CACHE_SIZE = 1 << 16;
+    private static final int INITIAL_GC_THRESHOLD = 1 << 16;
+    private static final int DEAD = -1;
+
+    /**
+     * A sifted variable stops moving in one direction once the diagram grows past this factor of the best size.
+     */
+    private static final double MAX_GROWTH = 1.2;
+
+    /**
+     * Bit {@code k} of word {@code b} is bit {@code b} of {@code k}.
+     */
+    private static final long[] ROW_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    private final int variableCount;
+    private final int[] levelOfVariable;
+    private final int[] variableAtLevel;
+    private int[] variables;
+    private int[] lows;
+    private int[] highs;
+    private int[] refs;
+    private int[] nexts;
+    private int[] buckets;
+    private int used;
+    private int freeList = -1;
+    private int freeCount;
+
+    private final int[] cacheF = new int[CACHE_SIZE];
+    private final int[] cacheG = new int[CACHE_SIZE];
+    private final int[] cacheH = new int[CACHE_SIZE];
+    private final int[] cacheResult = new int[CACHE_SIZE];
+
+    private int gcThreshold = INITIAL_GC_THRESHOLD;
+    private boolean autoReorder;
+    private int reorderThreshold = INITIAL_GC_THRESHOLD;
+    private long gcCount;
+    private long reorderCount;
+
+    /**
+     * Constructor with the number of variables, initially ordered by index.
+     *
+     * @param variableCount Number of variables
+     * @throws IllegalArgumentException if variableCount is negative
+     */
+    public BddManager(int variableCount) {
+        this(variableCount, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor with the number of variables and the initial node capacity.
+     *
+     * @param variableCount Number of variables
+     * @param initialCapacity Initial number of node slots, a power of two of at least 2
+     * @throws IllegalArgumentException if variableCount is negative or the capacity is invalid
+     */
+    BddManager(int variableCount, int initialCapacity) {
+        if (initialCapacity < 2 || Integer.bitCount(initialCapacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least 2");
+        }
+        if (variableCount < 0) {
+            throw new IllegalArgumentException("Variable count cannot be negative");
+        }
+        this.variableCount = variableCount;
+        this.levelOfVariable = new int[variableCount];
+        this.variableAtLevel = new int[variableCount];
+        for (int v = 0; v < variableCount; v++) {
+            levelOfVariable[v] = v;
+            variableAtLevel[v] = v;
+        }
+        this.variables = new int[initialCapacity];
+        this.lows = new int[initialCapacity];
+        this.highs = new int[initialCapacity];
+        this.refs = new int[initialCapacity];
+        this.nexts = new int[initialCapacity];
+        this.buckets = new int[initialCapacity];
+        Arrays.fill(buckets, -1);
+        Arrays.fill(cacheF, -1);
+
+        // Terminals carry a variable past the last level
+        for (int terminal = FALSE; terminal <= TRUE; terminal++) {
+            variables[terminal] = variableCount;
+            lows[terminal] = terminal;
+            highs[terminal] = terminal;
+        }
+        used = 2;
+    }
+
+    /**
+     * Gets the number of variables.
+     *
+     * @return The variable count
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * Enables or disables sifting when garbage collection leaves the diagram large.
+     *
+     * @param autoReorder true to reorder automatically
+     */
+    public void setAutoReorder(boolean autoReorder) {
+        this.autoReorder = autoReorder;
+    }
+
+    /**
+     * Gets the node of a single variable.
+     *
+     * @param variable The variable index
+     * @return The node
+     * @throws IllegalArgumentException if the variable does not exist
+     */
+    public int variable(int variable) {
+        if (variable < 0 || variable >= variableCount) {
+            throw new IllegalArgumentException("Unknown variable: " + variable);
+        }
+        safePoint(FALSE, FALSE, FALSE);
+        return makeNode(variable, FALSE, TRUE);
+    }
+
+    /**
+     * Gets the negation of a function.
+     *
+     * @param f The function
+     * @return The node
+     */
+    public int not(int f) {
+        safePoint(f, FALSE, FALSE);
+        return compute(f, FALSE, TRUE);
+    }
+
+    /**
+     * Gets the conjunction of two functions.
+     *
+     * @param f The first function
+     * @param g The second function
+     * @return The node
+     */
+    public int and(int f, int g) {
+        safePoint(f, g, FALSE);
+        return compute(f, g, FALSE);
+    }
+
+    /**
+     * Gets the disjunction of two functions.
+     *
+     * @param f The first function
+     * @param g The second function
+     * @return The node
+     */
+    public int or(int f, int g) {
+        safePoint(f, g, FALSE);
+        return compute(f, TRUE, g);
+    }
+
+    /**
+     * Gets the exclusive or of two functions.
+     *
+     * @param f The first function
+     * @param g The second function
+     * @return The node
+     */
+    public int xor(int f, int g) {
+        safePoint(f, g, FALSE);
+        return compute(f, compute(g, FALSE, TRUE), g);
+    }
+
+    /**
+     * Gets the function that is {@code g} where {@code f} holds and {@code h} elsewhere.
+     *
+     * @param f The condition
+     * @param g The function where f is true
+     * @param h The function where f is false
+     * @return The node
+     */
+    public int ite(int f, int g, int h) {
+        safePoint(f, g, h);
+        return compute(f, g, h);
+    }
+
+    private int compute(int f, int g, int h) {
+        if (f == TRUE) {
+            return g;
+        }
+        if (f == FALSE || g == h) {
+            return f == FALSE ? h : g;
+        }
+        if (g == TRUE && h == FALSE) {
+            return f;
+        }
+        int slot = (int) ((f * 12582917L + g * 4256249L + h * 741457L) & (CACHE_SIZE - 1));
+        if (cacheF[slot] == f && cacheG[slot] == g && cacheH[slot] == h) {
+            return cacheResult[slot];
+        }
+
+        int top = Math.min(level(f), Math.min(level(g), level(h)));
+        int v = variableAtLevel[top];
+        int low = compute(cofactor(f, v, false), cofactor(g, v, false), cofactor(h, v, false));
+        int high = compute(cofactor(f, v, true), cofactor(g, v, true), cofactor(h, v, true));
+        int result = makeNode(v, low, high);
+
+        cacheF[slot] = f;
+        cacheG[slot] = g;
+        cacheH[slot] = h;
+        cacheResult[slot] = result;
+        return result;
+    }
+
+    private int cofactor(int node, int variable, boolean value) {
+        if (variables[node] != variable) {
+            return node;
+        }
+        return value ? highs[node] : lows[node];
+    }
+
+    private int level(int node) {
+        return node <= TRUE ? variableCount : levelOfVariable[variables[node]];
+    }
+
+    private int makeNode(int variable, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int bucket = hash(variable, low, high);
+        for (int node = buckets[bucket]; node >= 0; node = nexts[node]) {
+            if (variables[node] == variable && lows[node] == low && highs[node] == high) {
+                return node;
+            }
+        }
+        int node = allocate();
+        variables[node] = variable;
+        lows[node] = low;
+        highs[node] = high;
+        refs[node] = 0;
+        bucket = hash(variable, low, high);
+        nexts[node] = buckets[bucket];
+        buckets[bucket] = node;
+        return node;
+    }
+
+    private int hash(int variable, int low, int high) {
+        return (int) ((variable * 12582917L + low * 4256249L + high * 741457L) & (buckets.length - 1));
+    }
+
+    private int allocate() {
+        if (freeList >= 0) {
+            int node = freeList;
+            freeList = nexts[node];
+            freeCount--;
+            return node;
+        }
+        if (used == variables.length) {
+            int capacity = used * 2;
+            variables = Arrays.copyOf(variables, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+            nexts = Arrays.copyOf(nexts, capacity);
+            buckets = new int[capacity];
+            rehash();
+        }
+        return used++;
+    }
+
+    private void rehash() {
+        Arrays.fill(buckets, -1);
+        for (int node = TRUE + 1; node < used; node++) {
+            if (variables[node] != DEAD) {
+                int bucket = hash(variables[node], lows[node], highs[node]);
+                nexts[node] = buckets[bucket];
+                buckets[bucket] = node;
+            }
+        }
+        rebuildFreeList();
+    }
+
+    private void rebuildFreeList() {
+        freeList = -1;
+        freeCount = 0;
+        for (int node = used - 1; node > TRUE; node--) {
+            if (variables[node] == DEAD) {
+                nexts[node] = freeList;
+                freeList = node;
+                freeCount++;
+            }
+        }
+    }
+
+    /**
+     * Keeps a node alive across garbage collections.
+     *
+     * @param node The node
+     * @return The node
+     */
+    public int ref(int node) {
+        if (node > TRUE) {
+            refs[node]++;
+        }
+        return node;
+    }
+
+    /**
+     * Releases a node kept with {@link #ref(int)}.
+     *
+     * @param node The node
+     */
+    public void deref(int node) {
+        if (node > TRUE && refs[node] > 0) {
+            refs[node]--;
+        }
+    }
+
+    /**
+     * Collects garbage if the diagram has grown, reordering first if enabled and worthwhile.
+     */
+    private void safePoint(int f, int g, int h) {
+        if (getNodeCount() < gcThreshold) {
+            return;
+        }
+        ref(f);
+        ref(g);
+        ref(h);
+        int live = gc();
+        if (autoReorder && live >= reorderThreshold) {
+            reorder();
+            live = getNodeCount();
+            reorderThreshold = Math.max(reorderThreshold, live * 2);
+        }
+        deref(f);
+        deref(g);
+        deref(h);
+        if (live * 2 > gcThreshold) {
+            gcThreshold *= 2;
+        }
+    }
+
+    /**
+     * Frees every node not reachable from a referenced node.
+     *
+     * @return The number of nodes left, including the terminals
+     */
+    public int gc() {
+        boolean[] marked = new boolean[used];
+        marked[FALSE] = true;
+        marked[TRUE] = true;
+        int[] stack = new int[used];
+        for (int root = TRUE + 1; root < used; root++) {
+            if (variables[root] == DEAD || refs[root] == 0 || marked[root]) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            marked[root] = true;
+            while (depth > 0) {
+                int node = stack[--depth];
+                for (int child : new int[] {lows[node], highs[node]}) {
+                    if (!marked[child]) {
+                        marked[child] = true;
+                        stack[depth++] = child;
+                    }
+                }
+            }
+        }
+        for (int node = TRUE + 1; node < used; node++) {
+            if (!marked[node]) {
+                variables[node] = DEAD;
+            }
+        }
+        rehash();
+        Arrays.fill(cacheF, -1);
+        gcCount++;
+        return getNodeCount();
+    }
+
+    /**
+     * Reorders the variables by sifting to shrink the diagram.
+     * Each variable, most used first, is moved through every level by swapping
+     * adjacent levels and left where the diagram was smallest.
+     */
+    public void reorder() {
+        if (variableCount < 2) {
+            return;
+        }
+        gc();
+        int[] counts = new int[variableCount];
+        for (int node = TRUE + 1; node < used; node++) {
+            if (variables[node] != DEAD) {
+                counts[variables[node]]++;
+            }
+        }
+        Integer[] order = new Integer[variableCount];
+        for (int v = 0; v < variableCount; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer v) -> counts[v]).reversed());
+        for (int v : order) {
+            sift(v);
+        }
+        reorderCount++;
+    }
+
+    private void sift(int variable) {
+        int best = getNodeCount();
+        int bestLevel = levelOfVariable[variable];
+        while (levelOfVariable[variable] < variableCount - 1) {
+            swapLevels(levelOfVariable[variable]);
+            int size = gc();
+            if (size < best) {
+                best = size;
+                bestLevel = levelOfVariable[variable];
+            } else if (size > best * MAX_GROWTH) {
+                break;
+            }
+        }
+        while (levelOfVariable[variable] > 0) {
+            swapLevels(levelOfVariable[variable] - 1);
+            int size = gc();
+            if (size < best) {
+                best = size;
+                bestLevel = levelOfVariable[variable];
+            } else if (size > best * MAX_GROWTH && levelOfVariable[variable] < bestLevel) {
+                break;
+            }
+        }
+        while (levelOfVariable[variable] < bestLevel) {
+            swapLevels(levelOfVariable[variable]);
+        }
+        while (levelOfVariable[variable] > bestLevel) {
+            swapLevels(levelOfVariable[variable] - 1);
+        }
+        gc();
+    }
+
+    /**
+     * Swaps the variables at a level and the level below, in place.
+     * A node of the upper variable that depends on the lower one is rewritten
+     * as a node of the lower variable over new nodes of the upper one; its
+     * handle and function are unchanged. Other nodes keep their structure.
+     *
+     * @param level The upper level
+     */
+    void swapLevels(int level) {
+        int x = variableAtLevel[level];
+        int y = variableAtLevel[level + 1];
+        List<Integer> upper = new ArrayList<>();
+        for (int node = TRUE + 1; node < used; node++) {
+            if (variables[node] == x) {
+                upper.add(node);
+            }
+        }
+        for (int f : upper) {
+            int f1 = highs[f];
+            int f0 = lows[f];
+            boolean high = variables[f1] == y;
+            boolean low = variables[f0] == y;
+            if (!high && !low) {
+                continue;
+            }
+            int f11 = high ? highs[f1] : f1;
+            int f10 = high ? lows[f1] : f1;
+            int f01 = low ? highs[f0] : f0;
+            int f00 = low ? lows[f0] : f0;
+            // Children below the swapped levels are never nodes of y, so no node of x found here is rewritten later
+            int newHigh = makeNode(x, f01, f11);
+            int newLow = makeNode(x, f00, f10);
+            // Unlink only now: growing the arrays above rehashes f under its old key
+            unlink(f);
+            variables[f] = y;
+            lows[f] = newLow;
+            highs[f] = newHigh;
+            int bucket = hash(y, newLow, newHigh);
+            nexts[f] = buckets[bucket];
+            buckets[bucket] = f;
+        }
+        levelOfVariable[x] = level + 1;
+        levelOfVariable[y] = level;
+        variableAtLevel[level] = y;
+        variableAtLevel[level + 1] = x;
+        Arrays.fill(cacheF, -1);
+    }
+
+    private void unlink(int node) {
+        int bucket = hash(variables[node], lows[node], highs[node]);
+        if (buckets[bucket] == node) {
+            buckets[bucket] = nexts[node];
+            return;
+        }
+        for (int previous = buckets[bucket]; previous >= 0; previous = nexts[previous]) {
+            if (nexts[previous] == node) {
+                nexts[previous] = nexts[node];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks that every live node is found in its unique table bucket and that no two live nodes are equal.
+     *
+     * @return true if the unique table is consistent
+     */
+    boolean isUniqueTableConsistent() {
+        Set<List<Integer>> keys = new HashSet<>();
+        for (int node = TRUE + 1; node < used; node++) {
+            if (variables[node] == DEAD) {
+                continue;
+            }
+            if (!keys.add(List.of(variables[node], lows[node], highs[node]))) {
+                return false;
+            }
+            boolean found = false;
+            for (int n = buckets[hash(variables[node], lows[node], highs[node])]; n >= 0 && !found; n = nexts[n]) {
+                found = n == node;
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of allocated nodes, including the terminals and unreclaimed garbage.
+     *
+     * @return The node count
+     */
+    public int getNodeCount() {
+        return used - freeCount;
+    }
+
+    /**
+     * Gets the number of nodes reachable from a function, including the terminals it reaches.
+     *
+     * @param f The function
+     * @return The node count
+     */
+    public int size(int f) {
+        boolean[] seen = new boolean[used];
+        int[] stack = new int[used];
+        int depth = 0;
+        int count = 0;
+        stack[depth++] = f;
+        seen[f] = true;
+        while (depth > 0) {
+            int node = stack[--depth];
+            count++;
+            if (node > TRUE) {
+                for (int child : new int[] {lows[node], highs[node]}) {
+                    if (!seen[child]) {
+                        seen[child] = true;
+                        stack[depth++] = child;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the level a variable is currently tested at; level 0 is the root.
+     *
+     * @param variable The variable index
+     * @return The level
+     */
+    public int getLevel(int variable) {
+        return levelOfVariable[variable];
+    }
+
+    /**
+     * Gets the number of garbage collections run so far.
+     *
+     * @return The collection count
+     */
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * Gets the number of reorderings run so far.
+     *
+     * @return The reordering count
+     */
+    public long getReorderCount() {
+        return reorderCount;
+    }
+
+    /**
+     * Evaluates a function.
+     *
+     * @param f The function
+     * @param assignment The value of every variable, by index
+     * @return The function's value
+     */
+    public boolean evaluate(int f, boolean[] assignment) {
+        int node = f;
+        while (node > TRUE) {
+            node = assignment[variables[node]] ? highs[node] : lows[node];
+        }
+        return node == TRUE;
+    }
+
+    /**
+     * Counts the assignments of all variables that satisfy a function.
+     *
+     * @param f The function
+     * @return The minterm count
+     */
+    public BigInteger satCount(int f) {
+        return satCount(f, new HashMap<>()).shiftLeft(level(f));
+    }
+
+    /**
+     * Counts the satisfying assignments of the variables from the node's level down.
+     */
+    private BigInteger satCount(int node, Map<Integer, BigInteger> memo) {
+        if (node <= TRUE) {
+            return node == TRUE ? BigInteger.ONE : BigInteger.ZERO;
+        }
+        BigInteger count = memo.get(node);
+        if (count == null) {
+            int level = level(node);
+            count = satCount(lows[node], memo).shiftLeft(level(lows[node]) - level - 1)
+                    .add(satCount(highs[node], memo).shiftLeft(level(highs[node]) - level - 1));
+            memo.put(node, count);
+        }
+        return count;
+    }
+
+    /**
+     * Finds an assignment satisfying a function, preferring false for every variable tested.
+     *
+     * @param f The function
+     * @return The value of every variable, by index, or null if the function is unsatisfiable
+     */
+    public boolean[] anySat(int f) {
+        if (f == FALSE) {
+            return null;
+        }
+        boolean[] assignment = new boolean[variableCount];
+        int node = f;
+        while (node > TRUE) {
+            if (lows[node] != FALSE) {
+                node = lows[node];
+            } else {
+                assignment[variables[node]] = true;
+                node = highs[node];
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Computes an irredundant sum of products of a function with the Minato-Morreale algorithm.
+     * Variable {@code j} of {@code n} is bit {@code n-1-j} of the cubes, as in a truth table row index.
+     *
+     * @param f The function
+     * @return The products, ordered as the minimizer orders them
+     * @throws IllegalArgumentException if there are more than 63 variables
+     */
+    public List<LogicMinimizer.Cube> cover(int f) {
+        if (variableCount >= Long.SIZE) {
+            throw new IllegalArgumentException("Covers are limited to " + (Long.SIZE - 1) + " variables");
+        }
+        safePoint(f, FALSE, FALSE);
+        List<LogicMinimizer.Cube> cubes = new ArrayList<>();
+        for (long[] cube : isop(f, f, new HashMap<>()).cubes) {
+            cubes.add(new LogicMinimizer.Cube(cube[0], cube[1], variableCount));
+        }
+        cubes.sort(LogicMinimizer.Cube.ORDER);
+        return cubes;
+    }
+
+    /**
+     * Finds an irredundant cover between a lower and an upper bound.
+     * Cubes hold only the literals of the variables below the bounds' top level,
+     * so a memoized cover can be reused wherever the same bounds reappear.
+     */
+    private Isop isop(int lower, int upper, Map<Long, Isop> memo) {
+        if (lower == FALSE) {
+            return Isop.EMPTY;
+        }
+        if (upper == TRUE) {
+            return Isop.TAUTOLOGY;
+        }
+        long key = (long) lower << 32 | upper;
+        Isop result = memo.get(key);
+        if (result != null) {
+            return result;
+        }
+        int top = Math.min(level(lower), level(upper));
+        int v = variableAtLevel[top];
+        long bit = 1L << (variableCount - 1 - v);
+        int lower0 = cofactor(lower, v, false);
+        int lower1 = cofactor(lower, v, true);
+        int upper0 = cofactor(upper, v, false);
+        int upper1 = cofactor(upper, v, true);
+
+        // Products that need !v, products that need v, then products that need neither
+        Isop cover0 = isop(compute(lower0, compute(upper1, FALSE, TRUE), FALSE), upper0, memo);
+        Isop cover1 = isop(compute(lower1, compute(upper0, FALSE, TRUE), FALSE), upper1, memo);
+        int rest0 = compute(lower0, compute(cover0.node, FALSE, TRUE), FALSE);
+        int rest1 = compute(lower1, compute(cover1.node, FALSE, TRUE), FALSE);
+        Isop coverBoth = isop(compute(rest0, TRUE, rest1), compute(upper0, upper1, FALSE), memo);
+
+        List<long[]> cubes = new ArrayList<>(cover0.cubes.size() + cover1.cubes.size() + coverBoth.cubes.size());
+        for (long[] cube : cover0.cubes) {
+            cubes.add(new long[] {cube[0] | bit, cube[1]});
+        }
+        for (long[] cube : cover1.cubes) {
+            cubes.add(new long[] {cube[0] | bit, cube[1] | bit});
+        }
+        cubes.addAll(coverBoth.cubes);
+        int node = makeNode(v, compute(cover0.node, TRUE, coverBoth.node), compute(cover1.node, TRUE, coverBoth.node));
+        result = new Isop(node, cubes);
+        memo.put(key, result);
+        return result;
+    }
+
+    /**
+     * Computes the truth table column of a function, 64 rows per word.
+     * Variable {@code j} of {@code n} is bit {@code n-1-j} of the row index.
+     *
+     * @param f The function
+     * @return Bit {@code r} set for every row {@code r} where the function is true
+     * @throws IllegalArgumentException if the table would not fit in an array
+     */
+    public long[] toOnSet(int f) {
+        if (variableCount > TruthTable.MAX_INPUTS) {
+            throw new IllegalArgumentException("Truth tables are limited to " + TruthTable.MAX_INPUTS + " variables");
+        }
+        long rows = 1L << variableCount;
+        long[] words = new long[(int) ((rows + Long.SIZE - 1) / Long.SIZE)];
+
+        // Evaluate the reachable nodes bottom-up for 64 rows at a time
+        List<Integer> nodes = new ArrayList<>();
+        boolean[] seen = new boolean[used];
+        int[] stack = new int[used];
+        int depth = 0;
+        stack[depth++] = f;
+        seen[f] = true;
+        while (depth > 0) {
+            int node = stack[--depth];
+            if (node > TRUE) {
+                nodes.add(node);
+                for (int child : new int[] {lows[node], highs[node]}) {
+                    if (!seen[child]) {
+                        seen[child] = true;
+                        stack[depth++] = child;
+                    }
+                }
+            }
+        }
+        nodes.sort(Comparator.comparingInt(this::level).reversed());
+        Map<Integer, Integer> slots = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            slots.put(nodes.get(i), i + 2);
+        }
+        int[] lowSlots = new int[nodes.size()];
+        int[] highSlots = new int[nodes.size()];
+        int[] bits = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            int node = nodes.get(i);
+            lowSlots[i] = lows[node] <= TRUE ? lows[node] : slots.get(lows[node]);
+            highSlots[i] = highs[node] <= TRUE ? highs[node] : slots.get(highs[node]);
+            bits[i] = variableCount - 1 - variables[node];
+        }
+        int root = f <= TRUE ? f : slots.get(f);
+
+        long[] values = new long[nodes.size() + 2];
+        values[TRUE] = -1L;
+        long valid = rows >= Long.SIZE ? -1L : (1L << rows) - 1;
+        for (int word = 0; word < words.length; word++) {
+            long base = (long) word * Long.SIZE;
+            for (int i = 0; i < nodes.size(); i++) {
+                int bit = bits[i];
+                long input = bit < ROW_PATTERNS.length ? ROW_PATTERNS[bit] : (base >>> bit & 1L) != 0 ? -1L : 0L;
+                values[i + 2] = input & values[highSlots[i]] | ~input & values[lowSlots[i]];
+            }
+            words[word] = values[root] & valid;
+        }
+        return words;
+    }
+
+    /**
+     * A cover's node and its products as {@code {care, value}} pairs.
+     */
+    private static final class Isop {
+        static final Isop EMPTY = new Isop(FALSE, List.of());
+        static final Isop TAUTOLOGY = new Isop(TRUE, List.<long[]>of(new long[2]));
+
+        private final int node;
+        private final List<long[]> cubes;
+
+        Isop(int node, List<long[]> cubes) {
+            this.node = node;
+            this.cubes = cubes;
+        }
+    }
+}
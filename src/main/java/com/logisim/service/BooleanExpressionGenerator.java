@@ -1,5 +1,24 @@
 package com.logisim.service;
 
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.components.LED;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Nand;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Not;
+import com.logisim.domain.gates.Or;
+import com.logisim.domain.gates.Xor;
+import com.logisim.domain.simulation.LevelizedSchedule;
+import com.logisim.domain.simulation.Netlist;
+import com.logisim.domain.simulation.TruthTable;
+import com.logisim.domain.simulation.TruthTableRow;
+import com.logisim.domain.simulation.TruthTableVisitor;
+import com.logisim.repository.SumOfProductsWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -26,42 +45,60 @@ public class BooleanExpressionGenerator {
             return "0"; // False
         }
 
-        List<String> minterms = new ArrayList<>();
-
-        for (Map<String, Boolean> row : truthTable) {
-            Boolean outputValue = row.get(outputVariable);
-            if (outputValue != null && outputValue) {
-                // This row produces true output - create a minterm
-                List<String> literals = new ArrayList<>();
-                for (String inputVar : inputVariables) {
-                    Boolean inputValue = row.get(inputVar);
-                    if (inputValue != null) {
-                        if (inputValue) {
-                            literals.add(inputVar);
-                        } else {
-                            literals.add("!" + inputVar);
-                        }
-                    }
-                }
-                if (!literals.isEmpty()) {
-                    minterms.add(String.join(" & ", literals));
+        StringBuilder sum = new StringBuilder();
+        SumOfProductsWriter writer = new SumOfProductsWriter(sum, outputVariable);
+        try {
+            for (Map<String, Boolean> row : truthTable) {
+                Boolean outputValue = row.get(outputVariable);
+                if (outputValue != null && outputValue && hasInput(row, inputVariables)) {
+                    // This row produces true output - write its minterm
+                    writer.writeTerm(term -> appendMinterm(term, row, inputVariables));
                 }
             }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return sum.toString();
+    }
 
-        if (minterms.isEmpty()) {
-            return "0"; // Always false
+    /**
+     * Checks whether a row holds at least one of the inputs.
+     */
+    private static boolean hasInput(Map<String, Boolean> row, List<String> inputVariables) {
+        for (String inputVar : inputVariables) {
+            if (row.get(inputVar) != null) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        if (minterms.size() == 1) {
-            return minterms.get(0);
+    /**
+     * Appends the minterm of a row, skipping inputs the row does not hold.
+     */
+    private static void appendMinterm(Appendable term, Map<String, Boolean> row, List<String> inputVariables)
+            throws IOException {
+        boolean firstLiteral = true;
+        for (String inputVar : inputVariables) {
+            Boolean inputValue = row.get(inputVar);
+            if (inputValue != null) {
+                if (!firstLiteral) {
+                    term.append(" & ");
+                }
+                if (!inputValue) {
+                    term.append('!');
+                }
+                term.append(inputVar);
+                firstLiteral = false;
+            }
         }
-
-        return "(" + String.join(") | (", minterms) + ")";
     }
 
     /**
-     * Generates a simplified boolean expression using basic simplification.
+     * Generates a minimal sum-of-products expression.
+     * Rows missing from the table count as false. Functions of more than
+     * {@link LogicMinimizer#MAX_INPUTS} inputs fall back to the canonical sum.
      * 
      * @param truthTable The truth table
      * @param outputVariable The output variable name
@@ -71,8 +108,228 @@ public class BooleanExpressionGenerator {
     public String generateSimplifiedExpression(List<Map<String, Boolean>> truthTable,
                                                String outputVariable,
                                                List<String> inputVariables) {
-        String sopExpression = generateSOPExpression(truthTable, outputVariable, inputVariables);
-        return simplifyExpression(sopExpression);
+        int inputCount = inputVariables.size();
+        if (inputCount > LogicMinimizer.MAX_INPUTS) {
+            String sopExpression = generateSOPExpression(truthTable, outputVariable, inputVariables);
+            return simplifyExpression(sopExpression);
+        }
+
+        long[] onSet = new long[LogicMinimizer.wordCount(inputCount)];
+        if (truthTable != null) {
+            for (Map<String, Boolean> row : truthTable) {
+                if (Boolean.TRUE.equals(row.get(outputVariable))) {
+                    int index = 0;
+                    for (String inputVar : inputVariables) {
+                        index = index << 1 | (Boolean.TRUE.equals(row.get(inputVar)) ? 1 : 0);
+                    }
+                    onSet[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+        return formatCover(LogicMinimizer.minimize(onSet, inputCount), inputVariables);
+    }
+
+    /**
+     * Generates a minimal sum-of-products expression for one output of a columnar truth table.
+     * Tables of more than {@link LogicMinimizer#MAX_INPUTS} inputs fall back to the canonical sum.
+     * 
+     * @param truthTable The truth table
+     * @param outputColumn The output column
+     * @return The simplified boolean expression
+     */
+    public String generateSimplifiedExpression(TruthTable truthTable, int outputColumn) {
+        if (truthTable.getInputCount() > LogicMinimizer.MAX_INPUTS) {
+            return generateSOPExpression(truthTable, outputColumn);
+        }
+        if (truthTable.isEmpty()) {
+            return "0";
+        }
+        return formatCover(LogicMinimizer.minimize(truthTable, outputColumn), truthTable.getInputNames());
+    }
+
+    /**
+     * Generates minimal sum-of-products expressions for all outputs of a columnar truth table.
+     * 
+     * @param truthTable The truth table
+     * @return Map of output variable names to their simplified expressions, in column order
+     */
+    public Map<String, String> generateAllSimplifiedExpressions(TruthTable truthTable) {
+        Map<String, String> expressions = new LinkedHashMap<>();
+        for (String outputVar : truthTable.getOutputNames()) {
+            if (!expressions.containsKey(outputVar)) {
+                expressions.put(outputVar, generateSimplifiedExpression(truthTable, truthTable.indexOfOutput(outputVar)));
+            }
+        }
+        return expressions;
+    }
+
+    /**
+     * Minimizes all outputs of a columnar truth table together, sharing product terms between outputs.
+     * 
+     * @param truthTable The truth table
+     * @return The shared-term cover, with one function per output column
+     * @throws IllegalArgumentException if the table has more than {@link LogicMinimizer#MAX_INPUTS} inputs
+     */
+    public LogicMinimizer.SharedCover generateSharedCover(TruthTable truthTable) {
+        return LogicMinimizer.minimizeAll(truthTable);
+    }
+
+    /**
+     * Generates sum-of-products expressions for all outputs of a columnar truth table
+     * from a cover whose products are shared between outputs.
+     * A shared product is spelled identically in every expression that uses it.
+     * Tables of more than {@link LogicMinimizer#MAX_INPUTS} inputs fall back to the canonical sums.
+     * 
+     * @param truthTable The truth table
+     * @return Map of output variable names to their expressions, in column order
+     */
+    public Map<String, String> generateSharedExpressions(TruthTable truthTable) {
+        if (truthTable.getInputCount() > LogicMinimizer.MAX_INPUTS) {
+            return generateAllExpressions(truthTable);
+        }
+        LogicMinimizer.SharedCover cover = generateSharedCover(truthTable);
+        Map<String, String> expressions = new LinkedHashMap<>();
+        for (String outputVar : truthTable.getOutputNames()) {
+            if (!expressions.containsKey(outputVar)) {
+                int column = truthTable.indexOfOutput(outputVar);
+                expressions.put(outputVar, formatCover(cover.getOutputProducts(column), truthTable.getInputNames()));
+            }
+        }
+        return expressions;
+    }
+
+    /**
+     * Generates an expression for every output by following connectors back from it through the gates.
+     * No truth table is enumerated, so the cost grows with the size of the
+     * circuit rather than with the number of input combinations. A gate whose
+     * output feeds several gates of one expression is printed once as a
+     * temporary, and NAND and NOR gates stay factored as negated conjunctions
+     * and disjunctions.
+     * Output and input names match the truth table columns.
+     * 
+     * @param circuit The circuit
+     * @return Map of output variable names to their expressions, in truth table column order
+     * @throws IllegalArgumentException if the circuit has feedback, foreign components or non-primitive components
+     */
+    public Map<String, String> generateStructuralExpressions(Circuit circuit) {
+        ExpressionDag dag = new ExpressionDag();
+        Map<String, Integer> outputs = extractStructure(circuit, dag);
+        Map<String, String> expressions = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : outputs.entrySet()) {
+            expressions.put(entry.getKey(), dag.format(entry.getValue()));
+        }
+        return expressions;
+    }
+
+    /**
+     * Builds the expression of every output of a circuit into a hash-consed graph.
+     * Components are visited once, in levelized order, so every gate becomes
+     * at most one node. Input ports no connector drives keep their current
+     * value, as in truth table analysis.
+     * 
+     * @param circuit The circuit
+     * @param dag The graph receiving the expressions
+     * @return Map of output variable names to their nodes, in truth table column order
+     * @throws IllegalArgumentException if the circuit has feedback, foreign components or non-primitive components
+     */
+    public Map<String, Integer> extractStructure(Circuit circuit, ExpressionDag dag) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        LevelizedSchedule schedule = circuit.getSchedule();
+        if (!schedule.isAcyclic()) {
+            throw new IllegalArgumentException("Circuit has feedback or foreign components");
+        }
+        Netlist netlist = schedule.getNetlist();
+        int[] nodes = new int[netlist.getComponentCount()];
+        for (int position = 0; position < schedule.size(); position++) {
+            int index = schedule.getComponentAt(position);
+            Component component = netlist.getComponent(index);
+            int[] ports = new int[component.getInputCount()];
+            for (int port = 0; port < ports.length; port++) {
+                ports[port] = component.getInputBit(port) ? ExpressionDag.TRUE : ExpressionDag.FALSE;
+            }
+            for (int f = netlist.getFaninStart(index); f < netlist.getFaninEnd(index); f++) {
+                int connector = netlist.getFaninConnector(f);
+                int port = netlist.getPort(connector);
+                int source = netlist.getSource(connector);
+                if (port >= 0 && port < ports.length) {
+                    // Only the first output of a primitive exists; other outputs read as false
+                    boolean readsSignal = netlist.getSourceOutput(connector) == 0
+                            && netlist.getComponent(source).getOutputCount() > 0;
+                    ports[port] = readsSignal ? nodes[source] : ExpressionDag.FALSE;
+                }
+            }
+            nodes[index] = gateNode(component, ports, dag);
+        }
+
+        Map<String, Integer> outputs = new LinkedHashMap<>();
+        for (int i = 0; i < netlist.getCircuitComponentCount(); i++) {
+            Component component = netlist.getComponent(i);
+            if (component.getOutputCount() > 0) {
+                outputs.putIfAbsent("Output_" + component.getName(), nodes[i]);
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Builds the node of one component from the nodes of its input ports.
+     */
+    private static int gateNode(Component component, int[] ports, ExpressionDag dag) {
+        Class<?> type = component.getClass();
+        if (type == Switch.class) {
+            return dag.variable("Input_" + component.getName());
+        }
+        if (type == LED.class) {
+            return ExpressionDag.FALSE;
+        }
+        if (type == And.class || type == Nand.class) {
+            int node = ports.length == 0 ? ExpressionDag.FALSE : ExpressionDag.TRUE;
+            for (int port : ports) {
+                node = dag.and(node, port);
+            }
+            return type == Nand.class ? dag.not(node) : node;
+        }
+        if (type == Or.class || type == Nor.class) {
+            int node = ExpressionDag.FALSE;
+            for (int port : ports) {
+                node = dag.or(node, port);
+            }
+            return type == Nor.class ? dag.not(node) : node;
+        }
+        if (type == Not.class) {
+            return ports.length == 0 ? ExpressionDag.FALSE : dag.not(ports[0]);
+        }
+        if (type == Xor.class) {
+            return ports.length < 2 ? ExpressionDag.FALSE : dag.xor(ports[0], ports[1]);
+        }
+        throw new IllegalArgumentException(
+                "Unsupported component for structural extraction: " + type.getSimpleName());
+    }
+
+    /**
+     * Formats a cover as a sum of products, in the layout of the canonical sums.
+     * 
+     * @param cover The products
+     * @param inputVariables The input names, most significant first
+     * @return The expression, "0" for an empty cover
+     */
+    static String formatCover(List<LogicMinimizer.Cube> cover, List<String> inputVariables) {
+        if (cover.isEmpty()) {
+            return "0";
+        }
+        if (cover.size() == 1) {
+            return cover.get(0).toExpression(inputVariables);
+        }
+        StringBuilder sum = new StringBuilder("(");
+        for (int i = 0; i < cover.size(); i++) {
+            if (i > 0) {
+                sum.append(") | (");
+            }
+            sum.append(cover.get(i).toExpression(inputVariables));
+        }
+        return sum.append(')').toString();
     }
 
     /**
@@ -98,6 +355,8 @@ public class BooleanExpressionGenerator {
 
     /**
      * Generates boolean expressions for all outputs in a truth table.
+     * The rows are scanned once; each row's minterm is built at most once and
+     * appended to every output that is true in it.
      * 
      * @param truthTable The truth table
      * @param inputVariables List of input variable names
@@ -111,25 +370,233 @@ public class BooleanExpressionGenerator {
             return expressions;
         }
 
-        // Find all output variables (those that start with "Output_")
-        Set<String> outputVariables = new HashSet<>();
-        for (Map<String, Boolean> row : truthTable) {
-            for (String key : row.keySet()) {
-                if (key.startsWith("Output_")) {
-                    outputVariables.add(key);
+        // Output variables are those that start with "Output_"
+        Map<String, StringBuilder> sums = new HashMap<>();
+        Map<String, SumOfProductsWriter> writers = new HashMap<>();
+        try {
+            for (Map<String, Boolean> row : truthTable) {
+                String minterm = null;
+                for (Map.Entry<String, Boolean> entry : row.entrySet()) {
+                    if (!entry.getKey().startsWith("Output_")) {
+                        continue;
+                    }
+                    SumOfProductsWriter writer = writers.computeIfAbsent(entry.getKey(), key -> {
+                        StringBuilder sum = new StringBuilder();
+                        sums.put(key, sum);
+                        return new SumOfProductsWriter(sum, key);
+                    });
+                    if (Boolean.TRUE.equals(entry.getValue()) && hasInput(row, inputVariables)) {
+                        if (minterm == null) {
+                            StringBuilder term = new StringBuilder();
+                            appendMinterm(term, row, inputVariables);
+                            minterm = term.toString();
+                        }
+                        String product = minterm;
+                        writer.writeTerm(term -> term.append(product));
+                    }
                 }
             }
+            for (Map.Entry<String, SumOfProductsWriter> entry : writers.entrySet()) {
+                entry.getValue().finish();
+                expressions.put(entry.getKey(), sums.get(entry.getKey()).toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return expressions;
+    }
+
+    /**
+     * Generates a sum-of-products expression for one output of a columnar truth table.
+     * Only the rows where the output is true are visited.
+     * 
+     * @param truthTable The truth table
+     * @param outputColumn The output column
+     * @return The boolean expression as a string
+     */
+    public String generateSOPExpression(TruthTable truthTable, int outputColumn) {
+        return generateSOPExpression(truthTable, outputColumn, 0);
+    }
+
+    /**
+     * Generates a sum-of-products expression for display, keeping at most a number of minterms.
+     * Minterms past the cap are summarized as {@code | ... (+n more terms)}.
+     * 
+     * @param truthTable The truth table
+     * @param outputColumn The output column
+     * @param maxTerms Largest number of minterms written, 0 for no cap
+     * @return The boolean expression as a string
+     */
+    public String generateSOPExpression(TruthTable truthTable, int outputColumn, long maxTerms) {
+        if (truthTable.getInputCount() == 0) {
+            // A constant output has a single row
+            return truthTable.getRowCount() > 0 && truthTable.getOutput(0, outputColumn) ? "1" : "0";
+        }
+
+        StringBuilder sum = new StringBuilder();
+        try {
+            SumOfProductsWriter.write(truthTable, outputColumn, sum, maxTerms);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return sum.toString();
+    }
 
-        // Generate expression for each output
-        for (String outputVar : outputVariables) {
-            String expression = generateSOPExpression(truthTable, outputVar, inputVariables);
-            expressions.put(outputVar, expression);
+    /**
+     * Writes a sum-of-products expression for one output straight to a destination.
+     * Minterms are written as they are found, so the expression is never held in memory.
+     * 
+     * @param truthTable The truth table
+     * @param outputColumn The output column
+     * @param out The destination, typically a buffered writer
+     * @param maxTerms Largest number of minterms written, 0 for no cap
+     * @return The number of minterms of the output, including those past the cap
+     * @throws IOException if the destination fails
+     */
+    public long writeSOPExpression(TruthTable truthTable, int outputColumn, Appendable out, long maxTerms)
+            throws IOException {
+        if (truthTable.getInputCount() == 0) {
+            boolean value = truthTable.getRowCount() > 0 && truthTable.getOutput(0, outputColumn);
+            out.append(value ? '1' : '0');
+            return value ? 1 : 0;
         }
+        return SumOfProductsWriter.write(truthTable, outputColumn, out, maxTerms);
+    }
 
+    /**
+     * Generates boolean expressions for all outputs of a columnar truth table.
+     * 
+     * @param truthTable The truth table
+     * @return Map of output variable names to their boolean expressions, in column order
+     */
+    public Map<String, String> generateAllExpressions(TruthTable truthTable) {
+        Map<String, String> expressions = new LinkedHashMap<>();
+        for (String outputVar : truthTable.getOutputNames()) {
+            int column = truthTable.indexOfOutput(outputVar);
+            if (!expressions.containsKey(outputVar)) {
+                expressions.put(outputVar, generateSOPExpression(truthTable, column));
+            }
+        }
         return expressions;
     }
 
+    /**
+     * Collects sum-of-products expressions for every output while truth table rows are streamed.
+     * Only the minterms themselves are kept, so the table is never materialized.
+     * The expressions are identical to {@link #generateAllExpressions(List, List)}
+     * applied to the same rows.
+     */
+    public static class ExpressionCollector implements TruthTableVisitor {
+        private final List<String> inputVariables;
+        private int[] inputColumns;
+        private String[] outputNames;
+        private int[] outputColumns;
+        private StringBuilder[] sums;
+        private SumOfProductsWriter[] writers;
+
+        /**
+         * Constructor with the input variable order of the minterms.
+         * 
+         * @param inputVariables List of input variable names (in order), or null to use the row's input order
+         */
+        public ExpressionCollector(List<String> inputVariables) {
+            this.inputVariables = inputVariables;
+        }
+
+        @Override
+        public void visitRow(TruthTableRow row) {
+            if (inputColumns == null) {
+                resolveColumns(row);
+            }
+            for (int o = 0; o < outputColumns.length; o++) {
+                if (row.getOutput(outputColumns[o])) {
+                    appendMinterm(writers[o], row);
+                }
+            }
+        }
+
+        /**
+         * Maps the variable names onto row columns; for repeated names the last column wins.
+         */
+        private void resolveColumns(TruthTableRow row) {
+            Map<String, Integer> inputs = new HashMap<>();
+            for (int j = 0; j < row.getInputCount(); j++) {
+                inputs.put(row.getInputName(j), j);
+            }
+            List<Integer> columns = new ArrayList<>();
+            if (inputVariables == null) {
+                for (int j = 0; j < row.getInputCount(); j++) {
+                    columns.add(inputs.get(row.getInputName(j)));
+                }
+            } else {
+                for (String inputVar : inputVariables) {
+                    Integer column = inputs.get(inputVar);
+                    if (column != null) {
+                        columns.add(column);
+                    }
+                }
+            }
+            inputColumns = columns.stream().mapToInt(Integer::intValue).toArray();
+
+            Map<String, Integer> outputs = new LinkedHashMap<>();
+            for (int o = 0; o < row.getOutputCount(); o++) {
+                outputs.put(row.getOutputName(o), o);
+            }
+            outputNames = outputs.keySet().toArray(new String[0]);
+            outputColumns = outputs.values().stream().mapToInt(Integer::intValue).toArray();
+            sums = new StringBuilder[outputNames.length];
+            writers = new SumOfProductsWriter[outputNames.length];
+            for (int o = 0; o < outputNames.length; o++) {
+                sums[o] = new StringBuilder();
+                writers[o] = new SumOfProductsWriter(sums[o], outputNames[o]);
+            }
+        }
+
+        private void appendMinterm(SumOfProductsWriter writer, TruthTableRow row) {
+            if (inputColumns.length == 0) {
+                return;
+            }
+            try {
+                writer.writeTerm(term -> {
+                    for (int j = 0; j < inputColumns.length; j++) {
+                        if (j > 0) {
+                            term.append(" & ");
+                        }
+                        if (!row.getInput(inputColumns[j])) {
+                            term.append('!');
+                        }
+                        term.append(row.getInputName(inputColumns[j]));
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Completes and gets the expressions for the rows visited so far.
+         * No further rows may be visited afterwards.
+         * 
+         * @return Map of output variable names to their boolean expressions, in column order
+         */
+        public Map<String, String> getExpressions() {
+            Map<String, String> expressions = new LinkedHashMap<>();
+            if (writers == null) {
+                return expressions;
+            }
+            try {
+                for (int o = 0; o < writers.length; o++) {
+                    writers[o].finish();
+                    expressions.put(outputNames[o], sums[o].toString());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return expressions;
+        }
+    }
+
     /**
      * Formats a boolean expression for display.
      * 
@@ -3,30 +3,160 @@ package com.logisim.service;
 import com.logisim.domain.Circuit;
 import com.logisim.domain.Component;
 import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.BatchSimulator;
+import com.logisim.domain.simulation.CompiledCircuit;
+import com.logisim.domain.simulation.ProgressMonitor;
+import com.logisim.domain.simulation.SccDiagnostic;
+import com.logisim.domain.simulation.SignalChanges;
+import com.logisim.domain.simulation.SimulationResult;
+import com.logisim.domain.simulation.TruthTable;
+import com.logisim.domain.simulation.TruthTableVisitor;
+import com.logisim.repository.TestVectorReader;
+import com.logisim.repository.TestVectorWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 /**
  * Service class for managing circuits.
  * Handles circuit operations and simulation.
  * 
+ * <p>Asynchronous calls lock their circuit until they finish: while a task
+ * runs, any other call that simulates or edits the same circuit through this
+ * service fails with an {@link IllegalStateException}.</p>
+ * 
  * @author LogiSim Team
  * @version 1.0
  */
-public class CircuitService {
+public class CircuitService implements AutoCloseable {
     private static final Logger logger = LogManager.getLogger(CircuitService.class);
+
+    /**
+     * Number of vectors read and simulated per block when streaming test vectors.
+     */
+    public static final int BATCH_SIZE = 4096;
+
+    private static final String TRUTH_TABLE = "truthTable";
+    private static final String EXPRESSIONS = "expressions";
+    private static final String BY_OUTPUT = "byOutput";
+    private static final String COMPILED = "compiled";
+    private static final String BDDS = "bdds";
+
     private List<SimulationObserver> observers;
+    private boolean parallelAnalysis;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final AnalysisCache cache;
+    private final Set<Circuit> busyCircuits = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final ThreadLocal<Circuit> runningCircuit = new ThreadLocal<>();
 
     /**
      * Default constructor.
+     * Asynchronous calls run on virtual threads, one per call, until the service is closed.
      */
     public CircuitService() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Constructor with the executor that runs asynchronous calls.
+     * 
+     * @param executor The executor, for example a bounded thread pool
+     * @throws IllegalArgumentException if executor is null
+     */
+    public CircuitService(Executor executor) {
+        this(executor, false);
+    }
+
+    private CircuitService(Executor executor, boolean ownsExecutor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
         this.observers = new ArrayList<>();
+        this.parallelAnalysis = false;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.cache = new AnalysisCache();
+    }
+
+    /**
+     * Shuts down the executor created by the default constructor.
+     * Running tasks are allowed to finish; new asynchronous calls are rejected.
+     * An executor passed in by the caller is left running.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor && executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            logger.debug("Shut down circuit service executor");
+        }
+    }
+
+    /**
+     * Checks whether an asynchronous task of this service is using a circuit.
+     * 
+     * @param circuit The circuit
+     * @return true if the circuit is locked by a running task
+     */
+    public boolean isRunning(Circuit circuit) {
+        return circuit != null && busyCircuits.contains(circuit);
+    }
+
+    /**
+     * Rejects a call on a circuit locked by a task, unless the call is made by that task.
+     */
+    private void checkIdle(Circuit circuit) {
+        if (isRunning(circuit) && runningCircuit.get() != circuit) {
+            throw new IllegalStateException("Circuit " + circuit.getName() + " is in use by a running task");
+        }
+    }
+
+    /**
+     * Gets the cache holding analysis results and compiled circuits.
+     * Results are reused until the analyzed circuit's structural version changes.
+     * 
+     * @return The analysis cache
+     */
+    public AnalysisCache getAnalysisCache() {
+        return cache;
+    }
+
+    /**
+     * Checks whether truth tables are enumerated in parallel.
+     * 
+     * @return true if analysis uses the common fork/join pool
+     */
+    public boolean isParallelAnalysis() {
+        return parallelAnalysis;
+    }
+
+    /**
+     * Enables or disables parallel truth table enumeration.
+     * Parallel analysis produces the same rows in the same order as sequential analysis.
+     * 
+     * @param parallelAnalysis true to split the input space across the common fork/join pool
+     */
+    public void setParallelAnalysis(boolean parallelAnalysis) {
+        this.parallelAnalysis = parallelAnalysis;
     }
 
     /**
@@ -78,11 +208,17 @@ public class CircuitService {
         if (circuit == null) {
             throw new IllegalArgumentException("Circuit cannot be null");
         }
+        checkIdle(circuit);
 
         logger.info("Running simulation on circuit: {}", circuit.getName());
         
         try {
-            Map<String, Boolean> outputs = circuit.simulate(inputs != null ? inputs : new HashMap<>());
+            SimulationResult result = circuit.simulateWithDiagnostics(inputs != null ? inputs : new HashMap<>());
+            for (SccDiagnostic loop : result.getUnstableLoops()) {
+                logger.warn("Feedback loop {} did not settle: {} after {} iterations (period {})",
+                        loop.getComponentNames(), loop.getStatus(), loop.getIterations(), loop.getPeriod());
+            }
+            Map<String, Boolean> outputs = result.getOutputs();
             notifyObservers(outputs);
             logger.info("Simulation completed successfully");
             return outputs;
@@ -92,6 +228,138 @@ public class CircuitService {
         }
     }
 
+    /**
+     * Sets a switch and re-simulates only the part of the circuit it drives.
+     * Meant for interactive toggling: nothing is logged above debug level and
+     * observers are not notified, so the caller applies the returned changes itself.
+     * 
+     * @param circuit The circuit containing the switch
+     * @param sw The switch to set
+     * @param state The new switch state
+     * @return The components whose outputs changed
+     * @throws IllegalArgumentException if circuit or switch is null, or the switch is not in the circuit
+     */
+    public SignalChanges setSwitchState(Circuit circuit, Switch sw, boolean state) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+        if (sw == null) {
+            throw new IllegalArgumentException("Switch cannot be null");
+        }
+
+        SignalChanges changes = circuit.setSwitchState(sw, state);
+        logger.debug("Switch {} set to {}: {} components changed", sw.getName(), state, changes.size());
+        if (!changes.isStable()) {
+            logger.warn("Circuit {} did not settle after setting switch {}", circuit.getName(), sw.getName());
+        }
+        return changes;
+    }
+
+    /**
+     * Simulates a batch of packed input vectors.
+     * Vectors are packed as described by {@link BatchSimulator}. Observers are
+     * not notified and only the batch as a whole is logged.
+     * 
+     * @param circuit The circuit to simulate
+     * @param inputVectors The packed input vectors
+     * @param vectorCount The number of vectors
+     * @return The packed output vectors
+     * @throws IllegalArgumentException if circuit or inputVectors is null
+     */
+    public long[] runBatch(Circuit circuit, long[] inputVectors, int vectorCount) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+        if (inputVectors == null) {
+            throw new IllegalArgumentException("Input vectors cannot be null");
+        }
+
+        try {
+            BatchSimulator simulator = new BatchSimulator(circuit);
+            long[] outputVectors = new long[Math.multiplyExact(vectorCount, simulator.getOutputWords())];
+            long start = System.nanoTime();
+            simulator.simulate(inputVectors, vectorCount, outputVectors);
+            logBatch(circuit, vectorCount, start);
+            return outputVectors;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error during batch simulation", e);
+            throw new RuntimeException("Batch simulation failed", e);
+        }
+    }
+
+    /**
+     * Streams test vectors from a file through the circuit, writing one output line per vector.
+     * Vectors are read and simulated in blocks of {@link #BATCH_SIZE}.
+     * 
+     * @param circuit The circuit to simulate
+     * @param in The test vectors, in {@link TestVectorReader} format
+     * @param out The destination for the output vectors
+     * @return The number of vectors simulated
+     * @throws IllegalArgumentException if an argument is null or the file holds an invalid vector
+     */
+    public long runBatch(Circuit circuit, Reader in, Appendable out) {
+        return runBatch(circuit, in, out, null);
+    }
+
+    /**
+     * Streams test vectors through the circuit, reporting vectors to a progress monitor.
+     * The monitor is checked between blocks.
+     * 
+     * @param circuit The circuit to simulate
+     * @param in The test vectors, in {@link TestVectorReader} format
+     * @param out The destination for the output vectors
+     * @param monitor The monitor receiving progress and cancellation, or null for none
+     * @return The number of vectors simulated
+     * @throws IllegalArgumentException if an argument is null or the file holds an invalid vector
+     * @throws CancellationException if the monitor was cancelled
+     */
+    public long runBatch(Circuit circuit, Reader in, Appendable out, ProgressMonitor monitor) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+
+        try {
+            BatchSimulator simulator = new BatchSimulator(circuit);
+            TestVectorReader reader = new TestVectorReader(in, simulator.getInputCount());
+            TestVectorWriter writer = new TestVectorWriter(out, simulator.getOutputCount());
+            long[] inputVectors = new long[BATCH_SIZE * simulator.getInputWords()];
+            long[] outputVectors = new long[BATCH_SIZE * simulator.getOutputWords()];
+            long start = System.nanoTime();
+            int count;
+            if (monitor != null) {
+                monitor.start(-1);
+            }
+            while ((count = reader.read(inputVectors, BATCH_SIZE)) > 0) {
+                if (monitor != null) {
+                    monitor.checkCancelled();
+                }
+                simulator.simulate(inputVectors, count, outputVectors);
+                writer.write(outputVectors, count);
+                if (monitor != null) {
+                    monitor.advance(count);
+                }
+            }
+            logBatch(circuit, writer.getVectorCount(), start);
+            return writer.getVectorCount();
+        } catch (IllegalArgumentException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error during batch simulation", e);
+            throw new RuntimeException("Batch simulation failed", e);
+        }
+    }
+
+    private void logBatch(Circuit circuit, long vectorCount, long startNanos) {
+        double seconds = Math.max(System.nanoTime() - startNanos, 1L) / 1e9;
+        logger.info("Simulated {} vectors on circuit {} ({} vectors/s)",
+                vectorCount, circuit.getName(), Math.round(vectorCount / seconds));
+    }
+
     /**
      * Analyzes the circuit and generates a truth table.
      * 
@@ -103,11 +371,12 @@ public class CircuitService {
         if (circuit == null) {
             throw new IllegalArgumentException("Circuit cannot be null");
         }
+        checkIdle(circuit);
 
-        logger.info("Analyzing circuit: {}", circuit.getName());
+        logger.info("Analyzing circuit: {} ({})", circuit.getName(), parallelAnalysis ? "parallel" : "sequential");
         
         try {
-            List<Map<String, Boolean>> truthTable = circuit.analyze();
+            List<Map<String, Boolean>> truthTable = circuit.analyze(parallelAnalysis ? ForkJoinPool.commonPool() : null);
             logger.info("Analysis completed. Generated {} truth table rows", truthTable.size());
             return truthTable;
         } catch (Exception e) {
@@ -116,8 +385,328 @@ public class CircuitService {
         }
     }
 
+    /**
+     * Analyzes the circuit and streams the truth table to a visitor one row at a time.
+     * 
+     * @param circuit The circuit to analyze
+     * @param visitor The visitor receiving the rows, in row order
+     * @throws IllegalArgumentException if circuit or visitor is null
+     */
+    public void analyzeCircuit(Circuit circuit, TruthTableVisitor visitor) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+        if (visitor == null) {
+            throw new IllegalArgumentException("Visitor cannot be null");
+        }
+
+        logger.info("Streaming analysis of circuit: {}", circuit.getName());
+
+        try {
+            long[] rowCount = new long[1];
+            circuit.analyze(row -> {
+                visitor.visitRow(row);
+                rowCount[0]++;
+            });
+            logger.info("Analysis completed. Streamed {} truth table rows", rowCount[0]);
+        } catch (CancellationException e) {
+            logger.info("Analysis of circuit {} cancelled", circuit.getName());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error during circuit analysis", e);
+            throw new RuntimeException("Analysis failed", e);
+        }
+    }
+
+    /**
+     * Generates the boolean expressions of every output without materializing the truth table.
+     * Minterms list the inputs in truth table column order.
+     * 
+     * @param circuit The circuit to analyze
+     * @return Map of output variable names to their boolean expressions
+     * @throws IllegalArgumentException if circuit is null
+     */
+    public Map<String, String> generateExpressions(Circuit circuit) {
+        BooleanExpressionGenerator.ExpressionCollector collector =
+                new BooleanExpressionGenerator.ExpressionCollector(null);
+        analyzeCircuit(circuit, collector);
+        return collector.getExpressions();
+    }
+
+    /**
+     * Generates the expression of every output from the circuit's structure, without enumerating a truth table.
+     * 
+     * @param circuit The circuit
+     * @return Map of output variable names to their factored expressions
+     * @throws IllegalArgumentException if circuit is null
+     */
+    public Map<String, String> generateStructuralExpressions(Circuit circuit) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+
+        try {
+            Map<String, String> expressions = new BooleanExpressionGenerator().generateStructuralExpressions(circuit);
+            logger.info("Extracted {} expressions from circuit {}", expressions.size(), circuit.getName());
+            return expressions;
+        } catch (Exception e) {
+            logger.error("Error during structural expression extraction", e);
+            throw new RuntimeException("Expression extraction failed", e);
+        }
+    }
+
+    /**
+     * Builds a binary decision diagram of every output from the circuit's structure.
+     * Minterm counts, satisfiability and covers then come from the diagrams
+     * without enumerating a truth table, so circuits with many inputs but
+     * compact diagrams can still be analyzed. Variable order is improved by
+     * sifting.
+     * 
+     * @param circuit The circuit
+     * @return The diagrams of every output, reused while the circuit is unchanged
+     * @throws IllegalArgumentException if circuit is null
+     */
+    public BddAnalysis analyzeBdds(Circuit circuit) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+
+        BddAnalysis cached = cache.get(circuit, BDDS, BddAnalysis.class);
+        if (cached != null) {
+            logger.debug("Reusing diagrams of circuit {} at version {}", circuit.getName(), circuit.getVersion());
+            return cached;
+        }
+
+        try {
+            AnalysisCache.Snapshot snapshot = AnalysisCache.snapshot(circuit);
+            BddAnalysis analysis = BddAnalysis.build(circuit, true);
+            cache.put(snapshot, BDDS, analysis);
+            logger.info("Built diagrams of {} outputs over {} inputs with {} nodes for circuit {}",
+                    analysis.getOutputVariables().size(), analysis.getInputVariables().size(),
+                    analysis.getNodeCount(), circuit.getName());
+            return analysis;
+        } catch (Exception e) {
+            logger.error("Error building decision diagrams", e);
+            throw new RuntimeException("Decision diagram analysis failed", e);
+        }
+    }
+
+    /**
+     * Writes the canonical sum-of-products expression of every output, one line per output.
+     * Minterms stream straight to the destination, so expressions with
+     * millions of minterms can be written to a file without holding them in memory.
+     * 
+     * @param circuit The circuit
+     * @param out The destination, typically a buffered writer
+     * @param maxTerms Largest number of minterms written per output, 0 for no cap
+     * @return The number of minterms written or summarized, over all outputs
+     * @throws IllegalArgumentException if circuit or out is null
+     */
+    public long writeExpressions(Circuit circuit, Appendable out, long maxTerms) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+        TruthTable truthTable = analyzeTruthTable(circuit);
+
+        try {
+            BooleanExpressionGenerator generator = new BooleanExpressionGenerator();
+            long terms = 0;
+            for (int o = 0; o < truthTable.getOutputCount(); o++) {
+                out.append(truthTable.getOutputName(o)).append(" = ");
+                terms += generator.writeSOPExpression(truthTable, o, out, maxTerms);
+                out.append('\n');
+            }
+            logger.info("Wrote {} minterms of circuit {}", terms, circuit.getName());
+            return terms;
+        } catch (Exception e) {
+            logger.error("Error writing expressions", e);
+            throw new RuntimeException("Expression export failed", e);
+        }
+    }
+
+    /**
+     * Analyzes the circuit into a columnar truth table.
+     * 
+     * @param circuit The circuit to analyze
+     * @return The truth table
+     * @throws IllegalArgumentException if circuit is null
+     */
+    public TruthTable analyzeTruthTable(Circuit circuit) {
+        return analyzeTruthTable(circuit, null);
+    }
+
+    /**
+     * Analyzes the circuit into a columnar truth table, reporting rows to a progress monitor.
+     * 
+     * @param circuit The circuit to analyze
+     * @param monitor The monitor receiving progress and cancellation, or null for none
+     * @return The truth table
+     * @throws IllegalArgumentException if circuit is null
+     * @throws CancellationException if the monitor was cancelled
+     */
+    public TruthTable analyzeTruthTable(Circuit circuit, ProgressMonitor monitor) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+
+        TruthTable cached = cache.get(circuit, TRUTH_TABLE, TruthTable.class);
+        if (cached != null) {
+            logger.debug("Reusing truth table of circuit {} at version {}", circuit.getName(), circuit.getVersion());
+            if (monitor != null) {
+                monitor.start(cached.getRowCount());
+                monitor.advance(cached.getRowCount());
+            }
+            return cached;
+        }
+
+        logger.info("Analyzing circuit: {} ({})", circuit.getName(), parallelAnalysis ? "parallel" : "sequential");
+
+        try {
+            AnalysisCache.Snapshot snapshot = AnalysisCache.snapshot(circuit);
+            TruthTable truthTable =
+                    circuit.analyzeTruthTable(parallelAnalysis ? ForkJoinPool.commonPool() : null, monitor);
+            store(circuit, snapshot, TRUTH_TABLE, truthTable);
+            logger.info("Analysis completed. Generated {} truth table rows", truthTable.getRowCount());
+            return truthTable;
+        } catch (CancellationException e) {
+            logger.info("Analysis of circuit {} cancelled", circuit.getName());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error during circuit analysis", e);
+            throw new RuntimeException("Analysis failed", e);
+        }
+    }
+
+    /**
+     * Runs a simulation on the executor.
+     * The circuit is locked until the task ends.
+     * 
+     * @param circuit The circuit to simulate
+     * @param inputs Map of component names to input values
+     * @return A future completing with the outputs
+     * @throws IllegalStateException if another task is using the circuit
+     */
+    public CompletableFuture<Map<String, Boolean>> runSimulationAsync(Circuit circuit, Map<String, Boolean> inputs) {
+        return submit(circuit, () -> runSimulation(circuit, inputs));
+    }
+
+    /**
+     * Analyzes the circuit into a list of truth table rows on the executor.
+     * Cancelling the returned future cancels the monitor, and the analysis
+     * stops at its next row. The circuit is locked until the task ends,
+     * which may be after the future was cancelled.
+     * 
+     * @param circuit The circuit to analyze
+     * @param monitor The monitor receiving progress and cancellation
+     * @return A future completing with the truth table rows
+     * @throws IllegalArgumentException if monitor is null
+     * @throws IllegalStateException if another task is using the circuit
+     */
+    public CompletableFuture<List<Map<String, Boolean>>> analyzeCircuitAsync(Circuit circuit, ProgressMonitor monitor) {
+        return submit(circuit, monitor, () -> {
+            List<Map<String, Boolean>> rows = new ArrayList<>();
+            long switches = circuit == null ? 0
+                    : circuit.getComponents().stream().filter(c -> c instanceof Switch).count();
+            monitor.start(switches > 0 && switches < Long.SIZE - 1 ? 1L << switches : -1);
+            analyzeCircuit(circuit, row -> {
+                monitor.checkCancelled();
+                rows.add(row.toMap());
+                monitor.advance(1);
+            });
+            return rows;
+        });
+    }
+
+    /**
+     * Analyzes the circuit into a columnar truth table on the executor.
+     * Cancelling the returned future cancels the monitor, and the analysis
+     * stops at its next block of rows. The circuit is locked until the task
+     * ends, which may be after the future was cancelled.
+     * 
+     * @param circuit The circuit to analyze
+     * @param monitor The monitor receiving progress and cancellation
+     * @return A future completing with the truth table
+     * @throws IllegalArgumentException if monitor is null
+     * @throws IllegalStateException if another task is using the circuit
+     */
+    public CompletableFuture<TruthTable> analyzeTruthTableAsync(Circuit circuit, ProgressMonitor monitor) {
+        return submit(circuit, monitor, () -> analyzeTruthTable(circuit, monitor));
+    }
+
+    /**
+     * Streams test vectors through the circuit on the executor, reporting vectors to a monitor.
+     * The circuit is locked until the task ends.
+     * 
+     * @param circuit The circuit to simulate
+     * @param in The test vectors, in {@link TestVectorReader} format
+     * @param out The destination for the output vectors
+     * @param monitor The monitor receiving progress and cancellation
+     * @return A future completing with the number of vectors simulated
+     * @throws IllegalArgumentException if monitor is null
+     * @throws IllegalStateException if another task is using the circuit
+     */
+    public CompletableFuture<Long> runBatchAsync(Circuit circuit, Reader in, Appendable out, ProgressMonitor monitor) {
+        return submit(circuit, monitor, () -> runBatch(circuit, in, out, monitor));
+    }
+
+    /**
+     * Runs a cancellable task on the executor, linking future cancellation to the monitor.
+     */
+    private <T> CompletableFuture<T> submit(Circuit circuit, ProgressMonitor monitor, Supplier<T> task) {
+        if (monitor == null) {
+            throw new IllegalArgumentException("Progress monitor cannot be null");
+        }
+        CompletableFuture<T> future = submit(circuit, task);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                monitor.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs a task on the executor, locking its circuit from submission until
+     * the task ends. The lock is held past cancellation of the future, since
+     * the task only stops once it notices the cancellation.
+     */
+    private <T> CompletableFuture<T> submit(Circuit circuit, Supplier<T> task) {
+        if (circuit != null && !busyCircuits.add(circuit)) {
+            throw new IllegalStateException("Circuit " + circuit.getName() + " is in use by a running task");
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                runningCircuit.set(circuit);
+                try {
+                    if (!future.isDone()) {
+                        future.complete(task.get());
+                    }
+                } catch (Throwable e) {
+                    future.completeExceptionally(new CompletionException(e));
+                } finally {
+                    runningCircuit.remove();
+                    if (circuit != null) {
+                        busyCircuits.remove(circuit);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            if (circuit != null) {
+                busyCircuits.remove(circuit);
+            }
+            throw e;
+        }
+        return future;
+    }
+
     /**
      * Analyzes the circuit and generates both truth table and boolean expressions.
+     * Each expression is a minimal sum of products of the output.
      * 
      * @param circuit The circuit to analyze
      * @return AnalysisResult containing truth table and boolean expressions
@@ -127,32 +716,26 @@ public class CircuitService {
         if (circuit == null) {
             throw new IllegalArgumentException("Circuit cannot be null");
         }
+        checkIdle(circuit);
+
+        AnalysisResult cached = cache.get(circuit, EXPRESSIONS, AnalysisResult.class);
+        if (cached != null) {
+            logger.debug("Reusing analysis of circuit {} at version {}", circuit.getName(), circuit.getVersion());
+            return cached;
+        }
 
         logger.info("Analyzing circuit with expressions: {}", circuit.getName());
         
         try {
-            List<Map<String, Boolean>> truthTable = analyzeCircuit(circuit);
-            
-            // Extract input and output variable names
-            List<String> inputVariables = new ArrayList<>();
-            List<String> outputVariables = new ArrayList<>();
-            
-            if (!truthTable.isEmpty()) {
-                Map<String, Boolean> firstRow = truthTable.get(0);
-                for (String key : firstRow.keySet()) {
-                    if (key.startsWith("Input_")) {
-                        inputVariables.add(key);
-                    } else if (key.startsWith("Output_")) {
-                        outputVariables.add(key);
-                    }
-                }
-            }
+            AnalysisCache.Snapshot snapshot = AnalysisCache.snapshot(circuit);
+            TruthTable truthTable = analyzeTruthTable(circuit);
 
             // Generate boolean expressions
             BooleanExpressionGenerator generator = new BooleanExpressionGenerator();
-            Map<String, String> expressions = generator.generateAllExpressions(truthTable, inputVariables);
+            Map<String, String> expressions = generator.generateAllSimplifiedExpressions(truthTable);
 
-            AnalysisResult result = new AnalysisResult(truthTable, expressions, inputVariables, outputVariables);
+            AnalysisResult result = new AnalysisResult(truthTable, expressions);
+            store(circuit, snapshot, EXPRESSIONS, result);
             logger.info("Analysis with expressions completed");
             return result;
         } catch (Exception e) {
@@ -161,31 +744,151 @@ public class CircuitService {
         }
     }
 
+    /**
+     * Analyzes every output over its structural support and generates its minimal boolean expression.
+     * An output is enumerated only over the switches that can reach it, so
+     * expressions mention only those inputs and wide circuits with narrow
+     * outputs stay cheap.
+     * 
+     * @param circuit The circuit to analyze
+     * @return AnalysisResult holding one table and expression per output
+     * @throws IllegalArgumentException if circuit is null
+     */
+    public AnalysisResult analyzeCircuitByOutput(Circuit circuit) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+
+        AnalysisResult cached = cache.get(circuit, BY_OUTPUT, AnalysisResult.class);
+        if (cached != null) {
+            logger.debug("Reusing per-output analysis of circuit {} at version {}",
+                    circuit.getName(), circuit.getVersion());
+            return cached;
+        }
+
+        logger.info("Analyzing circuit by output: {}", circuit.getName());
+
+        try {
+            AnalysisCache.Snapshot snapshot = AnalysisCache.snapshot(circuit);
+            Map<String, TruthTable> outputTables =
+                    circuit.analyzeOutputCones(parallelAnalysis ? ForkJoinPool.commonPool() : null);
+            BooleanExpressionGenerator generator = new BooleanExpressionGenerator();
+            Map<String, String> expressions = new LinkedHashMap<>();
+            for (Map.Entry<String, TruthTable> entry : outputTables.entrySet()) {
+                expressions.put(entry.getKey(), generator.generateSimplifiedExpression(entry.getValue(), 0));
+            }
+
+            List<String> inputVariables = new ArrayList<>();
+            for (Component component : circuit.getComponents()) {
+                if (component instanceof Switch) {
+                    inputVariables.add("Input_" + component.getName());
+                }
+            }
+            AnalysisResult result = new AnalysisResult(inputVariables, outputTables, expressions);
+            store(circuit, snapshot, BY_OUTPUT, result);
+            logger.info("Analysis by output completed for {} outputs", outputTables.size());
+            return result;
+        } catch (Exception e) {
+            logger.error("Error during circuit analysis by output", e);
+            throw new RuntimeException("Analysis failed", e);
+        }
+    }
+
+    /**
+     * Compiles the circuit into an immutable snapshot, reusing the last one while the circuit is unchanged.
+     * 
+     * @param circuit The circuit to compile
+     * @return The compiled circuit at the current version
+     * @throws IllegalArgumentException if circuit is null or contains components without a compiled form
+     */
+    public CompiledCircuit compileCircuit(Circuit circuit) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit cannot be null");
+        }
+        checkIdle(circuit);
+
+        CompiledCircuit cached = cache.get(circuit, COMPILED, CompiledCircuit.class);
+        if (cached != null) {
+            return cached;
+        }
+        AnalysisCache.Snapshot snapshot = AnalysisCache.snapshot(circuit);
+        CompiledCircuit compiled = circuit.compile();
+        cache.put(snapshot, COMPILED, compiled);
+        logger.debug("Compiled circuit {} at version {}", circuit.getName(), compiled.getVersion());
+        return compiled;
+    }
+
+    /**
+     * Caches an analysis result if it depends on the circuit's structure alone.
+     * Circuits with feedback or foreign components are analyzed from their
+     * current state, so their results are not reused.
+     */
+    private void store(Circuit circuit, AnalysisCache.Snapshot snapshot, String kind, Object result) {
+        if (circuit.getSchedule().isAcyclic()) {
+            cache.put(snapshot, kind, result);
+        }
+    }
+
     /**
      * Result class containing truth table and boolean expressions.
+     * Results analyzed per output carry one table per output instead of a combined table.
      */
     public static class AnalysisResult {
-        private final List<Map<String, Boolean>> truthTable;
-        private final Map<String, String> booleanExpressions;
+        private final TruthTable truthTable;
         private final List<String> inputVariables;
-        private final List<String> outputVariables;
+        private final Map<String, TruthTable> outputTables;
+        private final Map<String, String> booleanExpressions;
 
-        public AnalysisResult(List<Map<String, Boolean>> truthTable,
-                            Map<String, String> booleanExpressions,
-                            List<String> inputVariables,
-                            List<String> outputVariables) {
+        public AnalysisResult(TruthTable truthTable, Map<String, String> booleanExpressions) {
             this.truthTable = truthTable;
+            this.inputVariables = truthTable.getInputNames();
+            this.outputTables = new LinkedHashMap<>();
+            for (int o = 0; o < truthTable.getOutputCount(); o++) {
+                outputTables.put(truthTable.getOutputName(o), truthTable.selectOutput(o));
+            }
+            this.booleanExpressions = booleanExpressions;
+        }
+
+        public AnalysisResult(List<String> inputVariables, Map<String, TruthTable> outputTables,
+                              Map<String, String> booleanExpressions) {
+            this.truthTable = null;
+            this.inputVariables = Collections.unmodifiableList(new ArrayList<>(inputVariables));
+            this.outputTables = outputTables;
             this.booleanExpressions = booleanExpressions;
-            this.inputVariables = inputVariables;
-            this.outputVariables = outputVariables;
         }
 
-        public List<Map<String, Boolean>> getTruthTable() {
+        /**
+         * Gets the combined truth table.
+         *
+         * @return The truth table, or null if the circuit was analyzed per output
+         */
+        public TruthTable getTruthTable() {
             return truthTable;
         }
 
+        /**
+         * Gets the table of every output, each over the inputs it depends on.
+         *
+         * @return Map of output variable names to single-output tables
+         */
+        public Map<String, TruthTable> getOutputTables() {
+            return Collections.unmodifiableMap(outputTables);
+        }
+
+        /**
+         * Gets the inputs an output was analyzed over.
+         *
+         * @param outputVariable The output variable name
+         * @return The input variable names, or an empty list if the output is unknown
+         */
+        public List<String> getSupport(String outputVariable) {
+            TruthTable table = outputTables.get(outputVariable);
+            return table != null ? table.getInputNames() : List.of();
+        }
+
         public Map<String, String> getBooleanExpressions() {
-            return booleanExpressions;
+            return Collections.unmodifiableMap(booleanExpressions);
         }
 
         public List<String> getInputVariables() {
@@ -193,7 +896,7 @@ public class CircuitService {
         }
 
         public List<String> getOutputVariables() {
-            return outputVariables;
+            return truthTable != null ? truthTable.getOutputNames() : List.copyOf(outputTables.keySet());
         }
     }
 
@@ -208,6 +911,7 @@ public class CircuitService {
         if (circuit == null) {
             throw new IllegalArgumentException("Circuit cannot be null");
         }
+        checkIdle(circuit);
         if (component == null) {
             throw new IllegalArgumentException("Component cannot be null");
         }
@@ -227,6 +931,7 @@ public class CircuitService {
         if (circuit == null || component == null) {
             return false;
         }
+        checkIdle(circuit);
 
         boolean removed = circuit.removeComponent(component);
         if (removed) {
@@ -246,6 +951,7 @@ public class CircuitService {
         if (circuit == null) {
             throw new IllegalArgumentException("Circuit cannot be null");
         }
+        checkIdle(circuit);
         if (connector == null) {
             throw new IllegalArgumentException("Connector cannot be null");
         }
@@ -265,6 +971,7 @@ public class CircuitService {
         if (circuit == null || connector == null) {
             return false;
         }
+        checkIdle(circuit);
 
         boolean removed = circuit.removeConnector(connector);
         if (removed) {
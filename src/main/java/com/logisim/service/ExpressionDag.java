@@ -0,0 +1,340 @@
+package com.logisim.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hash-consed directed acyclic graph of boolean expressions.
+ * Every distinct subexpression is stored once and identified by an integer
+ * node; building an operator whose operands already have a node returns that
+ * node instead of a copy. Operands of commutative operators are ordered and
+ * constants, double negations and repeated operands are folded on the way in,
+ * so structurally equal expressions always get the same node.
+ *
+ * <p>A node's operands always have smaller numbers than the node itself, so
+ * walking nodes in ascending order visits operands first.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class ExpressionDag {
+    /**
+     * The node of the constant false.
+     */
+    public static final int FALSE = 0;
+
+    /**
+     * The node of the constant true.
+     */
+    public static final int TRUE = 1;
+
+    /**
+     * The operator of a node.
+     */
+    public enum Operator {
+        CONSTANT, VARIABLE, NOT, AND, OR, XOR
+    }
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private byte[] operators;
+    private int[] lefts;
+    private int[] rights;
+    private String[] names;
+    private int size;
+    private final Map<Long, Integer> unique = new HashMap<>();
+    private final Map<String, Integer> variables = new HashMap<>();
+
+    /**
+     * Constructor creating a graph holding only the two constants.
+     */
+    public ExpressionDag() {
+        this.operators = new byte[16];
+        this.lefts = new int[16];
+        this.rights = new int[16];
+        this.names = new String[16];
+        add(Operator.CONSTANT, 0, 0, "0");
+        add(Operator.CONSTANT, 1, 1, "1");
+    }
+
+    /**
+     * Gets the node of a variable, creating it on first use.
+     *
+     * @param name The variable name
+     * @return The node
+     * @throws IllegalArgumentException if name is null
+     */
+    public int variable(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Variable name cannot be null");
+        }
+        Integer node = variables.get(name);
+        if (node == null) {
+            node = add(Operator.VARIABLE, 0, 0, name);
+            variables.put(name, node);
+        }
+        return node;
+    }
+
+    /**
+     * Gets the node of a negation.
+     *
+     * @param a The operand
+     * @return The node
+     */
+    public int not(int a) {
+        if (a == FALSE) {
+            return TRUE;
+        }
+        if (a == TRUE) {
+            return FALSE;
+        }
+        if (getOperator(a) == Operator.NOT) {
+            return lefts[a];
+        }
+        return intern(Operator.NOT, a, 0);
+    }
+
+    /**
+     * Gets the node of a conjunction.
+     *
+     * @param a The first operand
+     * @param b The second operand
+     * @return The node
+     */
+    public int and(int a, int b) {
+        if (a == FALSE || b == FALSE || complementary(a, b)) {
+            return FALSE;
+        }
+        if (a == TRUE || a == b) {
+            return b;
+        }
+        if (b == TRUE) {
+            return a;
+        }
+        return intern(Operator.AND, Math.min(a, b), Math.max(a, b));
+    }
+
+    /**
+     * Gets the node of a disjunction.
+     *
+     * @param a The first operand
+     * @param b The second operand
+     * @return The node
+     */
+    public int or(int a, int b) {
+        if (a == TRUE || b == TRUE || complementary(a, b)) {
+            return TRUE;
+        }
+        if (a == FALSE || a == b) {
+            return b;
+        }
+        if (b == FALSE) {
+            return a;
+        }
+        return intern(Operator.OR, Math.min(a, b), Math.max(a, b));
+    }
+
+    /**
+     * Gets the node of an exclusive or.
+     *
+     * @param a The first operand
+     * @param b The second operand
+     * @return The node
+     */
+    public int xor(int a, int b) {
+        if (a == b) {
+            return FALSE;
+        }
+        if (complementary(a, b)) {
+            return TRUE;
+        }
+        if (a == FALSE) {
+            return b;
+        }
+        if (b == FALSE) {
+            return a;
+        }
+        if (a == TRUE) {
+            return not(b);
+        }
+        if (b == TRUE) {
+            return not(a);
+        }
+        return intern(Operator.XOR, Math.min(a, b), Math.max(a, b));
+    }
+
+    private boolean complementary(int a, int b) {
+        return getOperator(a) == Operator.NOT && lefts[a] == b || getOperator(b) == Operator.NOT && lefts[b] == a;
+    }
+
+    private int intern(Operator operator, int left, int right) {
+        long key = (long) operator.ordinal() << 60 | (long) left << 30 | right;
+        Integer node = unique.get(key);
+        if (node == null) {
+            node = add(operator, left, right, null);
+            unique.put(key, node);
+        }
+        return node;
+    }
+
+    private int add(Operator operator, int left, int right, String name) {
+        if (size == operators.length) {
+            int capacity = size * 2;
+            operators = Arrays.copyOf(operators, capacity);
+            lefts = Arrays.copyOf(lefts, capacity);
+            rights = Arrays.copyOf(rights, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        operators[size] = (byte) operator.ordinal();
+        lefts[size] = left;
+        rights[size] = right;
+        names[size] = name;
+        return size++;
+    }
+
+    /**
+     * Gets the number of nodes, including the two constants.
+     *
+     * @return The node count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the operator of a node.
+     *
+     * @param node The node
+     * @return The operator
+     */
+    public Operator getOperator(int node) {
+        return OPERATORS[operators[node]];
+    }
+
+    /**
+     * Gets the first operand of a negation or binary node.
+     *
+     * @param node The node
+     * @return The operand node
+     */
+    public int getLeft(int node) {
+        return lefts[node];
+    }
+
+    /**
+     * Gets the second operand of a binary node.
+     *
+     * @param node The node
+     * @return The operand node
+     */
+    public int getRight(int node) {
+        return rights[node];
+    }
+
+    /**
+     * Gets the name of a variable node.
+     *
+     * @param node The node
+     * @return The variable name, or null if the node is not a variable
+     */
+    public String getVariableName(int node) {
+        return getOperator(node) == Operator.VARIABLE ? names[node] : null;
+    }
+
+    /**
+     * Evaluates every node under an assignment of the variables, operands first.
+     *
+     * @param assignment Map of variable names to values; missing variables are false
+     * @return The value of every node, indexed by node
+     */
+    public boolean[] evaluate(Map<String, Boolean> assignment) {
+        boolean[] values = new boolean[size];
+        for (int node = 0; node < size; node++) {
+            values[node] = switch (getOperator(node)) {
+                case CONSTANT -> node == TRUE;
+                case VARIABLE -> Boolean.TRUE.equals(assignment.get(names[node]));
+                case NOT -> !values[lefts[node]];
+                case AND -> values[lefts[node]] && values[rights[node]];
+                case OR -> values[lefts[node]] || values[rights[node]];
+                case XOR -> values[lefts[node]] ^ values[rights[node]];
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Formats a node as an expression, keeping its structure factored.
+     * Negated conjunctions and disjunctions print as {@code !(A & B)}, and an
+     * operand is parenthesized when its operator differs from its parent's.
+     * A compound subexpression used more than once below the node is printed
+     * once as a temporary named after its node, such as {@code t5 = A & B; },
+     * and referred to by that name afterwards, so the text grows with the
+     * number of nodes rather than with the number of paths through them.
+     *
+     * @param node The node
+     * @return The expression, preceded by the definitions of its temporaries
+     */
+    public String format(int node) {
+        // Operands precede their parents, so one descending pass counts the uses within the cone
+        int[] uses = new int[node + 1];
+        uses[node] = 1;
+        for (int n = node; n > TRUE; n--) {
+            if (uses[n] == 0) {
+                continue;
+            }
+            switch (getOperator(n)) {
+                case NOT -> uses[lefts[n]]++;
+                case AND, OR, XOR -> {
+                    uses[lefts[n]]++;
+                    uses[rights[n]]++;
+                }
+                default -> {
+                }
+            }
+        }
+
+        String[] text = new String[node + 1];
+        boolean[] named = new boolean[node + 1];
+        StringBuilder definitions = new StringBuilder();
+        for (int n = 0; n <= node; n++) {
+            if (uses[n] == 0) {
+                continue;
+            }
+            Operator operator = getOperator(n);
+            text[n] = switch (operator) {
+                case CONSTANT, VARIABLE -> names[n];
+                case NOT -> "!" + operand(text, named, lefts[n], operator);
+                case AND -> operand(text, named, lefts[n], operator) + " & " + operand(text, named, rights[n], operator);
+                case OR -> operand(text, named, lefts[n], operator) + " | " + operand(text, named, rights[n], operator);
+                case XOR -> operand(text, named, lefts[n], operator) + " ^ " + operand(text, named, rights[n], operator);
+            };
+            if (n != node && uses[n] > 1 && !isAtomic(n, named)) {
+                definitions.append('t').append(n).append(" = ").append(text[n]).append("; ");
+                text[n] = "t" + n;
+                named[n] = true;
+            }
+        }
+        return definitions.append(text[node]).toString();
+    }
+
+    /**
+     * Checks whether a node prints as a single term: a constant, a variable,
+     * a temporary or the negation of one of those.
+     */
+    private boolean isAtomic(int node, boolean[] named) {
+        return switch (getOperator(node)) {
+            case CONSTANT, VARIABLE -> true;
+            case NOT -> named[lefts[node]] || getOperator(lefts[node]) == Operator.VARIABLE;
+            default -> named[node];
+        };
+    }
+
+    private String operand(String[] text, boolean[] named, int node, Operator parent) {
+        Operator operator = getOperator(node);
+        boolean atomic = named[node] || operator == Operator.CONSTANT || operator == Operator.VARIABLE
+                || operator == Operator.NOT;
+        return atomic || operator == parent ? text[node] : "(" + text[node] + ")";
+    }
+}
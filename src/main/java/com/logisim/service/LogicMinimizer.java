@@ -0,0 +1,804 @@
+package com.logisim.service;
+
+import com.logisim.domain.simulation.TruthTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Two-level logic minimizer working on packed minterm bitsets.
+ * Bit {@code r} of the on-set is row {@code r} of a truth table, so input
+ * {@code j} of {@code n} is bit {@code n-1-j} of the row index, matching
+ * {@link TruthTable}.
+ *
+ * <p>Functions of up to {@link #EXACT_MAX_INPUTS} inputs are minimized
+ * exactly: Quine-McCluskey generates every prime implicant and a
+ * branch-and-bound search picks a cover with the fewest products, then the
+ * fewest literals. Larger functions use an Espresso-style heuristic that
+ * expands each uncovered minterm into a prime and then drops redundant
+ * primes; its covers are prime and irredundant but not always minimum.</p>
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+public final class LogicMinimizer {
+    /**
+     * Largest number of inputs minimized exactly.
+     */
+    public static final int EXACT_MAX_INPUTS = 8;
+
+    /**
+     * Largest number of inputs minimized at all.
+     */
+    public static final int MAX_INPUTS = 22;
+
+    /**
+     * Number of search nodes after which the exact cover search keeps the best cover found.
+     */
+    private static final int SEARCH_LIMIT = 100_000;
+
+    /**
+     * Bit {@code k} of word {@code b} is bit {@code b} of {@code k}.
+     */
+    private static final long[] ROW_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    private LogicMinimizer() {
+    }
+
+    /**
+     * Minimizes one output column of a truth table.
+     *
+     * @param truthTable The truth table
+     * @param outputColumn The output column
+     * @return The products of a minimal sum, in row order of their first minterm
+     * @throws IllegalArgumentException if the table has more than {@link #MAX_INPUTS} inputs
+     */
+    public static List<Cube> minimize(TruthTable truthTable, int outputColumn) {
+        long[] onSet = new long[truthTable.getWordCount()];
+        for (int word = 0; word < onSet.length; word++) {
+            onSet[word] = truthTable.getOutputWord(outputColumn, word);
+        }
+        return minimize(onSet, truthTable.getInputCount());
+    }
+
+    /**
+     * Minimizes a completely specified function given by its on-set.
+     *
+     * @param onSet Bit {@code r} set for every row {@code r} where the function is true
+     * @param inputCount Number of inputs
+     * @return The products of a minimal sum, in row order of their first minterm
+     * @throws IllegalArgumentException if inputCount is out of range or the on-set is too short
+     */
+    public static List<Cube> minimize(long[] onSet, int inputCount) {
+        if (inputCount < 0 || inputCount > MAX_INPUTS) {
+            throw new IllegalArgumentException("Cannot minimize functions of more than " + MAX_INPUTS + " inputs");
+        }
+        int words = wordCount(inputCount);
+        if (onSet.length < words) {
+            throw new IllegalArgumentException("On-set of " + inputCount + " inputs needs " + words + " words");
+        }
+        long[] on = Arrays.copyOf(onSet, words);
+        on[0] &= validRows(inputCount);
+
+        List<Cube> cover = inputCount <= EXACT_MAX_INPUTS ? exact(on, inputCount) : heuristic(on, inputCount);
+        cover.sort(Cube.ORDER);
+        return cover;
+    }
+
+    /**
+     * Exact minimization: all primes by Quine-McCluskey, then a minimum cover.
+     */
+    private static List<Cube> exact(long[] on, int n) {
+        List<Long> minterms = new ArrayList<>();
+        for (int word = 0; word < on.length; word++) {
+            for (long bits = on[word]; bits != 0; bits &= bits - 1) {
+                minterms.add((long) word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        if (minterms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Merge implicants differing in one literal until nothing merges; unmerged ones are prime
+        long full = (1L << n) - 1;
+        Set<Cube> level = new HashSet<>();
+        for (long minterm : minterms) {
+            level.add(new Cube(full, minterm, n));
+        }
+        List<Cube> primes = new ArrayList<>();
+        while (!level.isEmpty()) {
+            Set<Cube> next = new HashSet<>();
+            Set<Cube> merged = new HashSet<>();
+            for (Cube cube : level) {
+                for (long care = cube.care; care != 0; care &= care - 1) {
+                    long bit = Long.lowestOneBit(care);
+                    if (level.contains(new Cube(cube.care, cube.value ^ bit, n))) {
+                        next.add(new Cube(cube.care & ~bit, cube.value & ~bit, n));
+                        merged.add(cube);
+                    }
+                }
+            }
+            for (Cube cube : level) {
+                if (!merged.contains(cube)) {
+                    primes.add(cube);
+                }
+            }
+            level = next;
+        }
+        primes.sort(Cube.ORDER);
+
+        BitSet[] covers = new BitSet[primes.size()];
+        for (int p = 0; p < covers.length; p++) {
+            covers[p] = new BitSet(minterms.size());
+            for (int m = 0; m < minterms.size(); m++) {
+                if (primes.get(p).contains(minterms.get(m))) {
+                    covers[p].set(m);
+                }
+            }
+        }
+        return new CoverSearch(primes, covers, minterms.size()).solve();
+    }
+
+    /**
+     * Branch-and-bound search for a cover with the fewest products, then the fewest literals.
+     * Branching on the minterm with the fewest covering primes picks essential primes first.
+     */
+    private static final class CoverSearch {
+        private final List<Cube> primes;
+        private final BitSet[] covers;
+        private final int mintermCount;
+        private final List<Integer> chosen = new ArrayList<>();
+        private List<Integer> best;
+        private int bestLiterals;
+        private int nodes;
+
+        CoverSearch(List<Cube> primes, BitSet[] covers, int mintermCount) {
+            this.primes = primes;
+            this.covers = covers;
+            this.mintermCount = mintermCount;
+        }
+
+        List<Cube> solve() {
+            BitSet uncovered = new BitSet(mintermCount);
+            uncovered.set(0, mintermCount);
+            best = greedy(uncovered);
+            bestLiterals = literals(best);
+            search(uncovered, 0);
+            List<Cube> cover = new ArrayList<>();
+            for (int p : best) {
+                cover.add(primes.get(p));
+            }
+            return cover;
+        }
+
+        private List<Integer> greedy(BitSet uncovered) {
+            BitSet remaining = (BitSet) uncovered.clone();
+            List<Integer> cover = new ArrayList<>();
+            while (!remaining.isEmpty()) {
+                int pick = -1;
+                int pickGain = 0;
+                for (int p = 0; p < covers.length; p++) {
+                    BitSet gain = (BitSet) covers[p].clone();
+                    gain.and(remaining);
+                    int size = gain.cardinality();
+                    if (size > pickGain || size == pickGain && size > 0
+                            && primes.get(p).getLiteralCount() < primes.get(pick).getLiteralCount()) {
+                        pick = p;
+                        pickGain = size;
+                    }
+                }
+                cover.add(pick);
+                remaining.andNot(covers[pick]);
+            }
+            return cover;
+        }
+
+        private void search(BitSet uncovered, int literals) {
+            if (++nodes > SEARCH_LIMIT) {
+                return;
+            }
+            if (uncovered.isEmpty()) {
+                if (chosen.size() < best.size() || chosen.size() == best.size() && literals < bestLiterals) {
+                    best = new ArrayList<>(chosen);
+                    bestLiterals = literals;
+                }
+                return;
+            }
+            if (chosen.size() + 1 > best.size() || chosen.size() + 1 == best.size() && literals >= bestLiterals) {
+                return;
+            }
+
+            // Branch on the minterm that the fewest primes cover
+            int branch = -1;
+            int fewest = Integer.MAX_VALUE;
+            for (int m = uncovered.nextSetBit(0); m >= 0; m = uncovered.nextSetBit(m + 1)) {
+                int count = 0;
+                for (BitSet cover : covers) {
+                    if (cover.get(m)) {
+                        count++;
+                    }
+                }
+                if (count < fewest) {
+                    fewest = count;
+                    branch = m;
+                }
+            }
+            for (int p = 0; p < covers.length; p++) {
+                if (covers[p].get(branch)) {
+                    BitSet rest = (BitSet) uncovered.clone();
+                    rest.andNot(covers[p]);
+                    chosen.add(p);
+                    search(rest, literals + primes.get(p).getLiteralCount());
+                    chosen.remove(chosen.size() - 1);
+                }
+            }
+        }
+
+        private int literals(List<Integer> cover) {
+            int total = 0;
+            for (int p : cover) {
+                total += primes.get(p).getLiteralCount();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Espresso-style minimization: expand every uncovered minterm into a prime, then make the cover irredundant.
+     */
+    private static List<Cube> heuristic(long[] on, int n) {
+        long full = (1L << n) - 1;
+        long[] covered = new long[on.length];
+        List<Cube> cover = new ArrayList<>();
+        for (int word = 0; word < on.length; word++) {
+            long bits;
+            while ((bits = on[word] & ~covered[word]) != 0) {
+                long minterm = (long) word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                Cube cube = expand(on, n, full, minterm);
+                cover.add(cube);
+                markWords(covered, cube, n);
+            }
+        }
+        return irredundant(cover, n);
+    }
+
+    /**
+     * Raises the literals of a minterm one at a time while the cube stays inside the on-set.
+     * A literal that cannot be raised never can be later, so the result is prime.
+     */
+    private static Cube expand(long[] on, int n, long care, long value) {
+        for (int bit = 0; bit < n; bit++) {
+            long raised = care & ~(1L << bit);
+            if (isImplicant(on, n, raised, value & raised)) {
+                care = raised;
+                value &= raised;
+            }
+        }
+        return new Cube(care, value, n);
+    }
+
+    /**
+     * Drops products whose minterms are all covered by the products kept.
+     * The smallest products are tried first. Per-row coverage counts are kept
+     * exactly, one int per row, so a product is dropped only while every one
+     * of its rows is still covered by another product.
+     */
+    private static List<Cube> irredundant(List<Cube> cover, int n) {
+        int[] counts = new int[1 << n];
+        for (Cube cube : cover) {
+            long free = ~cube.care & ((1L << n) - 1);
+            long sub = 0;
+            do {
+                counts[(int) (cube.value | sub)]++;
+                sub = (sub - free) & free;
+            } while (sub != 0);
+        }
+
+        List<Cube> candidates = new ArrayList<>(cover);
+        candidates.sort(Comparator.comparingInt(Cube::getLiteralCount).reversed());
+        Set<Cube> dropped = new HashSet<>();
+        for (Cube cube : candidates) {
+            long free = ~cube.care & ((1L << n) - 1);
+            boolean redundant = true;
+            long sub = 0;
+            do {
+                if (counts[(int) (cube.value | sub)] < 2) {
+                    redundant = false;
+                    break;
+                }
+                sub = (sub - free) & free;
+            } while (sub != 0);
+            if (redundant) {
+                dropped.add(cube);
+                sub = 0;
+                do {
+                    counts[(int) (cube.value | sub)]--;
+                    sub = (sub - free) & free;
+                } while (sub != 0);
+            }
+        }
+        List<Cube> kept = new ArrayList<>();
+        for (Cube cube : cover) {
+            if (!dropped.contains(cube)) {
+                kept.add(cube);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Minimizes every output column of a truth table together, sharing products between outputs.
+     * The table is read in a single pass, one word of every output at a time.
+     *
+     * @param truthTable The truth table
+     * @return The shared cover
+     * @throws IllegalArgumentException if the table has more than {@link #MAX_INPUTS} inputs
+     */
+    public static SharedCover minimizeAll(TruthTable truthTable) {
+        int outputCount = truthTable.getOutputCount();
+        long[][] onSets = new long[outputCount][truthTable.getWordCount()];
+        for (int word = 0; word < truthTable.getWordCount(); word++) {
+            for (int o = 0; o < outputCount; o++) {
+                onSets[o][word] = truthTable.getOutputWord(o, word);
+            }
+        }
+        return minimizeAll(onSets, truthTable.getInputCount());
+    }
+
+    /**
+     * Minimizes several functions of the same inputs together, sharing products between them.
+     * Candidate products are the minimal covers of every function and of the
+     * intersection of every pair of functions. Each function then greedily
+     * picks the candidates inside its on-set, favouring those that other
+     * functions can use too, and drops the ones it does not need. The result
+     * is never worse than minimizing the functions independently: it has no
+     * more distinct products, and no more literals in them.
+     *
+     * @param onSets The on-set of every function
+     * @param inputCount Number of inputs
+     * @return The shared cover
+     * @throws IllegalArgumentException if inputCount is out of range or an on-set is too short
+     */
+    public static SharedCover minimizeAll(long[][] onSets, int inputCount) {
+        if (inputCount < 0 || inputCount > MAX_INPUTS) {
+            throw new IllegalArgumentException("Cannot minimize functions of more than " + MAX_INPUTS + " inputs");
+        }
+        int words = wordCount(inputCount);
+        long[][] on = new long[onSets.length][];
+        List<List<Cube>> independent = new ArrayList<>();
+        Set<Cube> candidates = new LinkedHashSet<>();
+        for (int o = 0; o < onSets.length; o++) {
+            if (onSets[o].length < words) {
+                throw new IllegalArgumentException("On-set of " + inputCount + " inputs needs " + words + " words");
+            }
+            on[o] = Arrays.copyOf(onSets[o], words);
+            on[o][0] &= validRows(inputCount);
+            List<Cube> cover = minimize(on[o], inputCount);
+            independent.add(cover);
+            candidates.addAll(cover);
+        }
+        for (int i = 0; i < on.length; i++) {
+            for (int j = i + 1; j < on.length; j++) {
+                long[] both = new long[words];
+                boolean overlap = false;
+                for (int word = 0; word < words; word++) {
+                    both[word] = on[i][word] & on[j][word];
+                    overlap |= both[word] != 0;
+                }
+                if (overlap) {
+                    candidates.addAll(minimize(both, inputCount));
+                }
+            }
+        }
+
+        // Count the functions each candidate could serve
+        List<Cube> pool = new ArrayList<>(candidates);
+        boolean[][] fits = new boolean[on.length][pool.size()];
+        int[] sharers = new int[pool.size()];
+        for (int o = 0; o < on.length; o++) {
+            for (int c = 0; c < pool.size(); c++) {
+                Cube cube = pool.get(c);
+                fits[o][c] = isImplicant(on[o], inputCount, cube.care, cube.value);
+                if (fits[o][c]) {
+                    sharers[c]++;
+                }
+            }
+        }
+
+        List<List<Cube>> shared = new ArrayList<>();
+        for (int o = 0; o < on.length; o++) {
+            shared.add(selectShared(on[o], inputCount, pool, fits[o], sharers));
+        }
+        SharedCover sharedCover = new SharedCover(inputCount, shared);
+        SharedCover independentCover = new SharedCover(inputCount, independent);
+        boolean better = sharedCover.getProducts().size() < independentCover.getProducts().size()
+                || sharedCover.getProducts().size() == independentCover.getProducts().size()
+                && sharedCover.getLiteralCount() <= independentCover.getLiteralCount();
+        return better ? sharedCover : independentCover;
+    }
+
+    /**
+     * Covers one function with candidates weighted by the rows they cover times the functions they fit,
+     * then drops products the others make redundant, least shared first.
+     */
+    private static List<Cube> selectShared(long[] on, int n, List<Cube> pool, boolean[] fits, int[] sharers) {
+        long[] uncovered = on.clone();
+        List<Integer> chosen = new ArrayList<>();
+        while (true) {
+            int pick = -1;
+            long pickScore = 0;
+            for (int c = 0; c < pool.size(); c++) {
+                if (!fits[c]) {
+                    continue;
+                }
+                long score = countRows(uncovered, n, pool.get(c)) * sharers[c];
+                if (score > pickScore || score == pickScore && score > 0
+                        && pool.get(c).getLiteralCount() < pool.get(pick).getLiteralCount()) {
+                    pick = c;
+                    pickScore = score;
+                }
+            }
+            if (pick < 0) {
+                break;
+            }
+            chosen.add(pick);
+            clearRows(uncovered, n, pool.get(pick));
+        }
+
+        chosen.sort(Comparator.comparingInt((Integer c) -> sharers[c]).thenComparing(c -> -pool.get(c).getLiteralCount()));
+        List<Cube> kept = new ArrayList<>();
+        for (int c : chosen) {
+            kept.add(pool.get(c));
+        }
+        for (int c : chosen) {
+            Cube cube = pool.get(c);
+            kept.remove(cube);
+            if (!coveredBy(cube, kept, n)) {
+                kept.add(cube);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Counts the rows of a cube set in a bitset.
+     */
+    private static long countRows(long[] words, int n, Cube cube) {
+        long pattern = wordPattern(cube.care, cube.value) & validRows(n);
+        long free = ~cube.care & highBits(n);
+        long high = cube.value & ~(Long.SIZE - 1L);
+        long count = 0;
+        long sub = 0;
+        do {
+            count += Long.bitCount(words[(int) ((high | sub) >>> 6)] & pattern);
+            sub = (sub - free) & free;
+        } while (sub != 0);
+        return count;
+    }
+
+    /**
+     * Clears the rows of a cube in a bitset.
+     */
+    private static void clearRows(long[] words, int n, Cube cube) {
+        long pattern = wordPattern(cube.care, cube.value) & validRows(n);
+        long free = ~cube.care & highBits(n);
+        long high = cube.value & ~(Long.SIZE - 1L);
+        long sub = 0;
+        do {
+            words[(int) ((high | sub) >>> 6)] &= ~pattern;
+            sub = (sub - free) & free;
+        } while (sub != 0);
+    }
+
+    /**
+     * Checks whether the union of some cubes contains every row of a cube.
+     */
+    private static boolean coveredBy(Cube cube, List<Cube> others, int n) {
+        long pattern = wordPattern(cube.care, cube.value) & validRows(n);
+        long free = ~cube.care & highBits(n);
+        long high = cube.value & ~(Long.SIZE - 1L);
+        long sub = 0;
+        do {
+            long base = high | sub;
+            long union = 0;
+            for (Cube other : others) {
+                if ((base & other.care & ~(Long.SIZE - 1L)) == (other.value & ~(Long.SIZE - 1L))) {
+                    union |= wordPattern(other.care, other.value);
+                }
+            }
+            if ((pattern & ~union) != 0) {
+                return false;
+            }
+            sub = (sub - free) & free;
+        } while (sub != 0);
+        return true;
+    }
+
+    /**
+     * Checks whether every row of a cube lies in the on-set, 64 rows per word.
+     *
+     * @param on The on-set
+     * @param n Number of inputs
+     * @param care The bits of the row index fixed by the cube
+     * @param value The values of the fixed bits
+     * @return true if the cube is an implicant
+     */
+    static boolean isImplicant(long[] on, int n, long care, long value) {
+        long pattern = wordPattern(care, value) & validRows(n);
+        long free = ~care & highBits(n);
+        long high = value & ~(Long.SIZE - 1L);
+        long sub = 0;
+        do {
+            if ((on[(int) ((high | sub) >>> 6)] & pattern) != pattern) {
+                return false;
+            }
+            sub = (sub - free) & free;
+        } while (sub != 0);
+        return true;
+    }
+
+    /**
+     * Sets the rows of a cube in a bitset.
+     *
+     * @param words The bitset
+     * @param cube The cube
+     * @param n Number of inputs
+     */
+    static void markWords(long[] words, Cube cube, int n) {
+        long pattern = wordPattern(cube.care, cube.value) & validRows(n);
+        long free = ~cube.care & highBits(n);
+        long high = cube.value & ~(Long.SIZE - 1L);
+        long sub = 0;
+        do {
+            words[(int) ((high | sub) >>> 6)] |= pattern;
+            sub = (sub - free) & free;
+        } while (sub != 0);
+    }
+
+    /**
+     * Builds the rows of one word that match the low six bits of a cube.
+     */
+    private static long wordPattern(long care, long value) {
+        long pattern = -1L;
+        for (int bit = 0; bit < ROW_PATTERNS.length; bit++) {
+            if ((care >>> bit & 1L) != 0) {
+                pattern &= (value >>> bit & 1L) != 0 ? ROW_PATTERNS[bit] : ~ROW_PATTERNS[bit];
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Gets the row index bits that select a word.
+     */
+    private static long highBits(int n) {
+        return ((1L << n) - 1) & ~(Long.SIZE - 1L);
+    }
+
+    /**
+     * Gets the rows of the first word that exist in a table of {@code n} inputs.
+     */
+    private static long validRows(int n) {
+        return n >= 6 ? -1L : (1L << (1 << n)) - 1;
+    }
+
+    /**
+     * Gets the number of words of an on-set.
+     *
+     * @param n Number of inputs
+     * @return The word count
+     */
+    static int wordCount(int n) {
+        return (int) (((1L << n) + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * A multi-output cover: distinct products and, for every function, the products it sums.
+     */
+    public static final class SharedCover {
+        private final int inputCount;
+        private final List<Cube> products;
+        private final int[][] outputProducts;
+
+        SharedCover(int inputCount, List<List<Cube>> covers) {
+            Set<Cube> distinct = new HashSet<>();
+            for (List<Cube> cover : covers) {
+                distinct.addAll(cover);
+            }
+            List<Cube> sorted = new ArrayList<>(distinct);
+            sorted.sort(Cube.ORDER);
+            Map<Cube, Integer> index = new HashMap<>();
+            for (int p = 0; p < sorted.size(); p++) {
+                index.put(sorted.get(p), p);
+            }
+            this.inputCount = inputCount;
+            this.products = List.copyOf(sorted);
+            this.outputProducts = new int[covers.size()][];
+            for (int o = 0; o < covers.size(); o++) {
+                outputProducts[o] = covers.get(o).stream().mapToInt(index::get).sorted().toArray();
+            }
+        }
+
+        /**
+         * Gets the number of inputs.
+         *
+         * @return The input count
+         */
+        public int getInputCount() {
+            return inputCount;
+        }
+
+        /**
+         * Gets the number of functions.
+         *
+         * @return The output count
+         */
+        public int getOutputCount() {
+            return outputProducts.length;
+        }
+
+        /**
+         * Gets the distinct products of all functions, in row order of their first minterm.
+         *
+         * @return The products
+         */
+        public List<Cube> getProducts() {
+            return products;
+        }
+
+        /**
+         * Gets the indices in {@link #getProducts()} of the products one function sums.
+         *
+         * @param output The function
+         * @return The product indices, ascending
+         */
+        public int[] getProductIndices(int output) {
+            return outputProducts[output].clone();
+        }
+
+        /**
+         * Gets the products one function sums.
+         *
+         * @param output The function
+         * @return The products, in row order of their first minterm
+         */
+        public List<Cube> getOutputProducts(int output) {
+            List<Cube> cover = new ArrayList<>();
+            for (int p : outputProducts[output]) {
+                cover.add(products.get(p));
+            }
+            return cover;
+        }
+
+        /**
+         * Gets the number of products used by more than one function.
+         *
+         * @return The shared product count
+         */
+        public int getSharedProductCount() {
+            int[] uses = new int[products.size()];
+            for (int[] cover : outputProducts) {
+                for (int p : cover) {
+                    uses[p]++;
+                }
+            }
+            return (int) Arrays.stream(uses).filter(count -> count > 1).count();
+        }
+
+        /**
+         * Gets the total number of literals of the distinct products.
+         *
+         * @return The literal count
+         */
+        public int getLiteralCount() {
+            return products.stream().mapToInt(Cube::getLiteralCount).sum();
+        }
+    }
+
+    /**
+     * A product term: the rows whose index matches {@code value} on the bits set in {@code care}.
+     * Bit {@code n-1-j} of the row index is input {@code j}.
+     */
+    public static final class Cube {
+        static final Comparator<Cube> ORDER =
+                Comparator.comparingLong(Cube::getValue).thenComparing(Cube::getCare, Comparator.reverseOrder());
+
+        private final long care;
+        private final long value;
+        private final int inputCount;
+
+        /**
+         * Constructor with fixed bits, their values and the number of inputs.
+         *
+         * @param care The bits of the row index fixed by the product
+         * @param value The values of the fixed bits
+         * @param inputCount Number of inputs
+         */
+        public Cube(long care, long value, int inputCount) {
+            this.care = care;
+            this.value = value & care;
+            this.inputCount = inputCount;
+        }
+
+        /**
+         * Gets the bits of the row index fixed by the product.
+         *
+         * @return The care mask
+         */
+        public long getCare() {
+            return care;
+        }
+
+        /**
+         * Gets the values of the fixed bits.
+         *
+         * @return The value bits
+         */
+        public long getValue() {
+            return value;
+        }
+
+        /**
+         * Gets the number of literals.
+         *
+         * @return The literal count
+         */
+        public int getLiteralCount() {
+            return Long.bitCount(care);
+        }
+
+        /**
+         * Checks whether the product is true for a row.
+         *
+         * @param row The row index
+         * @return true if the row lies in the cube
+         */
+        public boolean contains(long row) {
+            return (row & care) == value;
+        }
+
+        /**
+         * Formats the product with literals in input order.
+         *
+         * @param inputNames The input names, most significant first
+         * @return The product, or "1" if it has no literals
+         */
+        public String toExpression(List<String> inputNames) {
+            StringBuilder product = new StringBuilder();
+            for (int j = 0; j < inputCount; j++) {
+                long bit = 1L << (inputCount - 1 - j);
+                if ((care & bit) != 0) {
+                    if (product.length() > 0) {
+                        product.append(" & ");
+                    }
+                    if ((value & bit) == 0) {
+                        product.append('!');
+                    }
+                    product.append(inputNames.get(j));
+                }
+            }
+            return product.length() > 0 ? product.toString() : "1";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Cube other && other.care == care && other.value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(care * 31 + value);
+        }
+    }
+}
@@ -18,12 +18,15 @@ import java.io.IOException;
 public class LogiSimApplication extends Application {
     private static final Logger logger = LogManager.getLogger(LogiSimApplication.class);
 
+    private MainController controller;
+
     @Override
     public void start(Stage stage) throws IOException {
         logger.info("Starting LogiSim application");
         
         FXMLLoader fxmlLoader = new FXMLLoader(LogiSimApplication.class.getResource("/com/logisim/ui/main-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 1200, 800);
+        controller = fxmlLoader.getController();
         
         stage.setTitle("LogiSim - Logic Circuit Simulator");
         stage.setScene(scene);
@@ -34,6 +37,14 @@ public class LogiSimApplication extends Application {
         logger.info("Application started successfully");
     }
 
+    @Override
+    public void stop() {
+        logger.info("Stopping LogiSim application");
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -1,9 +1,16 @@
 package com.logisim.ui;
 
 import com.logisim.domain.*;
+import com.logisim.domain.simulation.ProgressMonitor;
+import com.logisim.domain.simulation.SignalChanges;
+import com.logisim.domain.simulation.TruthTable;
 import com.logisim.repository.ProjectRepository;
+import com.logisim.repository.TruthTableCsvWriter;
 import com.logisim.service.*;
 import com.logisim.service.ComponentFactory.ComponentType;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -18,15 +25,21 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import java.util.Optional;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URL;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main controller for the LogiSim application.
@@ -54,6 +67,7 @@ public class MainController implements Initializable, SimulationObserver {
     private ComponentType selectedComponentType;
     private Map<Component, ComponentView> componentViews;
     private Map<Connector, ConnectorView> connectorViews;
+    private final Map<String, Label> resultLabels = new HashMap<>();
     private Component sourceComponentForConnection;
     private boolean isConnectingMode;
 
@@ -298,8 +312,15 @@ public class MainController implements Initializable, SimulationObserver {
             return;
         }
 
+        int inputIndex = currentCircuit.findFreeInputIndex(sink);
+        if (inputIndex < 0) {
+            showError("Error", "All inputs of the target component are already connected");
+            return;
+        }
+
         try {
             Connector connector = new Connector(source, sink);
+            connector.setSinkInputIndex(inputIndex);
             connector.setColor("#0000FF"); // Blue default
             circuitService.addConnector(currentCircuit, connector);
             updateStatus("Connector created");
@@ -458,8 +479,12 @@ public class MainController implements Initializable, SimulationObserver {
             CheckBox stateCheckBox = new CheckBox("State (On/Off)");
             stateCheckBox.setSelected(sw.getState());
             stateCheckBox.setOnAction(e -> {
-                sw.setState(stateCheckBox.isSelected());
-                drawCircuit();
+                try {
+                    applySignalChanges(circuitService.setSwitchState(currentCircuit, sw, stateCheckBox.isSelected()));
+                } catch (Exception ex) {
+                    logger.error("Error updating switch", ex);
+                    showError("Error", "Simulation failed: " + ex.getMessage());
+                }
             });
             propertiesPanel.getChildren().add(stateCheckBox);
         }
@@ -652,6 +677,39 @@ public class MainController implements Initializable, SimulationObserver {
         }
     }
 
+    /**
+     * Handles exporting the truth table of the current circuit as CSV.
+     * Rows are written to the file as they are generated.
+     */
+    @FXML
+    private void handleExportTruthTable() {
+        if (currentCircuit == null) {
+            showError("Error", "No circuit to export");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Truth Table");
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv")
+        );
+
+        Stage stage = (Stage) circuitCanvas.getScene().getWindow();
+        File file = fileChooser.showSaveDialog(stage);
+
+        if (file != null) {
+            try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+                TruthTableCsvWriter csvWriter = new TruthTableCsvWriter(writer);
+                circuitService.analyzeCircuit(currentCircuit, csvWriter);
+                updateStatus("Truth table exported to: " + file.getAbsolutePath());
+                showInfo("Success", "Exported " + csvWriter.getRowCount() + " truth table rows");
+            } catch (Exception e) {
+                logger.error("Error exporting truth table", e);
+                showError("Error", "Failed to export truth table: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Handles creating a new circuit.
      */
@@ -747,14 +805,52 @@ public class MainController implements Initializable, SimulationObserver {
             return;
         }
 
-        try {
-            List<Map<String, Boolean>> truthTable = circuitService.analyzeCircuit(currentCircuit);
-            showTruthTable(truthTable);
-            updateStatus("Analysis completed");
-        } catch (Exception e) {
-            logger.error("Error analyzing circuit", e);
-            showError("Error", "Analysis failed: " + e.getMessage());
-        }
+        // Analyze off the FX thread so the window stays responsive and the analysis can be aborted
+        ProgressMonitor monitor = new ProgressMonitor();
+        CompletableFuture<TruthTable> future = circuitService.analyzeTruthTableAsync(currentCircuit, monitor);
+        Alert progressDialog = showProgressDialog("Analyzing " + currentCircuit.getName(), monitor, future);
+        future.whenComplete((truthTable, error) -> Platform.runLater(() -> {
+            progressDialog.close();
+            if (future.isCancelled() || error instanceof CancellationException
+                    || (error != null && error.getCause() instanceof CancellationException)) {
+                updateStatus("Analysis cancelled");
+            } else if (error != null) {
+                logger.error("Error analyzing circuit", error);
+                showError("Error", "Analysis failed: " + error.getMessage());
+            } else {
+                showTruthTable(truthTable);
+                updateStatus("Analysis completed");
+            }
+        }));
+    }
+
+    /**
+     * Shows a non-blocking dialog with the progress of a task and a button to cancel it.
+     * The dialog is modal, so the circuit cannot be edited while the task runs.
+     */
+    private Alert showProgressDialog(String title, ProgressMonitor monitor, CompletableFuture<?> future) {
+        ProgressBar progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(300);
+        Label progressLabel = new Label("Starting...");
+
+        Alert alert = new Alert(Alert.AlertType.NONE, null, ButtonType.CANCEL);
+        alert.setTitle(title);
+        alert.getDialogPane().setContent(new VBox(10, progressBar, progressLabel));
+
+        Timeline refresh = new Timeline(new KeyFrame(Duration.millis(200), e -> {
+            double fraction = monitor.getFraction();
+            progressBar.setProgress(fraction >= 0 ? fraction : ProgressBar.INDETERMINATE_PROGRESS);
+            progressLabel.setText(String.format("%,d rows done (%,.0f rows/s)", monitor.getCompleted(), monitor.getRate()));
+        }));
+        refresh.setCycleCount(Animation.INDEFINITE);
+        refresh.play();
+
+        alert.setOnHidden(e -> {
+            refresh.stop();
+            future.cancel(true);
+        });
+        alert.show();
+        return alert;
     }
 
     /**
@@ -771,6 +867,10 @@ public class MainController implements Initializable, SimulationObserver {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
+            if (circuitService.isRunning(currentCircuit)) {
+                showError("Error", "Circuit is in use by a running analysis");
+                return;
+            }
             currentCircuit.getComponents().clear();
             currentCircuit.getConnectors().clear();
             selectedComponent = null;
@@ -780,6 +880,15 @@ public class MainController implements Initializable, SimulationObserver {
         }
     }
 
+    /**
+     * Releases the resources held by the controller when the application stops.
+     */
+    public void shutdown() {
+        if (circuitService != null) {
+            circuitService.close();
+        }
+    }
+
     /**
      * Handles exit.
      */
@@ -805,6 +914,7 @@ public class MainController implements Initializable, SimulationObserver {
      */
     private void updateSimulationResults(Map<String, Boolean> outputs) {
         simulationResults.getChildren().clear();
+        resultLabels.clear();
         
         if (outputs.isEmpty()) {
             simulationResults.getChildren().add(new Label("No outputs"));
@@ -814,13 +924,38 @@ public class MainController implements Initializable, SimulationObserver {
         for (Map.Entry<String, Boolean> entry : outputs.entrySet()) {
             Label label = new Label(entry.getKey() + ": " + (entry.getValue() ? "1" : "0"));
             simulationResults.getChildren().add(label);
+            resultLabels.put(entry.getKey(), label);
+        }
+    }
+
+    /**
+     * Applies an incremental update: only the changed result labels and components are redrawn.
+     */
+    private void applySignalChanges(SignalChanges changes) {
+        if (changes.isFullSimulation() || resultLabels.isEmpty()) {
+            updateSimulationResults(currentCircuit.getNetlist().collectOutputs());
+            drawCircuit();
+        } else {
+            for (Map.Entry<String, Boolean> entry : changes.getChangedOutputs().entrySet()) {
+                Label label = resultLabels.get(entry.getKey());
+                if (label != null) {
+                    label.setText(entry.getKey() + ": " + (entry.getValue() ? "1" : "0"));
+                }
+            }
+            GraphicsContext gc = circuitCanvas.getGraphicsContext2D();
+            for (Component component : changes.getChangedComponents()) {
+                drawComponent(gc, component);
+            }
+        }
+        if (!changes.isStable()) {
+            updateStatus("Circuit did not settle");
         }
     }
 
     /**
      * Shows truth table in a dialog.
      */
-    private void showTruthTable(List<Map<String, Boolean>> truthTable) {
+    private void showTruthTable(TruthTable truthTable) {
         if (truthTable.isEmpty()) {
             showInfo("Info", "No truth table generated");
             return;
@@ -828,22 +963,7 @@ public class MainController implements Initializable, SimulationObserver {
 
         StringBuilder sb = new StringBuilder();
         sb.append("Truth Table:\n\n");
-
-        // Header
-        Set<String> keys = truthTable.get(0).keySet();
-        for (String key : keys) {
-            sb.append(String.format("%-15s", key));
-        }
-        sb.append("\n");
-        sb.append("-".repeat(keys.size() * 15)).append("\n");
-
-        // Rows
-        for (Map<String, Boolean> row : truthTable) {
-            for (String key : keys) {
-                sb.append(String.format("%-15s", row.get(key) ? "1" : "0"));
-            }
-            sb.append("\n");
-        }
+        appendTruthTable(sb, truthTable, 15, false);
 
         TextArea textArea = new TextArea(sb.toString());
         textArea.setEditable(false);
@@ -866,7 +986,7 @@ public class MainController implements Initializable, SimulationObserver {
      * Shows truth table with boolean expressions in a dialog.
      */
     private void showTruthTableWithExpressions(CircuitService.AnalysisResult result) {
-        List<Map<String, Boolean>> truthTable = result.getTruthTable();
+        TruthTable truthTable = result.getTruthTable();
         Map<String, String> expressions = result.getBooleanExpressions();
 
         if (truthTable.isEmpty()) {
@@ -892,23 +1012,7 @@ public class MainController implements Initializable, SimulationObserver {
         // Truth Table
         sb.append("Truth Table:\n");
         sb.append("-".repeat(80)).append("\n");
-
-        // Header
-        Set<String> keys = truthTable.get(0).keySet();
-        for (String key : keys) {
-            String displayKey = key.replace("Input_", "I_").replace("Output_", "O_");
-            sb.append(String.format("%-12s", displayKey));
-        }
-        sb.append("\n");
-        sb.append("-".repeat(keys.size() * 12)).append("\n");
-
-        // Rows
-        for (Map<String, Boolean> row : truthTable) {
-            for (String key : keys) {
-                sb.append(String.format("%-12s", row.get(key) ? "1" : "0"));
-            }
-            sb.append("\n");
-        }
+        appendTruthTable(sb, truthTable, 12, true);
 
         TextArea textArea = new TextArea(sb.toString());
         textArea.setEditable(false);
@@ -928,6 +1032,34 @@ public class MainController implements Initializable, SimulationObserver {
         alert.showAndWait();
     }
 
+    /**
+     * Formats a truth table as fixed-width text, inputs first.
+     */
+    private void appendTruthTable(StringBuilder sb, TruthTable truthTable, int width, boolean abbreviate) {
+        String cell = "%-" + width + "s";
+        List<String> keys = new ArrayList<>(truthTable.getInputNames());
+        keys.addAll(truthTable.getOutputNames());
+
+        // Header
+        for (String key : keys) {
+            String displayKey = abbreviate ? key.replace("Input_", "I_").replace("Output_", "O_") : key;
+            sb.append(String.format(cell, displayKey));
+        }
+        sb.append("\n");
+        sb.append("-".repeat(keys.size() * width)).append("\n");
+
+        // Rows
+        for (long row = 0; row < truthTable.getRowCount(); row++) {
+            for (int j = 0; j < truthTable.getInputCount(); j++) {
+                sb.append(String.format(cell, truthTable.getInput(row, j) ? "1" : "0"));
+            }
+            for (int o = 0; o < truthTable.getOutputCount(); o++) {
+                sb.append(String.format(cell, truthTable.getOutput(row, o) ? "1" : "0"));
+            }
+            sb.append("\n");
+        }
+    }
+
     /**
      * Updates the status label.
      */
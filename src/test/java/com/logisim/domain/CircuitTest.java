@@ -1,15 +1,22 @@
 package com.logisim.domain;
 
+import com.google.gson.Gson;
+import com.logisim.domain.components.SubCircuit;
 import com.logisim.domain.components.Switch;
 import com.logisim.domain.gates.And;
 import com.logisim.domain.gates.Not;
+import com.logisim.domain.gates.Xor;
+import com.logisim.domain.simulation.EnumerationOrder;
+import com.logisim.domain.simulation.SimulationMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Unit tests for Circuit.
@@ -77,7 +84,176 @@ class CircuitTest {
         Map<String, Boolean> outputs = circuit.simulate(inputs);
         assertNotNull(outputs);
     }
-}
 
+    @Test
+    void testSimulate_ExplicitInputIndices_BindsEachPort() {
+        Switch sw = new Switch("SW1");
+        Xor xorGate = new Xor("XOR1");
+        circuit.addComponent(sw);
+        circuit.addComponent(xorGate);
+
+        Connector conn1 = new Connector(sw, xorGate);
+        conn1.setSinkInputIndex(0);
+        Connector conn2 = new Connector(sw, xorGate);
+        conn2.setSinkInputIndex(1);
+        circuit.addConnector(conn1);
+        circuit.addConnector(conn2);
 
+        sw.setState(true);
+        Map<String, Boolean> outputs = circuit.simulate(new HashMap<>());
+        assertFalse(outputs.get("XOR1"));
+    }
 
+    @Test
+    void testMigratePortBindings_UnindexedConnectors_AssignsPortsInOrder() {
+        Switch sw1 = new Switch("SW1");
+        Switch sw2 = new Switch("SW2");
+        And andGate = new And("AND1");
+        circuit.addComponent(sw1);
+        circuit.addComponent(sw2);
+        circuit.addComponent(andGate);
+
+        Connector conn1 = new Connector(sw1, andGate);
+        Connector conn2 = new Connector(sw2, andGate);
+        circuit.addConnector(conn1);
+        circuit.addConnector(conn2);
+
+        assertEquals(1, circuit.migratePortBindings());
+        assertEquals(0, conn1.getSinkInputIndex());
+        assertEquals(1, conn2.getSinkInputIndex());
+        assertEquals(-1, circuit.findFreeInputIndex(andGate));
+
+        sw1.setState(true);
+        sw2.setState(true);
+        assertTrue(circuit.simulate(new HashMap<>()).get("AND1"));
+    }
+
+    @Test
+    void testConnectorRebound_BumpsVersionAndRebuildsNetlist() {
+        Switch sw1 = new Switch("SW1");
+        Switch sw2 = new Switch("SW2");
+        Not not = new Not("N");
+        circuit.addComponent(sw1);
+        circuit.addComponent(sw2);
+        circuit.addComponent(not);
+        Connector connector = new Connector(sw1, not);
+        circuit.addConnector(connector);
+        sw2.setState(true);
+        assertTrue(circuit.simulate(new HashMap<>()).get("N"));
+
+        long version = circuit.getVersion();
+        connector.setSource(sw2);
+        assertTrue(circuit.getVersion() > version);
+        assertFalse(circuit.simulate(new HashMap<>()).get("N"));
+
+        version = circuit.getVersion();
+        circuit.removeConnector(connector);
+        connector.setSource(sw1);
+        assertEquals(version + 1, circuit.getVersion());
+    }
+
+    @Test
+    void testAnalyze_GrayCodeOrder_MatchesBinaryOrder() {
+        Circuit gray = createSubCircuitAdder();
+        Circuit binary = createSubCircuitAdder();
+        binary.setEnumerationOrder(EnumerationOrder.BINARY);
+
+        List<Map<String, Boolean>> expected = binary.analyze();
+        assertEquals(16, expected.size());
+        assertEquals(expected, gray.analyze());
+        assertEquals(binary.analyzeTruthTable(), gray.analyzeTruthTable());
+        assertEquals(binary.getNetlist().collectOutputs(), gray.getNetlist().collectOutputs());
+    }
+
+    @Test
+    void testAnalyzeVisitor_GrayCodeCircuit_StreamsRowsInOrder() {
+        Circuit adder = createSubCircuitAdder();
+        List<Long> indices = new ArrayList<>();
+        adder.analyze(row -> indices.add(row.getIndex()));
+
+        assertEquals(16, indices.size());
+        for (int i = 0; i < indices.size(); i++) {
+            assertEquals(i, indices.get(i));
+        }
+    }
+
+    @Test
+    void testAnalyze_TooManyRowsForList_Throws() {
+        Circuit wide = new Circuit("Wide");
+        And and = new And("AND");
+        wide.addComponent(and);
+        for (int i = 0; i < 31; i++) {
+            Switch sw = new Switch("S" + i);
+            wide.addComponent(sw);
+            if (i < 2) {
+                Connector connector = new Connector(sw, and);
+                connector.setSinkInputIndex(i);
+                wide.addConnector(connector);
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> wide.analyze(ForkJoinPool.commonPool()));
+        assertThrows(IllegalArgumentException.class, wide::analyze);
+    }
+
+    @Test
+    void testSerialize_RuntimePolicy_IsNotSaved() {
+        circuit.setEnumerationOrder(EnumerationOrder.BINARY);
+        circuit.setSimulationMode(SimulationMode.COMPILED);
+        Gson gson = new Gson();
+
+        String json = gson.toJson(circuit);
+        assertFalse(json.contains("enumerationOrder"));
+        assertFalse(json.contains("simulationMode"));
+        Circuit loaded = gson.fromJson(json, Circuit.class);
+        assertEquals(EnumerationOrder.GRAY_CODE, loaded.getEnumerationOrder());
+        assertEquals(SimulationMode.EVENT_DRIVEN, loaded.getSimulationMode());
+    }
+
+    /**
+     * Builds a circuit that cannot be evaluated bit-parallel: a half-adder
+     * sub-circuit followed by primitive gates.
+     */
+    private static Circuit createSubCircuitAdder() {
+        Circuit inner = new Circuit("HalfAdder");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Xor sum = new Xor("SUM");
+        And carry = new And("CARRY");
+        for (Component component : new Component[] {a, b, sum, carry}) {
+            inner.addComponent(component);
+        }
+        connect(inner, a, 0, sum, 0);
+        connect(inner, b, 0, sum, 1);
+        connect(inner, a, 0, carry, 0);
+        connect(inner, b, 0, carry, 1);
+
+        Circuit outer = new Circuit("Adder");
+        Switch x = new Switch("X");
+        Switch y = new Switch("Y");
+        Switch z = new Switch("Z");
+        Switch enable = new Switch("EN");
+        SubCircuit halfAdder = new SubCircuit("HA", inner);
+        Xor outSum = new Xor("S");
+        And outCarry = new And("C");
+        Not invert = new Not("NC");
+        for (Component component : new Component[] {x, y, z, enable, halfAdder, outSum, outCarry, invert}) {
+            outer.addComponent(component);
+        }
+        connect(outer, x, 0, halfAdder, 0);
+        connect(outer, y, 0, halfAdder, 1);
+        connect(outer, halfAdder, 0, outSum, 0);
+        connect(outer, z, 0, outSum, 1);
+        connect(outer, halfAdder, 1, outCarry, 0);
+        connect(outer, enable, 0, outCarry, 1);
+        connect(outer, outCarry, 0, invert, 0);
+        return outer;
+    }
+
+    private static void connect(Circuit circuit, Component source, int output, Component sink, int port) {
+        Connector connector = new Connector(source, sink);
+        connector.setSourceOutputIndex(output);
+        connector.setSinkInputIndex(port);
+        circuit.addConnector(connector);
+    }
+}
@@ -0,0 +1,235 @@
+package com.logisim.domain.components;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Connector;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Xor;
+import com.logisim.domain.simulation.CompiledCircuit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SubCircuit.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class SubCircuitTest {
+
+    @Test
+    void testExecute_HalfAdder_DrivesSwitchesAndReadsLeds() {
+        SubCircuit adder = new SubCircuit("HA", createHalfAdder());
+        assertEquals(2, adder.getInputCount());
+        assertEquals(2, adder.getOutputCount());
+
+        for (int a = 0; a <= 1; a++) {
+            for (int b = 0; b <= 1; b++) {
+                adder.setInputBit(0, a == 1);
+                adder.setInputBit(1, b == 1);
+                adder.execute();
+                assertEquals((a ^ b) == 1, adder.getOutputBit(0), "sum " + a + b);
+                assertEquals((a & b) == 1, adder.getOutputBit(1), "carry " + a + b);
+            }
+        }
+    }
+
+    @Test
+    void testExecute_RepeatedInputs_ServedFromMemo() {
+        SubCircuit adder = new SubCircuit("HA", createHalfAdder());
+        for (int run = 0; run < 3; run++) {
+            for (int vector = 0; vector < 4; vector++) {
+                adder.setInputBit(0, (vector & 2) != 0);
+                adder.setInputBit(1, (vector & 1) != 0);
+                adder.execute();
+                assertEquals(vector == 3, adder.getOutputBit(1));
+            }
+        }
+
+        assertEquals(4, adder.getMemoMisses());
+        assertEquals(8, adder.getMemoHits());
+    }
+
+    @Test
+    void testExecute_InternalCircuitModified_InvalidatesMemo() {
+        Circuit internal = createHalfAdder();
+        SubCircuit adder = new SubCircuit("HA", internal);
+        adder.setInputBit(0, true);
+        adder.setInputBit(1, true);
+        adder.execute();
+        assertTrue(adder.getOutputBit(1));
+
+        // Replace the carry AND by a NOR and rewire it
+        And carry = (And) internal.findComponentByName("AND");
+        internal.removeComponent(carry);
+        Nor nor = new Nor("NOR");
+        internal.addComponent(nor);
+        Connector first = new Connector(internal.findComponentByName("A"), nor);
+        Connector second = new Connector(internal.findComponentByName("B"), nor);
+        second.setSinkInputIndex(1);
+        internal.addConnector(first);
+        internal.addConnector(second);
+        internal.addConnector(new Connector(nor, internal.findComponentByName("CARRY")));
+
+        adder.execute();
+        assertFalse(adder.getOutputBit(1));
+        assertEquals(2, adder.getMemoMisses());
+    }
+
+    @Test
+    void testSetMemoCapacity_Bounded_EvictsLeastRecentlyUsed() {
+        SubCircuit adder = new SubCircuit("HA", createHalfAdder());
+        adder.setMemoCapacity(2);
+        int[] vectors = {0, 1, 0, 2, 1};
+        for (int vector : vectors) {
+            adder.setInputBit(0, (vector & 2) != 0);
+            adder.setInputBit(1, (vector & 1) != 0);
+            adder.execute();
+        }
+
+        // 1 was evicted when 2 arrived, 0 was still recent
+        assertEquals(1, adder.getMemoHits());
+        assertEquals(4, adder.getMemoMisses());
+        assertThrows(IllegalArgumentException.class, () -> adder.setMemoCapacity(-1));
+    }
+
+    @Test
+    void testExecute_LookupTable_MatchesInterpreted() {
+        SubCircuit interpreted = new SubCircuit("HA", createHalfAdder());
+        interpreted.setMemoCapacity(0);
+        SubCircuit compiled = new SubCircuit("HA", createHalfAdder());
+        compiled.setLookupTableEnabled(true);
+        assertTrue(compiled.usesLookupTable());
+
+        for (int vector = 3; vector >= 0; vector--) {
+            for (SubCircuit adder : new SubCircuit[] {interpreted, compiled}) {
+                adder.setInputBit(0, (vector & 1) != 0);
+                adder.setInputBit(1, (vector & 2) != 0);
+                adder.execute();
+            }
+            assertEquals(interpreted.getOutputBit(0), compiled.getOutputBit(0), "sum " + vector);
+            assertEquals(interpreted.getOutputBit(1), compiled.getOutputBit(1), "carry " + vector);
+        }
+        assertEquals(0, compiled.getMemoMisses());
+    }
+
+    @Test
+    void testSetInternalCircuit_LookupTable_Rebuilt() {
+        SubCircuit cell = new SubCircuit("CELL", createHalfAdder());
+        cell.setLookupTableEnabled(true);
+        cell.setInputBit(0, true);
+        cell.setInputBit(1, true);
+        cell.execute();
+        assertFalse(cell.getOutputBit(0));
+
+        Circuit nor = new Circuit("Nor");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Nor gate = new Nor("NOR");
+        LED out = new LED("OUT");
+        nor.addComponent(a);
+        nor.addComponent(b);
+        nor.addComponent(gate);
+        nor.addComponent(out);
+        connect(nor, a, gate, 0);
+        connect(nor, b, gate, 1);
+        connect(nor, gate, out, 0);
+        cell.setInternalCircuit(nor);
+
+        cell.setInputBit(0, false);
+        cell.setInputBit(1, false);
+        cell.execute();
+        assertTrue(cell.getOutputBit(0));
+    }
+
+    @Test
+    void testSharedDefinition_TwoInstances_DoNotInterfere() {
+        CompiledCircuit definition = CompiledCircuit.compile(createHalfAdder());
+        SubCircuit first = SubCircuit.instantiate("HA1", definition);
+        SubCircuit second = SubCircuit.instantiate("HA2", definition);
+        assertEquals(2, first.getInputCount());
+        assertEquals(2, second.getOutputCount());
+
+        for (int vector = 0; vector < 4; vector++) {
+            first.setInputBit(0, (vector & 1) != 0);
+            first.setInputBit(1, (vector & 2) != 0);
+            second.setInputBit(0, (vector & 1) == 0);
+            second.setInputBit(1, (vector & 2) == 0);
+            first.execute();
+            second.execute();
+            assertEquals(vector == 1 || vector == 2, first.getOutputBit(0), "sum " + vector);
+            assertEquals(vector == 3, first.getOutputBit(1), "carry " + vector);
+            assertEquals(vector == 1 || vector == 2, second.getOutputBit(0), "inverted sum " + vector);
+            assertEquals(vector == 0, second.getOutputBit(1), "inverted carry " + vector);
+        }
+    }
+
+    @Test
+    void testSharedDefinition_Latch_KeepsStatePerInstance() {
+        Circuit latch = new Circuit("SRLatch");
+        Switch set = new Switch("S");
+        Switch reset = new Switch("R");
+        Nor q = new Nor("NQ");
+        Nor qBar = new Nor("NQB");
+        LED out = new LED("Q");
+        for (com.logisim.domain.Component component : new com.logisim.domain.Component[] {set, reset, q, qBar, out}) {
+            latch.addComponent(component);
+        }
+        connect(latch, reset, q, 0);
+        connect(latch, qBar, q, 1);
+        connect(latch, set, qBar, 0);
+        connect(latch, q, qBar, 1);
+        connect(latch, q, out, 0);
+
+        CompiledCircuit definition = CompiledCircuit.compile(latch);
+        assertFalse(definition.isCombinational());
+        SubCircuit first = SubCircuit.instantiate("L1", definition);
+        SubCircuit second = SubCircuit.instantiate("L2", definition);
+
+        first.setInputBit(0, true);
+        first.execute();
+        second.setInputBit(1, true);
+        second.execute();
+        first.setInputBit(0, false);
+        second.setInputBit(1, false);
+        first.execute();
+        second.execute();
+
+        assertTrue(first.getOutputBit(0));
+        assertFalse(second.getOutputBit(0));
+        assertFalse(set.getState());
+    }
+
+    /**
+     * Builds a half adder with switches A, B and LEDs SUM, CARRY.
+     */
+    private static Circuit createHalfAdder() {
+        Circuit circuit = new Circuit("HalfAdder");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Xor xor = new Xor("XOR");
+        And and = new And("AND");
+        LED sum = new LED("SUM");
+        LED carry = new LED("CARRY");
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(xor);
+        circuit.addComponent(and);
+        circuit.addComponent(sum);
+        circuit.addComponent(carry);
+        connect(circuit, a, xor, 0);
+        connect(circuit, b, xor, 1);
+        connect(circuit, a, and, 0);
+        connect(circuit, b, and, 1);
+        connect(circuit, xor, sum, 0);
+        connect(circuit, and, carry, 0);
+        return circuit;
+    }
+
+    private static void connect(Circuit circuit, com.logisim.domain.Component source,
+                                com.logisim.domain.Component sink, int port) {
+        Connector connector = new Connector(source, sink);
+        connector.setSinkInputIndex(port);
+        circuit.addConnector(connector);
+    }
+}
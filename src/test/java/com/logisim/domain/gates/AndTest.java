@@ -49,7 +49,29 @@ class AndTest {
         andGate.execute();
         assertFalse(andGate.getOutput(0));
     }
-}
 
+    @Test
+    void testAndGate_WideGate_SpansSeveralWords() {
+        And wideGate = new And("WideAND", 70);
+        for (int i = 0; i < 70; i++) {
+            wideGate.setInput(i, true);
+        }
+        wideGate.execute();
+        assertTrue(wideGate.getOutput(0));
 
+        wideGate.setInput(69, false);
+        wideGate.execute();
+        assertFalse(wideGate.getOutput(0));
+        assertFalse(wideGate.getInputs().get(69));
+        assertEquals(70, wideGate.getInputs().size());
+    }
 
+    @Test
+    void testGetInputs_ListView_WritesThroughToPorts() {
+        andGate.getInputs().set(0, true);
+        andGate.getInputs().set(1, true);
+        assertTrue(andGate.getInputBit(0));
+        andGate.execute();
+        assertTrue(andGate.getOutputs().get(0));
+    }
+}
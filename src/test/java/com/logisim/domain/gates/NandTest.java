@@ -0,0 +1,44 @@
+package com.logisim.domain.gates;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Nand gate.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class NandTest {
+    private Nand nandGate;
+
+    @BeforeEach
+    void setUp() {
+        nandGate = new Nand("TestNAND");
+    }
+
+    @Test
+    void testNandGate_TrueAndTrue_ReturnsFalse() {
+        nandGate.setInput(0, true);
+        nandGate.setInput(1, true);
+        nandGate.execute();
+        assertFalse(nandGate.getOutput(0));
+    }
+
+    @Test
+    void testNandGate_TrueAndFalse_ReturnsTrue() {
+        nandGate.setInput(0, true);
+        nandGate.setInput(1, false);
+        nandGate.execute();
+        assertTrue(nandGate.getOutput(0));
+    }
+
+    @Test
+    void testNandGate_FalseAndFalse_ReturnsTrue() {
+        nandGate.setInput(0, false);
+        nandGate.setInput(1, false);
+        nandGate.execute();
+        assertTrue(nandGate.getOutput(0));
+    }
+}
@@ -0,0 +1,91 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.Nor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for BatchSimulator.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class BatchSimulatorTest {
+
+    @Test
+    void testSimulate_RandomAcyclicCircuits_MatchesScalarSimulation() {
+        for (long seed = 0; seed < 30; seed++) {
+            Circuit expected = EventDrivenSimulatorTest.randomCircuit(seed, false);
+            BatchSimulator simulator = new BatchSimulator(EventDrivenSimulatorTest.randomCircuit(seed, false));
+            assertTrue(simulator.isBitParallel());
+
+            int vectors = 150;
+            Random random = new Random(seed);
+            long[] inputs = new long[vectors * simulator.getInputWords()];
+            for (int i = 0; i < inputs.length; i++) {
+                inputs[i] = random.nextLong() & ((1L << simulator.getInputCount()) - 1);
+            }
+            long[] outputs = new long[vectors * simulator.getOutputWords()];
+            simulator.simulate(inputs, vectors, outputs);
+
+            List<String> outputNames = simulator.getOutputNames();
+            for (int v = 0; v < vectors; v++) {
+                applyVector(expected, inputs[v]);
+                Map<String, Boolean> values = expected.simulate(new HashMap<>());
+                for (int o = 0; o < outputNames.size(); o++) {
+                    assertEquals(values.get(outputNames.get(o).substring("Output_".length())),
+                            (outputs[v] >>> o & 1L) != 0, "seed " + seed + ", vector " + v);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSimulate_Latch_AppliesVectorsInSequence() {
+        Circuit circuit = new Circuit("Latch");
+        Switch set = new Switch("S");
+        Switch reset = new Switch("R");
+        Nor q = new Nor("Q");
+        Nor qBar = new Nor("QBar");
+        for (Component component : new Component[] {set, reset, q, qBar}) {
+            circuit.addComponent(component);
+        }
+        circuit.addConnector(new Connector(reset, q));
+        circuit.addConnector(new Connector(set, qBar));
+        circuit.addConnector(new Connector(qBar, q));
+        circuit.addConnector(new Connector(q, qBar));
+
+        BatchSimulator simulator = new BatchSimulator(circuit);
+        assertFalse(simulator.isBitParallel());
+        assertEquals(List.of("Output_S", "Output_R", "Output_Q", "Output_QBar"), simulator.getOutputNames());
+
+        // Set, hold, reset, hold: bit 0 is S, bit 1 is R
+        long[] inputs = {0b01, 0b00, 0b10, 0b00};
+        long[] outputs = new long[inputs.length];
+        simulator.simulate(inputs, inputs.length, outputs);
+
+        long qBit = 1L << 2;
+        assertEquals(qBit, outputs[0] & qBit);
+        assertEquals(qBit, outputs[1] & qBit);
+        assertEquals(0L, outputs[2] & qBit);
+        assertEquals(0L, outputs[3] & qBit);
+    }
+
+    private static void applyVector(Circuit circuit, long vector) {
+        int input = 0;
+        for (Component component : circuit.getComponents()) {
+            if (component instanceof Switch sw) {
+                sw.setState((vector >>> input++ & 1L) != 0);
+            }
+        }
+    }
+}
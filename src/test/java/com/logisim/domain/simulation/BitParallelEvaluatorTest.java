@@ -0,0 +1,109 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.Nand;
+import com.logisim.domain.gates.Xor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for BitParallelEvaluator.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class BitParallelEvaluatorTest {
+
+    @Test
+    void testAnalyze_RandomAcyclicCircuits_MatchesRowByRowSimulation() {
+        for (long seed = 0; seed < 50; seed++) {
+            Circuit expected = EventDrivenSimulatorTest.randomCircuit(seed, false);
+            Circuit actual = EventDrivenSimulatorTest.randomCircuit(seed, false);
+            assertTrue(BitParallelEvaluator.supports(actual.getNetlist()));
+            assertEquals(rowByRow(expected), actual.analyze(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void testAnalyze_EightInputParity_SpansSeveralWords() {
+        Circuit circuit = new Circuit("Parity");
+        Component previous = null;
+        for (int i = 0; i < 8; i++) {
+            Switch sw = new Switch("S" + i);
+            circuit.addComponent(sw);
+            if (previous == null) {
+                previous = sw;
+                continue;
+            }
+            Xor xor = new Xor("X" + i);
+            circuit.addComponent(xor);
+            Connector left = new Connector(previous, xor);
+            Connector right = new Connector(sw, xor);
+            right.setSinkInputIndex(1);
+            circuit.addConnector(left);
+            circuit.addConnector(right);
+            previous = xor;
+        }
+
+        List<Map<String, Boolean>> truthTable = circuit.analyze();
+        assertEquals(256, truthTable.size());
+        for (int row = 0; row < 256; row++) {
+            assertEquals(Integer.bitCount(row) % 2 == 1, truthTable.get(row).get("Output_X7"), "row " + row);
+            assertEquals((row & 1) != 0, truthTable.get(row).get("Input_S7"));
+        }
+        assertTrue(((Switch) circuit.findComponentByName("S0")).getState());
+    }
+
+    @Test
+    void testAnalyze_Nand_MatchesGateSemantics() {
+        Circuit circuit = new Circuit("Nand");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Nand nand = new Nand("N");
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(nand);
+        circuit.addConnector(new Connector(a, nand));
+        circuit.addConnector(new Connector(b, nand));
+
+        List<Map<String, Boolean>> truthTable = circuit.analyze();
+        assertEquals(rowByRow(circuit), truthTable);
+        assertFalse(truthTable.get(3).get("Output_N"));
+        assertTrue(truthTable.get(2).get("Output_N"));
+    }
+
+    /**
+     * Reference enumeration: one full simulation per row.
+     */
+    private static List<Map<String, Boolean>> rowByRow(Circuit circuit) {
+        List<Switch> switches = new ArrayList<>();
+        for (Component component : circuit.getComponents()) {
+            if (component instanceof Switch sw) {
+                switches.add(sw);
+            }
+        }
+        List<Map<String, Boolean>> truthTable = new ArrayList<>();
+        int n = switches.size();
+        for (int i = 0; i < (1 << n); i++) {
+            Map<String, Boolean> row = new HashMap<>();
+            for (int j = 0; j < n; j++) {
+                boolean value = (i & (1 << (n - 1 - j))) != 0;
+                switches.get(j).setState(value);
+                row.put("Input_" + switches.get(j).getName(), value);
+            }
+            for (Map.Entry<String, Boolean> output : circuit.simulate(new HashMap<>()).entrySet()) {
+                row.put("Output_" + output.getKey(), output.getValue());
+            }
+            truthTable.add(row);
+        }
+        return truthTable;
+    }
+}
@@ -0,0 +1,139 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.components.LED;
+import com.logisim.domain.components.SubCircuit;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.Not;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for CompiledCircuit snapshots.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class CompiledCircuitTest {
+
+    @Test
+    void testSimulate_ConcurrentThreads_MatchSequentialResults() throws Exception {
+        Circuit circuit = EventDrivenSimulatorTest.randomCircuit(7, false);
+        CompiledCircuit snapshot = circuit.compile();
+        List<String> inputs = snapshot.getInputNames();
+        int vectors = 1 << inputs.size();
+
+        List<Map<String, Boolean>> expected = new ArrayList<>();
+        for (int v = 0; v < vectors; v++) {
+            expected.add(snapshot.simulate(snapshot.newState(), vector(inputs, v)));
+            assertEquals(expectedOutputs(circuit, snapshot, v), expected.get(v), "vector " + v);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    CircuitState state = snapshot.newState();
+                    for (int round = 0; round < 200; round++) {
+                        for (int v = 0; v < vectors; v++) {
+                            if (!expected.get(v).equals(snapshot.simulate(state, vector(inputs, v)))) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testCompile_StructureChanged_RecompilesAtNewVersion() {
+        Circuit circuit = new Circuit("Inverter");
+        Switch sw = new Switch("SW");
+        Not not = new Not("N");
+        circuit.addComponent(sw);
+        circuit.addComponent(not);
+
+        CompiledCircuit first = circuit.compile();
+        assertSame(first, circuit.compile());
+        assertTrue(first.isCurrent());
+
+        circuit.addConnector(new com.logisim.domain.Connector(sw, not));
+        assertFalse(first.isCurrent());
+        CompiledCircuit second = circuit.compile();
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals(Map.of("N", false), second.simulate(second.newState(), Map.of("SW", true)));
+        assertEquals(Map.of("SW", true, "N", true), first.simulate(first.newState(), Map.of("SW", true)));
+    }
+
+    @Test
+    void testCompile_NestedCircuitChanged_Recompiles() {
+        Circuit inner = new Circuit("Inner");
+        Switch x = new Switch("X");
+        Not not = new Not("N");
+        inner.addComponent(x);
+        inner.addComponent(not);
+        inner.addConnector(new com.logisim.domain.Connector(x, not));
+        Circuit outer = new Circuit("Outer");
+        Switch sw = new Switch("SW");
+        SubCircuit sub = new SubCircuit("Sub", inner);
+        outer.addComponent(sw);
+        outer.addComponent(sub);
+        outer.addConnector(new com.logisim.domain.Connector(sw, sub));
+
+        CompiledCircuit first = outer.compile();
+        assertEquals(Map.of("Sub", true), first.simulate(first.newState(), Map.of("SW", false)));
+
+        long outerVersion = outer.getVersion();
+        Not again = new Not("N2");
+        inner.addComponent(again);
+        inner.addConnector(new com.logisim.domain.Connector(not, again));
+        assertEquals(outerVersion, outer.getVersion());
+        assertFalse(first.isCurrent());
+
+        CompiledCircuit second = outer.compile();
+        assertNotSame(first, second);
+        assertEquals(Map.of("Sub", false), second.simulate(second.newState(), Map.of("SW", false)));
+    }
+
+    private static Map<String, Boolean> vector(List<String> inputs, int v) {
+        Map<String, Boolean> values = new HashMap<>();
+        for (int j = 0; j < inputs.size(); j++) {
+            values.put(inputs.get(j), (v >>> j & 1) != 0);
+        }
+        return values;
+    }
+
+    private static Map<String, Boolean> expectedOutputs(Circuit circuit, CompiledCircuit snapshot, int v) {
+        int j = 0;
+        for (Component component : circuit.getComponents()) {
+            if (component instanceof Switch sw) {
+                sw.setState((v >>> j++ & 1) != 0);
+            }
+        }
+        Map<String, Boolean> simulated = circuit.simulate(new HashMap<>());
+        Map<String, Boolean> outputs = new HashMap<>();
+        for (String name : snapshot.getOutputNames()) {
+            Component component = circuit.findComponentByName(name);
+            outputs.put(name, component instanceof LED ? component.getInputBit(0) : simulated.get(name));
+        }
+        return outputs;
+    }
+}
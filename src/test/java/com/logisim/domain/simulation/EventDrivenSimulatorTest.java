@@ -0,0 +1,215 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.LED;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Not;
+import com.logisim.domain.gates.Or;
+import com.logisim.domain.gates.Xor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Unit tests for EventDrivenSimulator.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class EventDrivenSimulatorTest {
+
+    @Test
+    void testSimulate_RandomAcyclicCircuits_MatchesFullRescan() {
+        for (long seed = 0; seed < 50; seed++) {
+            assertMatchesFullRescan(seed, false);
+        }
+    }
+
+    @Test
+    void testSimulate_RandomCyclicCircuits_MatchesFullRescan() {
+        for (long seed = 0; seed < 50; seed++) {
+            assertMatchesFullRescan(seed, true);
+        }
+    }
+
+    @Test
+    void testSimulate_HalfAdder_ProducesSumAndCarry() {
+        Circuit circuit = new Circuit("HalfAdder");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Xor sum = new Xor("SUM");
+        And carry = new And("CARRY");
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(sum);
+        circuit.addComponent(carry);
+        circuit.addConnector(new Connector(a, sum));
+        circuit.addConnector(new Connector(b, sum));
+        circuit.addConnector(new Connector(a, carry));
+        circuit.addConnector(new Connector(b, carry));
+
+        a.setState(true);
+        b.setState(true);
+        Map<String, Boolean> outputs = circuit.simulate(new HashMap<>());
+        assertFalse(outputs.get("SUM"));
+        assertTrue(outputs.get("CARRY"));
+
+        b.setState(false);
+        outputs = circuit.simulate(new HashMap<>());
+        assertTrue(outputs.get("SUM"));
+        assertFalse(outputs.get("CARRY"));
+    }
+
+    private void assertMatchesFullRescan(long seed, boolean cyclic) {
+        Circuit expected = randomCircuit(seed, cyclic);
+        Circuit actual = randomCircuit(seed, cyclic);
+        Random inputs = new Random(seed * 31);
+
+        for (int run = 0; run < 4; run++) {
+            boolean[] states = new boolean[expected.getComponents().size()];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = inputs.nextBoolean();
+            }
+            applySwitchStates(expected, states);
+            applySwitchStates(actual, states);
+
+            assertEquals(fullRescan(expected, new HashMap<>()),
+                    new EventDrivenSimulator(actual.getNetlist()).simulate(new HashMap<>()),
+                    "seed " + seed + ", run " + run);
+            for (int i = 0; i < states.length; i++) {
+                assertEquals(expected.getComponents().get(i).getInputs(),
+                        actual.getComponents().get(i).getInputs());
+            }
+        }
+    }
+
+    private void applySwitchStates(Circuit circuit, boolean[] states) {
+        for (int i = 0; i < states.length; i++) {
+            if (circuit.getComponents().get(i) instanceof Switch sw) {
+                sw.setState(states[i]);
+            }
+        }
+    }
+
+    static Circuit randomCircuit(long seed, boolean cyclic) {
+        Random random = new Random(seed);
+        Circuit circuit = new Circuit("Random" + seed);
+        int switchCount = 2 + random.nextInt(4);
+        int gateCount = 5 + random.nextInt(25);
+        List<Component> components = new ArrayList<>();
+        for (int i = 0; i < switchCount; i++) {
+            components.add(new Switch("SW" + i));
+        }
+        for (int i = 0; i < gateCount; i++) {
+            components.add(switch (random.nextInt(5)) {
+                case 0 -> new And("G" + i);
+                case 1 -> new Or("G" + i);
+                case 2 -> new Xor("G" + i);
+                case 3 -> new Nor("G" + i);
+                default -> new Not("G" + i);
+            });
+        }
+        components.add(new LED("OUT"));
+        // Shuffle so that list order differs from topological order
+        java.util.Collections.shuffle(components, random);
+        components.forEach(circuit::addComponent);
+
+        for (Component sink : components) {
+            int fanIn = sink.getInputs().size();
+            List<Component> used = new ArrayList<>();
+            for (int port = 0; port < fanIn; port++) {
+                Component source = pickSource(components, sink, used, cyclic, random);
+                if (source != null) {
+                    used.add(source);
+                    circuit.addConnector(new Connector(source, sink));
+                }
+            }
+        }
+        return circuit;
+    }
+
+    private static Component pickSource(List<Component> components, Component sink, List<Component> used,
+                                        boolean cyclic, Random random) {
+        int sinkRank = rank(sink);
+        for (int attempt = 0; attempt < 20; attempt++) {
+            Component candidate = components.get(random.nextInt(components.size()));
+            if (candidate == sink || candidate.getOutputs().isEmpty() || used.contains(candidate)) {
+                continue;
+            }
+            if (cyclic || rank(candidate) < sinkRank) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static int rank(Component component) {
+        if (component instanceof Switch) {
+            return -1;
+        }
+        if (component instanceof LED) {
+            return Integer.MAX_VALUE;
+        }
+        return Integer.parseInt(component.getName().substring(1));
+    }
+
+    /**
+     * Reference implementation: the original full-rescan propagation loop.
+     */
+    static Map<String, Boolean> fullRescan(Circuit circuit, Map<String, Boolean> inputs) {
+        Map<String, Boolean> outputs = new HashMap<>();
+        Map<Component, Boolean> componentOutputs = new HashMap<>();
+        for (Map.Entry<String, Boolean> entry : inputs.entrySet()) {
+            Component component = circuit.findComponentByName(entry.getKey());
+            if (component != null && component.getInputs().size() > 0) {
+                component.setInput(0, entry.getValue());
+            }
+        }
+        for (Component component : circuit.getComponents()) {
+            component.execute();
+            componentOutputs.put(component, component.getOutput(0));
+        }
+        boolean changed = true;
+        int iterations = 0;
+        while (changed && iterations < 100) {
+            changed = false;
+            for (Connector connector : circuit.getConnectors()) {
+                Component sink = connector.getSink();
+                Boolean sourceOutput = componentOutputs.get(connector.getSource());
+                if (sourceOutput != null) {
+                    List<Component> sources = new ArrayList<>();
+                    for (Connector c : circuit.getConnectors()) {
+                        if (c.getSink() == sink) {
+                            sources.add(c.getSource());
+                        }
+                    }
+                    int inputIndex = sources.indexOf(connector.getSource());
+                    Boolean oldInput = sink.getInputs().get(inputIndex);
+                    sink.setInput(inputIndex, sourceOutput);
+                    if (!Objects.equals(oldInput, sourceOutput)) {
+                        changed = true;
+                        sink.execute();
+                        componentOutputs.put(sink, sink.getOutput(0));
+                    }
+                }
+            }
+            iterations++;
+        }
+        for (Component component : circuit.getComponents()) {
+            if (component.getOutputs().size() > 0) {
+                outputs.put(component.getName(), componentOutputs.getOrDefault(component, false));
+            }
+        }
+        return outputs;
+    }
+}
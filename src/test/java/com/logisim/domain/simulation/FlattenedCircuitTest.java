@@ -0,0 +1,136 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.LED;
+import com.logisim.domain.components.SubCircuit;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Or;
+import com.logisim.domain.gates.Xor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for FlattenedCircuit.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class FlattenedCircuitTest {
+
+    @Test
+    void testSimulate_FullAdder_MatchesHierarchy() {
+        Circuit hierarchy = createFullAdder();
+        FlattenedCircuit flattened = createFullAdder().flatten();
+
+        for (int vector = 0; vector < 8; vector++) {
+            setInputs(hierarchy, vector);
+            setInputs(flattened.getCircuit(), vector);
+            Map<String, Boolean> expected = hierarchy.simulate(new HashMap<>());
+            Map<String, Boolean> actual = flattened.simulate(new HashMap<>());
+
+            for (Map.Entry<String, Boolean> output : expected.entrySet()) {
+                assertEquals(output.getValue(), actual.get(output.getKey()), "vector " + vector + ", " + output.getKey());
+            }
+            int ones = Integer.bitCount(vector);
+            assertEquals(ones % 2 == 1, ((LED) flattened.getCircuit().findComponentByName("S")).isOn());
+            assertEquals(ones >= 2, ((LED) flattened.getCircuit().findComponentByName("COUT")).isOn());
+        }
+    }
+
+    @Test
+    void testFlatten_FullAdder_PrimitivesNamedByInstancePath() {
+        Circuit hierarchy = createFullAdder();
+        FlattenedCircuit flattened = hierarchy.flatten();
+        Circuit flat = flattened.getCircuit();
+
+        for (Component component : flat.getComponents()) {
+            assertFalse(component instanceof SubCircuit);
+        }
+        Component xor = flat.findComponentByName("HA2/XOR");
+        assertNotNull(xor);
+        assertEquals("HA2", flattened.getInstancePath(xor));
+        SubCircuit second = (SubCircuit) hierarchy.findComponentByName("HA2");
+        assertSame(second.getInternalCircuit().findComponentByName("XOR"), flattened.getOriginal(xor));
+        assertNull(flat.findComponentByName("HA1/A"));
+        assertTrue(flat.getSchedule().isAcyclic());
+    }
+
+    @Test
+    void testAnalyzeTruthTable_Flattened_IsBitParallel() {
+        TruthTable table = createFullAdder().flatten().getCircuit().analyzeTruthTable();
+
+        assertEquals(8, table.getRowCount());
+        for (long row = 0; row < 8; row++) {
+            int ones = Long.bitCount(row);
+            assertEquals(ones % 2 == 1, table.getValue(row, "Output_HA2/XOR"));
+            assertEquals(ones >= 2, table.getValue(row, "Output_OR"));
+        }
+    }
+
+    private static void setInputs(Circuit circuit, int vector) {
+        String[] names = {"A", "B", "C"};
+        for (int i = 0; i < names.length; i++) {
+            ((Switch) circuit.findComponentByName(names[i])).setState((vector >> (2 - i) & 1) != 0);
+        }
+    }
+
+    /**
+     * Builds a full adder from two half-adder sub-circuits and an OR gate.
+     */
+    private static Circuit createFullAdder() {
+        Circuit circuit = new Circuit("FullAdder");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Switch c = new Switch("C");
+        SubCircuit first = new SubCircuit("HA1", createHalfAdder());
+        SubCircuit second = new SubCircuit("HA2", createHalfAdder());
+        Or or = new Or("OR");
+        LED sum = new LED("S");
+        LED carry = new LED("COUT");
+        for (Component component : new Component[] {a, b, c, first, second, or, sum, carry}) {
+            circuit.addComponent(component);
+        }
+        connect(circuit, a, 0, first, 0);
+        connect(circuit, b, 0, first, 1);
+        connect(circuit, first, 0, second, 0);
+        connect(circuit, c, 0, second, 1);
+        connect(circuit, first, 1, or, 0);
+        connect(circuit, second, 1, or, 1);
+        connect(circuit, second, 0, sum, 0);
+        connect(circuit, or, 0, carry, 0);
+        return circuit;
+    }
+
+    private static Circuit createHalfAdder() {
+        Circuit circuit = new Circuit("HalfAdder");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Xor xor = new Xor("XOR");
+        And and = new And("AND");
+        LED sum = new LED("SUM");
+        LED carry = new LED("CARRY");
+        for (Component component : new Component[] {a, b, xor, and, sum, carry}) {
+            circuit.addComponent(component);
+        }
+        connect(circuit, a, 0, xor, 0);
+        connect(circuit, b, 0, xor, 1);
+        connect(circuit, a, 0, and, 0);
+        connect(circuit, b, 0, and, 1);
+        connect(circuit, xor, 0, sum, 0);
+        connect(circuit, and, 0, carry, 0);
+        return circuit;
+    }
+
+    private static void connect(Circuit circuit, Component source, int output, Component sink, int port) {
+        Connector connector = new Connector(source, sink);
+        connector.setSourceOutputIndex(output);
+        connector.setSinkInputIndex(port);
+        circuit.addConnector(connector);
+    }
+}
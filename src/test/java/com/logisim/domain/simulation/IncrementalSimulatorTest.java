@@ -0,0 +1,117 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Not;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for IncrementalSimulator.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class IncrementalSimulatorTest {
+
+    @Test
+    void testSetSwitchState_RandomAcyclicCircuits_MatchesFullSimulation() {
+        for (long seed = 0; seed < 50; seed++) {
+            Circuit expected = EventDrivenSimulatorTest.randomCircuit(seed, false);
+            Circuit actual = EventDrivenSimulatorTest.randomCircuit(seed, false);
+            List<Integer> switches = new ArrayList<>();
+            for (int i = 0; i < actual.getComponents().size(); i++) {
+                if (actual.getComponents().get(i) instanceof Switch) {
+                    switches.add(i);
+                }
+            }
+            expected.simulate(new HashMap<>());
+            actual.simulate(new HashMap<>());
+
+            Random random = new Random(seed);
+            for (int step = 0; step < 8; step++) {
+                int index = switches.get(random.nextInt(switches.size()));
+                boolean state = random.nextBoolean();
+                Map<String, Boolean> before = actual.getNetlist().collectOutputs();
+
+                ((Switch) expected.getComponents().get(index)).setState(state);
+                SignalChanges changes = actual.setSwitchState((Switch) actual.getComponents().get(index), state);
+                Map<String, Boolean> outputs = actual.getNetlist().collectOutputs();
+
+                assertFalse(changes.isFullSimulation());
+                assertEquals(expected.simulate(new HashMap<>()), outputs, "seed " + seed + ", step " + step);
+                for (Component component : actual.getComponents()) {
+                    String name = component.getName();
+                    if (outputs.containsKey(name) && !outputs.get(name).equals(before.get(name))) {
+                        assertTrue(changes.contains(component), "seed " + seed + ": " + name + " not reported");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSetSwitchState_NotSettled_SimulatesWholeCircuit() {
+        Circuit circuit = new Circuit("Chain");
+        Switch sw = new Switch("SW");
+        Not first = new Not("N1");
+        Not second = new Not("N2");
+        circuit.addComponent(sw);
+        circuit.addComponent(first);
+        circuit.addComponent(second);
+        circuit.addConnector(new Connector(sw, first));
+        circuit.addConnector(new Connector(first, second));
+
+        SignalChanges changes = circuit.setSwitchState(sw, true);
+        assertTrue(changes.isFullSimulation());
+        assertEquals(3, changes.size());
+        assertTrue(second.getOutputBit(0));
+
+        changes = circuit.setSwitchState(sw, true);
+        assertTrue(changes.isEmpty());
+
+        changes = circuit.setSwitchState(sw, false);
+        assertFalse(changes.isFullSimulation());
+        assertEquals(Map.of("SW", false, "N1", true, "N2", false), changes.getChangedOutputs());
+    }
+
+    @Test
+    void testSetSwitchState_Latch_PropagatesThroughFeedback() {
+        Circuit circuit = new Circuit("Latch");
+        Switch set = new Switch("S");
+        Switch reset = new Switch("R");
+        Nor q = new Nor("Q");
+        Nor qBar = new Nor("QBar");
+        circuit.addComponent(set);
+        circuit.addComponent(reset);
+        circuit.addComponent(q);
+        circuit.addComponent(qBar);
+        circuit.addConnector(new Connector(reset, q));
+        circuit.addConnector(new Connector(set, qBar));
+        circuit.addConnector(new Connector(qBar, q));
+        circuit.addConnector(new Connector(q, qBar));
+        circuit.simulate(new HashMap<>());
+
+        SignalChanges changes = circuit.setSwitchState(set, true);
+        assertTrue(changes.isStable());
+        assertTrue(q.getOutputBit(0));
+        assertFalse(qBar.getOutputBit(0));
+
+        circuit.setSwitchState(set, false);
+        assertTrue(q.getOutputBit(0), "latch holds its state");
+
+        changes = circuit.setSwitchState(reset, true);
+        assertTrue(changes.contains(q));
+        assertFalse(q.getOutputBit(0));
+        assertTrue(qBar.getOutputBit(0));
+    }
+}
@@ -0,0 +1,81 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Nor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Unit tests for LevelizedSchedule.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class LevelizedScheduleTest {
+
+    @Test
+    void testSimulate_RandomAcyclicCircuits_MatchesEventDriven() {
+        for (long seed = 0; seed < 50; seed++) {
+            Circuit expected = EventDrivenSimulatorTest.randomCircuit(seed, false);
+            Circuit actual = EventDrivenSimulatorTest.randomCircuit(seed, false);
+            actual.setSimulationMode(SimulationMode.COMPILED);
+            assertTrue(actual.getSchedule().isAcyclic());
+
+            Random random = new Random(seed);
+            for (int run = 0; run < 4; run++) {
+                for (int i = 0; i < expected.getComponents().size(); i++) {
+                    if (expected.getComponents().get(i) instanceof Switch sw) {
+                        boolean state = random.nextBoolean();
+                        sw.setState(state);
+                        ((Switch) actual.getComponents().get(i)).setState(state);
+                    }
+                }
+                assertEquals(expected.simulate(new HashMap<>()), actual.simulate(new HashMap<>()),
+                        "seed " + seed + ", run " + run);
+            }
+        }
+    }
+
+    @Test
+    void testCompile_FeedbackLoop_IsNotAcyclic() {
+        Circuit circuit = new Circuit("Latch");
+        Nor first = new Nor("N1");
+        Nor second = new Nor("N2");
+        circuit.addComponent(first);
+        circuit.addComponent(second);
+        Connector forward = new Connector(first, second);
+        Connector back = new Connector(second, first);
+        circuit.addConnector(forward);
+        circuit.addConnector(back);
+        circuit.setSimulationMode(SimulationMode.COMPILED);
+
+        assertFalse(circuit.getSchedule().isAcyclic());
+        assertNotNull(circuit.simulate(new HashMap<>()));
+    }
+
+    @Test
+    void testGetSchedule_CircuitModified_Recompiles() {
+        Circuit circuit = new Circuit("Chain");
+        Switch sw = new Switch("SW");
+        And andGate = new And("AND");
+        circuit.addComponent(sw);
+        circuit.addComponent(andGate);
+
+        LevelizedSchedule before = circuit.getSchedule();
+        assertSame(before, circuit.getSchedule());
+        assertEquals(1, before.getLevelCount());
+
+        circuit.addConnector(new Connector(sw, andGate));
+        LevelizedSchedule after = circuit.getSchedule();
+        assertNotSame(before, after);
+        assertEquals(2, after.getLevelCount());
+        assertEquals(0, after.getComponentAt(after.getLevelStart(0)));
+        assertEquals(1, after.getComponentAt(after.getLevelStart(1)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Not;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Unit tests for SccSimulator and StronglyConnectedComponents.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class SccSimulatorTest {
+
+    @Test
+    void testCompute_LatchWithDrivers_GroupsLoopAfterSwitches() {
+        Circuit circuit = new Circuit("Latch");
+        Switch set = new Switch("S");
+        Switch reset = new Switch("R");
+        Nor q = new Nor("Q");
+        Nor qBar = new Nor("QBar");
+        circuit.addComponent(q);
+        circuit.addComponent(qBar);
+        circuit.addComponent(set);
+        circuit.addComponent(reset);
+        circuit.addConnector(new Connector(reset, q));
+        circuit.addConnector(new Connector(set, qBar));
+        circuit.addConnector(new Connector(q, qBar));
+        circuit.addConnector(new Connector(qBar, q));
+
+        StronglyConnectedComponents sccs = circuit.getStronglyConnectedComponents();
+        assertEquals(3, sccs.getCount());
+        assertTrue(sccs.hasFeedback());
+        int loop = sccs.getSccOf(0);
+        assertEquals(loop, sccs.getSccOf(1));
+        assertTrue(sccs.hasFeedback(loop));
+        assertTrue(sccs.getSccOf(2) < loop);
+        assertTrue(sccs.getSccOf(3) < loop);
+
+        set.setState(true);
+        SimulationResult result = circuit.simulateWithDiagnostics(new HashMap<>());
+        assertTrue(result.isStable());
+        assertEquals(1, result.getDiagnostics().size());
+        assertEquals(List.of("Q", "QBar"), result.getDiagnostics().get(0).getComponentNames());
+        assertTrue(result.getOutputs().get("Q"));
+
+        set.setState(false);
+        assertTrue(circuit.simulate(new HashMap<>()).get("Q"), "latch holds its state");
+        reset.setState(true);
+        assertFalse(circuit.simulate(new HashMap<>()).get("Q"));
+    }
+
+    @Test
+    void testSimulate_OddInverterRing_ReportsOscillation() {
+        Circuit circuit = new Circuit("Ring");
+        Not[] ring = new Not[3];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Not("N" + i);
+            circuit.addComponent(ring[i]);
+        }
+        for (int i = 0; i < ring.length; i++) {
+            circuit.addConnector(new Connector(ring[i], ring[(i + 1) % ring.length]));
+        }
+
+        SimulationResult result = circuit.simulateWithDiagnostics(new HashMap<>());
+        assertFalse(result.isStable());
+        SccDiagnostic diagnostic = result.getUnstableLoops().get(0);
+        assertEquals(SccDiagnostic.Status.OSCILLATING, diagnostic.getStatus());
+        assertEquals(3, diagnostic.getComponentNames().size());
+        assertTrue(diagnostic.getPeriod() > 0);
+        assertTrue(diagnostic.getIterations() < EventDrivenSimulator.MAX_ITERATIONS);
+    }
+
+    @Test
+    void testCompute_SelfLoop_HasFeedback() {
+        Circuit circuit = new Circuit("Self");
+        Not not = new Not("N");
+        circuit.addComponent(not);
+        circuit.addConnector(new Connector(not, not));
+
+        StronglyConnectedComponents sccs = circuit.getStronglyConnectedComponents();
+        assertEquals(1, sccs.getCount());
+        assertTrue(sccs.hasFeedback(0));
+        assertEquals(SccDiagnostic.Status.OSCILLATING,
+                circuit.simulateWithDiagnostics(new HashMap<>()).getDiagnostics().get(0).getStatus());
+    }
+}
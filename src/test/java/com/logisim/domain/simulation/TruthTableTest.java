@@ -0,0 +1,69 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for TruthTable.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class TruthTableTest {
+
+    @Test
+    void testAnalyzeTruthTable_RandomCircuits_MatchesRowMaps() {
+        for (long seed = 0; seed < 40; seed++) {
+            boolean cyclic = seed % 2 == 1;
+            List<Map<String, Boolean>> rows = EventDrivenSimulatorTest.randomCircuit(seed, cyclic).analyze();
+            TruthTable table = EventDrivenSimulatorTest.randomCircuit(seed, cyclic).analyzeTruthTable();
+
+            assertEquals(rows.size(), table.getRowCount(), "seed " + seed);
+            for (int row = 0; row < rows.size(); row++) {
+                for (Map.Entry<String, Boolean> cell : rows.get(row).entrySet()) {
+                    assertEquals(cell.getValue(), table.getValue(row, cell.getKey()),
+                            "seed " + seed + ", row " + row + ", " + cell.getKey());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAnalyzeTruthTable_Parallel_MatchesSequential() {
+        for (long seed = 0; seed < 10; seed++) {
+            TruthTable sequential = EventDrivenSimulatorTest.randomCircuit(seed, false).analyzeTruthTable();
+            TruthTable parallel = EventDrivenSimulatorTest.randomCircuit(seed, false)
+                    .analyzeTruthTable(ForkJoinPool.commonPool());
+            assertEquals(sequential, parallel, "seed " + seed);
+        }
+    }
+
+    @Test
+    void testGetInput_RowIndex_FirstInputMostSignificant() {
+        Circuit circuit = EventDrivenSimulatorTest.randomCircuit(3, false);
+        TruthTable table = circuit.analyzeTruthTable();
+        int last = table.getInputCount() - 1;
+
+        assertEquals(1L << table.getInputCount(), table.getRowCount());
+        assertTrue(table.getInput(1, last));
+        assertFalse(table.getInput(1, 0));
+        assertTrue(table.getInput(table.getRowCount() / 2, 0));
+        assertEquals(0, table.indexOfInput(table.getInputName(0)));
+        assertEquals(-1, table.indexOfOutput("Output_missing"));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getOutput(table.getRowCount(), 0));
+    }
+
+    @Test
+    void testBuild_NoRows_IsEmpty() {
+        Circuit circuit = new Circuit("Empty");
+        TruthTable table = circuit.analyzeTruthTable();
+
+        assertTrue(table.isEmpty());
+        assertEquals(0, table.getOutputCount());
+    }
+}
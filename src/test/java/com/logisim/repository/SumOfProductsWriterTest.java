@@ -0,0 +1,71 @@
+package com.logisim.repository;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.Or;
+import com.logisim.domain.simulation.TruthTable;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SumOfProductsWriter.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class SumOfProductsWriterTest {
+
+    @Test
+    void testVisitRow_OrGate_WritesCanonicalSum() throws Exception {
+        Circuit circuit = createOrCircuit();
+
+        StringBuilder sum = new StringBuilder();
+        SumOfProductsWriter writer = new SumOfProductsWriter(sum, "Output_OR");
+        circuit.analyze(writer);
+        writer.finish();
+
+        assertEquals("(!Input_A & Input_B) | (Input_A & !Input_B) | (Input_A & Input_B)", sum.toString());
+        assertEquals(3, writer.getTermCount());
+        assertFalse(writer.isTruncated());
+
+        StringBuilder single = new StringBuilder();
+        SumOfProductsWriter onlyA = new SumOfProductsWriter(single, null);
+        onlyA.writeTerm(term -> term.append("Input_A"));
+        onlyA.finish();
+        assertEquals("Input_A", single.toString());
+    }
+
+    @Test
+    void testWrite_TermCap_SummarizesRemainingTerms() throws Exception {
+        TruthTable table = createOrCircuit().analyzeTruthTable();
+        int column = table.indexOfOutput("Output_OR");
+
+        StringBuilder capped = new StringBuilder();
+        assertEquals(3, SumOfProductsWriter.write(table, column, capped, 2));
+        assertEquals("(!Input_A & Input_B) | (Input_A & !Input_B) | ... (+1 more term)", capped.toString());
+
+        StringBuilder first = new StringBuilder();
+        SumOfProductsWriter.write(table, column, first, 1);
+        assertEquals("(!Input_A & Input_B) | ... (+2 more terms)", first.toString());
+
+        StringBuilder none = new StringBuilder();
+        SumOfProductsWriter.write(table, table.indexOfOutput("Output_A"), none, 0);
+        assertEquals("(Input_A & !Input_B) | (Input_A & Input_B)", none.toString());
+    }
+
+    private static Circuit createOrCircuit() {
+        Circuit circuit = new Circuit("OrCircuit");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Or orGate = new Or("OR");
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(orGate);
+        Connector second = new Connector(b, orGate);
+        second.setSinkInputIndex(1);
+        circuit.addConnector(new Connector(a, orGate));
+        circuit.addConnector(second);
+        return circuit;
+    }
+}
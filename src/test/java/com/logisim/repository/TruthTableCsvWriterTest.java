@@ -0,0 +1,48 @@
+package com.logisim.repository;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TruthTableCsvWriter.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class TruthTableCsvWriterTest {
+
+    @Test
+    void testVisitRow_AndGate_WritesHeaderAndRows() {
+        Circuit circuit = new Circuit("AndCircuit");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        And andGate = new And("AND");
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(andGate);
+        Connector second = new Connector(b, andGate);
+        second.setSinkInputIndex(1);
+        circuit.addConnector(new Connector(a, andGate));
+        circuit.addConnector(second);
+
+        StringBuilder csv = new StringBuilder();
+        TruthTableCsvWriter writer = new TruthTableCsvWriter(csv);
+        circuit.analyze(writer);
+
+        assertEquals("Input_A,Input_B,Output_A,Output_B,Output_AND\n"
+                + "0,0,0,0,0\n"
+                + "0,1,0,1,0\n"
+                + "1,0,1,0,0\n"
+                + "1,1,1,1,1\n", csv.toString());
+        assertEquals(4, writer.getRowCount());
+    }
+
+    @Test
+    void testConstructor_NullOutput_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new TruthTableCsvWriter(null));
+    }
+}
@@ -0,0 +1,150 @@
+package com.logisim.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for BddManager.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class BddManagerTest {
+
+    @Test
+    void testOperations_EquivalentFormulas_ReturnSameNode() {
+        BddManager manager = new BddManager(3);
+        int a = manager.ref(manager.variable(0));
+        int b = manager.ref(manager.variable(1));
+        int c = manager.ref(manager.variable(2));
+
+        int factored = manager.ref(manager.and(a, manager.ref(manager.or(b, c))));
+        int expanded = manager.or(manager.ref(manager.and(a, b)), manager.and(a, c));
+        assertEquals(factored, expanded);
+        assertEquals(BddManager.TRUE, manager.or(a, manager.not(a)));
+        assertEquals(BddManager.FALSE, manager.xor(factored, expanded));
+        assertEquals(BigInteger.valueOf(3), manager.satCount(factored));
+
+        boolean[] assignment = manager.anySat(factored);
+        assertTrue(manager.evaluate(factored, assignment));
+        assertNull(manager.anySat(BddManager.FALSE));
+    }
+
+    @Test
+    void testReorder_SeparatedPairs_ShrinksAndKeepsFunctions() {
+        // (x0 & y0) | (x1 & y1) | ... with all x tested before any y grows exponentially
+        int pairs = 6;
+        BddManager manager = new BddManager(2 * pairs);
+        int f = BddManager.FALSE;
+        for (int i = 0; i < pairs; i++) {
+            int term = manager.and(manager.ref(manager.variable(i)), manager.ref(manager.variable(pairs + i)));
+            int next = manager.ref(manager.or(f, term));
+            manager.deref(f);
+            f = next;
+        }
+        int before = manager.size(f);
+        BigInteger count = manager.satCount(f);
+        long[] onSet = manager.toOnSet(f);
+
+        manager.reorder();
+
+        assertTrue(manager.size(f) < before, "Sifting should shrink the diagram");
+        assertEquals(2 * pairs + 2, manager.size(f));
+        assertEquals(count, manager.satCount(f));
+        assertArrayEquals(onSet, manager.toOnSet(f));
+        assertEquals(1, Math.abs(manager.getLevel(0) - manager.getLevel(pairs)));
+    }
+
+    @Test
+    void testReorder_GrowingDuringSwaps_KeepsUniqueTableConsistent() {
+        int pairs = 6;
+        BddManager manager = new BddManager(2 * pairs, 4);
+        int f = BddManager.FALSE;
+        for (int i = 0; i < pairs; i++) {
+            int term = manager.and(manager.ref(manager.variable(i)), manager.ref(manager.variable(pairs + i)));
+            int next = manager.ref(manager.or(f, term));
+            manager.deref(f);
+            f = next;
+        }
+        long[] onSet = manager.toOnSet(f);
+
+        // Swapping without collecting in between keeps allocating, so the arrays grow mid-swap
+        for (int round = 0; round < 4; round++) {
+            for (int level = 0; level < 2 * pairs - 1; level++) {
+                manager.swapLevels(round % 2 == 0 ? level : 2 * pairs - 2 - level);
+                assertTrue(manager.isUniqueTableConsistent(), "Unique table broken in round " + round);
+            }
+        }
+        manager.reorder();
+
+        assertTrue(manager.isUniqueTableConsistent());
+        assertArrayEquals(onSet, manager.toOnSet(f));
+        assertEquals(2 * pairs + 2, manager.size(f));
+    }
+
+    @Test
+    void testGc_UnreferencedNodes_AreReclaimed() {
+        BddManager manager = new BddManager(8);
+        int kept = manager.ref(manager.and(manager.ref(manager.variable(0)), manager.variable(1)));
+        manager.deref(manager.variable(0));
+        int f = BddManager.TRUE;
+        for (int v = 2; v < 8; v++) {
+            f = manager.xor(f, manager.variable(v));
+        }
+        assertTrue(manager.getNodeCount() > 4);
+
+        assertEquals(4, manager.gc());
+        assertEquals(BigInteger.valueOf(64), manager.satCount(kept));
+    }
+
+    @Test
+    void testCover_RandomFunctions_AreIrredundantAndExact() {
+        Random random = new Random(25);
+        int n = 7;
+        for (int trial = 0; trial < 30; trial++) {
+            BddManager manager = new BddManager(n);
+            long[] expected = {random.nextLong(), random.nextLong()};
+            int f = BddManager.FALSE;
+            for (int row = 0; row < 1 << n; row++) {
+                if ((expected[row >>> 6] >>> (row & 63) & 1L) == 0) {
+                    continue;
+                }
+                int minterm = BddManager.TRUE;
+                for (int v = 0; v < n; v++) {
+                    int literal = manager.variable(v);
+                    boolean value = (row >>> (n - 1 - v) & 1) != 0;
+                    minterm = manager.and(minterm, value ? literal : manager.not(literal));
+                }
+                f = manager.or(f, minterm);
+            }
+            assertArrayEquals(expected, manager.toOnSet(f));
+
+            List<LogicMinimizer.Cube> cover = manager.cover(f);
+            long[] covered = new long[2];
+            for (LogicMinimizer.Cube cube : cover) {
+                long[] others = new long[2];
+                for (int row = 0; row < 1 << n; row++) {
+                    if (cube.contains(row)) {
+                        assertTrue((expected[row >>> 6] >>> (row & 63) & 1L) != 0, "Cube covers an off row");
+                        covered[row >>> 6] |= 1L << (row & 63);
+                    }
+                    for (LogicMinimizer.Cube other : cover) {
+                        if (other != cube && other.contains(row)) {
+                            others[row >>> 6] |= 1L << (row & 63);
+                        }
+                    }
+                }
+                boolean needed = false;
+                for (int row = 0; row < 1 << n; row++) {
+                    needed |= cube.contains(row) && (others[row >>> 6] >>> (row & 63) & 1L) == 0;
+                }
+                assertTrue(needed, "Every product should cover a row no other product covers");
+            }
+            assertArrayEquals(expected, covered);
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package com.logisim.service;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Component;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.SubCircuit;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.gates.And;
+import com.logisim.domain.gates.Nand;
+import com.logisim.domain.gates.Nor;
+import com.logisim.domain.gates.Not;
+import com.logisim.domain.gates.Or;
+import com.logisim.domain.gates.Xor;
+import com.logisim.domain.simulation.ProgressMonitor;
+import com.logisim.domain.simulation.TruthTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for CircuitService.
+ * 
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class CircuitServiceTest {
+    private CircuitService circuitService;
+
+    @BeforeEach
+    void setUp() {
+        circuitService = new CircuitService();
+    }
+
+    @Test
+    void testAnalyzeCircuit_Parallel_MatchesSequential() {
+        List<Map<String, Boolean>> sequential = circuitService.analyzeCircuit(createMixer(14));
+
+        circuitService.setParallelAnalysis(true);
+        Circuit circuit = createMixer(14);
+        List<Map<String, Boolean>> parallel = circuitService.analyzeCircuit(circuit);
+
+        assertEquals(1 << 14, parallel.size());
+        assertEquals(sequential, parallel);
+        assertTrue(((Switch) circuit.findComponentByName("S0")).getState());
+    }
+
+    @Test
+    void testAnalyzeCircuit_NullCircuit_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> circuitService.analyzeCircuit(null));
+    }
+
+    @Test
+    void testAnalyzeCircuit_Streaming_MatchesList() {
+        List<Map<String, Boolean>> expected = circuitService.analyzeCircuit(createMixer(9));
+
+        List<Map<String, Boolean>> streamed = new ArrayList<>();
+        List<Long> indices = new ArrayList<>();
+        circuitService.analyzeCircuit(createMixer(9), row -> {
+            streamed.add(row.toMap());
+            indices.add(row.getIndex());
+        });
+
+        assertEquals(expected, streamed);
+        assertEquals(511L, indices.get(511));
+    }
+
+    @Test
+    void testGenerateExpressions_Streaming_MatchesTruthTable() {
+        Circuit circuit = createMixer(5);
+        List<Map<String, Boolean>> truthTable = circuitService.analyzeCircuit(circuit);
+        List<String> inputVariables = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            inputVariables.add("Input_S" + i);
+        }
+
+        Map<String, String> expected = new BooleanExpressionGenerator()
+                .generateAllExpressions(truthTable, inputVariables);
+
+        assertEquals(expected, circuitService.generateExpressions(circuit));
+    }
+
+    @Test
+    void testAnalyzeCircuitWithExpressions_ColumnarTable_MatchesRowMaps() {
+        List<Map<String, Boolean>> rows = circuitService.analyzeCircuit(createMixer(6));
+        CircuitService.AnalysisResult result = circuitService.analyzeCircuitWithExpressions(createMixer(6));
+
+        assertEquals(List.of("Input_S0", "Input_S1", "Input_S2", "Input_S3", "Input_S4", "Input_S5"),
+                result.getInputVariables());
+        assertEquals(rows.size(), result.getTruthTable().getRowCount());
+        BooleanExpressionGenerator generator = new BooleanExpressionGenerator();
+        for (String output : result.getOutputVariables()) {
+            assertEquals(generator.generateSimplifiedExpression(rows, output, result.getInputVariables()),
+                    result.getBooleanExpressions().get(output), output);
+        }
+    }
+
+    @Test
+    void testAnalyzeCircuitByOutput_Mixer_MatchesFullTable() {
+        TruthTable full = circuitService.analyzeTruthTable(createMixer(6));
+        CircuitService.AnalysisResult result = circuitService.analyzeCircuitByOutput(createMixer(6));
+
+        assertNull(result.getTruthTable());
+        assertEquals(full.getInputNames(), result.getInputVariables());
+        assertEquals(full.getOutputNames(), result.getOutputVariables());
+        for (int o = 0; o < full.getOutputCount(); o++) {
+            TruthTable cone = result.getOutputTables().get(full.getOutputName(o));
+            for (long row = 0; row < full.getRowCount(); row++) {
+                long coneRow = 0;
+                for (int j = 0; j < cone.getInputCount(); j++) {
+                    coneRow = coneRow << 1 | (full.getValue(row, cone.getInputName(j)) ? 1 : 0);
+                }
+                assertEquals(full.getOutput(row, o), cone.getOutput(coneRow, 0), full.getOutputName(o) + " row " + row);
+            }
+        }
+        assertEquals(List.of("Input_S0", "Input_S1"), result.getSupport("Output_G0"));
+    }
+
+    @Test
+    void testAnalyzeCircuitByOutput_WideCircuit_EnumeratesSupportOnly() {
+        Circuit circuit = new Circuit("Wide");
+        List<Switch> switches = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Switch sw = new Switch("S" + i);
+            circuit.addComponent(sw);
+            switches.add(sw);
+        }
+        And and = new And("AND");
+        circuit.addComponent(and);
+        circuit.addConnector(new Connector(switches.get(3), and));
+        Connector right = new Connector(switches.get(37), and);
+        right.setSinkInputIndex(1);
+        circuit.addConnector(right);
+
+        CircuitService.AnalysisResult result = circuitService.analyzeCircuitByOutput(circuit);
+
+        assertEquals(41, result.getOutputVariables().size());
+        assertEquals(4, result.getOutputTables().get("Output_AND").getRowCount());
+        assertEquals("Input_S3 & Input_S37", result.getBooleanExpressions().get("Output_AND"));
+        assertEquals("Input_S12", result.getBooleanExpressions().get("Output_S12"));
+    }
+
+    @Test
+    void testGenerateStructuralExpressions_Mixer_MatchesTruthTable() {
+        Circuit circuit = createMixer(10);
+        TruthTable table = circuitService.analyzeTruthTable(circuit);
+        ExpressionDag dag = new ExpressionDag();
+        Map<String, Integer> outputs = new BooleanExpressionGenerator().extractStructure(circuit, dag);
+
+        assertEquals(table.getOutputNames(), List.copyOf(outputs.keySet()));
+        assertTrue(dag.size() <= circuit.getComponents().size() + 2);
+        for (long row = 0; row < table.getRowCount(); row++) {
+            Map<String, Boolean> assignment = new HashMap<>();
+            for (int j = 0; j < table.getInputCount(); j++) {
+                assignment.put(table.getInputName(j), table.getInput(row, j));
+            }
+            boolean[] values = dag.evaluate(assignment);
+            for (int o = 0; o < table.getOutputCount(); o++) {
+                assertEquals(table.getOutput(row, o), values[outputs.get(table.getOutputName(o))], "row " + row);
+            }
+        }
+    }
+
+    @Test
+    void testGenerateStructuralExpressions_AndOrInvert_StaysFactored() {
+        Circuit circuit = new Circuit("AOI");
+        Switch a = new Switch("A");
+        Switch b = new Switch("B");
+        Switch c = new Switch("C");
+        Nand nand = new Nand("NAND");
+        Nor nor = new Nor("NOR");
+        for (Component component : List.of(a, b, c, nand, nor)) {
+            circuit.addComponent(component);
+        }
+        circuit.addConnector(new Connector(a, nand));
+        Connector second = new Connector(b, nand);
+        second.setSinkInputIndex(1);
+        circuit.addConnector(second);
+        circuit.addConnector(new Connector(nand, nor));
+        Connector third = new Connector(c, nor);
+        third.setSinkInputIndex(1);
+        circuit.addConnector(third);
+
+        Map<String, String> expressions = circuitService.generateStructuralExpressions(circuit);
+
+        assertEquals("Input_A", expressions.get("Output_A"));
+        assertEquals("!(Input_A & Input_B)", expressions.get("Output_NAND"));
+        assertEquals("!(Input_C | !(Input_A & Input_B))", expressions.get("Output_NOR"));
+    }
+
+    @Test
+    void testGenerateStructuralExpressions_ReconvergentFanout_NamesSharedGates() {
+        Map<String, String> small = circuitService.generateStructuralExpressions(createReconvergentChain(2));
+        assertEquals("t7 = (Input_S0 & Input_S1) | (Input_S0 ^ Input_S1); (Input_S2 & t7) | (Input_S2 ^ t7)",
+                small.get("Output_OR2"));
+
+        String deep = circuitService.generateStructuralExpressions(createReconvergentChain(30)).get("Output_OR30");
+        assertTrue(deep.length() < 4000, "expression has " + deep.length() + " characters");
+        assertEquals(29, deep.split(" = ", -1).length - 1);
+    }
+
+    @Test
+    void testRunBatch_TestVectorFile_WritesOutputVectors() {
+        Circuit circuit = createMixer(3);
+        StringWriter out = new StringWriter();
+
+        long count = circuitService.runBatch(circuit, new StringReader("# S0 S1 S2\n110\n\n0_01\n"), out);
+
+        assertEquals(2, count);
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        long[] packed = circuitService.runBatch(circuit, new long[] {0b011, 0b100}, 2);
+        for (int v = 0; v < 2; v++) {
+            for (int o = 0; o < lines[v].length(); o++) {
+                assertEquals(lines[v].charAt(o) == '1', (packed[v] >>> o & 1L) != 0);
+            }
+        }
+        // S0 and S1 on: G0 = S0 ^ S1 is off
+        assertEquals('0', lines[0].charAt(3));
+        assertThrows(IllegalArgumentException.class,
+                () -> circuitService.runBatch(circuit, new StringReader("10\n"), new StringWriter()));
+    }
+
+    @Test
+    void testAnalyzeTruthTableAsync_CompletesWithProgress() throws Exception {
+        ProgressMonitor monitor = new ProgressMonitor();
+        TruthTable table = circuitService.analyzeTruthTableAsync(createMixer(12), monitor).get(30, TimeUnit.SECONDS);
+
+        assertEquals(circuitService.analyzeTruthTable(createMixer(12)), table);
+        assertEquals(1 << 12, monitor.getTotal());
+        assertEquals(1 << 12, monitor.getCompleted());
+        assertEquals(1.0, monitor.getFraction());
+    }
+
+    @Test
+    void testAnalyzeTruthTableAsync_Cancelled_CompletesExceptionally() {
+        ProgressMonitor monitor = new ProgressMonitor();
+        monitor.cancel();
+        CompletableFuture<TruthTable> future = circuitService.analyzeTruthTableAsync(createMixer(12), monitor);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, error.getCause());
+        assertEquals(0, monitor.getCompleted());
+
+        ProgressMonitor linked = new ProgressMonitor();
+        CompletableFuture<List<Map<String, Boolean>>> rows = circuitService.analyzeCircuitAsync(createMixer(20), linked);
+        rows.cancel(true);
+        assertTrue(linked.isCancelled());
+    }
+
+    @Test
+    void testAnalyzeTruthTableAsync_Running_LocksCircuit() throws Exception {
+        List<Runnable> pending = new ArrayList<>();
+        CircuitService service = new CircuitService(pending::add);
+        Circuit circuit = createMixer(4);
+        CompletableFuture<TruthTable> future = service.analyzeTruthTableAsync(circuit, new ProgressMonitor());
+
+        assertTrue(service.isRunning(circuit));
+        assertThrows(IllegalStateException.class, () -> service.addComponent(circuit, new Switch("Extra")));
+        assertThrows(IllegalStateException.class, () -> service.runSimulation(circuit, new HashMap<>()));
+        assertThrows(IllegalStateException.class, () -> service.generateStructuralExpressions(circuit));
+        assertThrows(IllegalStateException.class, () -> service.analyzeBdds(circuit));
+        assertThrows(IllegalStateException.class, () -> service.compileCircuit(circuit));
+        assertThrows(IllegalStateException.class,
+                () -> service.analyzeTruthTableAsync(circuit, new ProgressMonitor()));
+        assertFalse(service.isRunning(createMixer(4)));
+
+        pending.get(0).run();
+        assertEquals(1 << 4, future.get(30, TimeUnit.SECONDS).getRowCount());
+        assertFalse(service.isRunning(circuit));
+        service.addComponent(circuit, new Switch("Extra"));
+        assertNotNull(circuit.findComponentByName("Extra"));
+    }
+
+    @Test
+    void testClose_OwnExecutor_RejectsNewTasks() {
+        circuitService.close();
+
+        assertThrows(RejectedExecutionException.class,
+                () -> circuitService.analyzeTruthTableAsync(createMixer(4), new ProgressMonitor()));
+        Circuit circuit = createMixer(4);
+        assertThrows(RejectedExecutionException.class,
+                () -> circuitService.runSimulationAsync(circuit, new HashMap<>()));
+        assertFalse(circuitService.isRunning(circuit));
+    }
+
+    @Test
+    void testClose_CallerExecutor_LeftRunning() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new CircuitService(executor).close();
+
+            assertFalse(executor.isShutdown());
+            assertEquals(1, executor.submit(() -> 1).get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAnalyzeCircuitWithExpressions_Unchanged_ReusesResult() {
+        Circuit circuit = createMixer(8);
+        CircuitService.AnalysisResult first = circuitService.analyzeCircuitWithExpressions(circuit);
+        assertSame(first, circuitService.analyzeCircuitWithExpressions(circuit));
+        assertSame(first.getTruthTable(), circuitService.analyzeTruthTable(circuit));
+        assertSame(circuitService.compileCircuit(circuit), circuitService.compileCircuit(circuit));
+
+        long version = circuit.getVersion();
+        circuit.findComponentByName("S0").setName("A");
+        assertTrue(circuit.getVersion() > version);
+        CircuitService.AnalysisResult renamed = circuitService.analyzeCircuitWithExpressions(circuit);
+        assertNotSame(first, renamed);
+        assertEquals("Input_A", renamed.getInputVariables().get(0));
+
+        circuit.addComponent(new Switch("Extra"));
+        assertEquals(1 << 9, circuitService.analyzeTruthTable(circuit).getRowCount());
+    }
+
+    @Test
+    void testAnalyzeTruthTable_InternalCircuitSwapped_Reanalyzes() {
+        Circuit outer = new Circuit("Outer");
+        Switch input = new Switch("S");
+        SubCircuit sub = new SubCircuit("Sub", createInverterChain(1));
+        outer.addComponent(input);
+        outer.addComponent(sub);
+        outer.addConnector(new Connector(input, sub));
+
+        TruthTable inverted = circuitService.analyzeTruthTable(outer);
+        assertEquals(Boolean.TRUE, inverted.getValue(0, "Output_Sub"));
+
+        long version = outer.getVersion();
+        sub.setInternalCircuit(createInverterChain(2));
+        assertTrue(outer.getVersion() > version);
+        TruthTable buffered = circuitService.analyzeTruthTable(outer);
+        assertNotSame(inverted, buffered);
+        assertEquals(Boolean.FALSE, buffered.getValue(0, "Output_Sub"));
+    }
+
+    @Test
+    void testAnalysisCache_ManyCircuits_EvictsLeastRecentlyUsed() {
+        int capacity = circuitService.getAnalysisCache().getCapacity();
+        Circuit first = createMixer(3);
+        TruthTable table = circuitService.analyzeTruthTable(first);
+        for (int i = 0; i < capacity; i++) {
+            circuitService.analyzeTruthTable(createMixer(3));
+        }
+
+        assertEquals(capacity, circuitService.getAnalysisCache().size());
+        assertNotSame(table, circuitService.analyzeTruthTable(first));
+    }
+
+    @Test
+    void testAnalyzeBdds_Mixer_MatchesTruthTable() {
+        Circuit circuit = createMixer(10);
+        TruthTable expected = circuitService.analyzeTruthTable(circuit);
+        BddAnalysis analysis = circuitService.analyzeBdds(circuit);
+        TruthTable actual = analysis.toTruthTable();
+
+        assertEquals(expected.getInputCount(), actual.getInputCount());
+        assertEquals(expected.getOutputCount(), actual.getOutputCount());
+        for (int o = 0; o < expected.getOutputCount(); o++) {
+            String output = expected.getOutputName(o);
+            assertEquals(output, actual.getOutputName(o));
+            long minterms = 0;
+            for (int word = 0; word < expected.getWordCount(); word++) {
+                assertEquals(expected.getOutputWord(o, word), actual.getOutputWord(o, word), output);
+                minterms += Long.bitCount(expected.getOutputWord(o, word));
+            }
+            assertEquals(minterms, analysis.countMinterms(output).longValueExact());
+            assertEquals(minterms > 0, analysis.isSatisfiable(output));
+        }
+        assertSame(analysis, circuitService.analyzeBdds(circuit));
+    }
+
+    @Test
+    void testAnalyzeBdds_FortyInputs_AnalyzesWithoutEnumeration() {
+        // OR of 20 pairwise ANDs, with every first switch added before every second one
+        Circuit circuit = new Circuit("Pairs");
+        int pairs = 20;
+        List<Switch> switches = new ArrayList<>();
+        for (int i = 0; i < 2 * pairs; i++) {
+            Switch sw = new Switch((i < pairs ? "A" : "B") + i % pairs);
+            circuit.addComponent(sw);
+            switches.add(sw);
+        }
+        Component sum = null;
+        for (int i = 0; i < pairs; i++) {
+            And and = new And("P" + i);
+            circuit.addComponent(and);
+            Connector left = new Connector(switches.get(i), and);
+            Connector right = new Connector(switches.get(pairs + i), and);
+            right.setSinkInputIndex(1);
+            circuit.addConnector(left);
+            circuit.addConnector(right);
+            if (sum == null) {
+                sum = and;
+                continue;
+            }
+            Or or = new Or("Sum" + i);
+            circuit.addComponent(or);
+            Connector previous = new Connector(sum, or);
+            Connector next = new Connector(and, or);
+            next.setSinkInputIndex(1);
+            circuit.addConnector(previous);
+            circuit.addConnector(next);
+            sum = or;
+        }
+
+        BddAnalysis analysis = circuitService.analyzeBdds(circuit);
+        String output = "Output_" + sum.getName();
+        assertEquals(40, analysis.getInputVariables().size());
+        assertEquals(BigInteger.ONE.shiftLeft(40).subtract(BigInteger.valueOf(3).pow(pairs)),
+                analysis.countMinterms(output));
+        assertTrue(analysis.getNodeCount() < 10_000);
+
+        Map<String, Boolean> witness = analysis.findSatisfying(output);
+        boolean anyPair = false;
+        for (int i = 0; i < pairs; i++) {
+            anyPair |= witness.get("Input_A" + i) && witness.get("Input_B" + i);
+        }
+        assertTrue(anyPair);
+        assertEquals(pairs, analysis.getCover(output).size());
+    }
+
+    /**
+     * Builds a circuit of one switch driving a chain of inverters.
+     */
+    private static Circuit createInverterChain(int length) {
+        Circuit circuit = new Circuit("Chain" + length);
+        Component previous = new Switch("X");
+        circuit.addComponent(previous);
+        for (int i = 0; i < length; i++) {
+            Not not = new Not("N" + i);
+            circuit.addComponent(not);
+            circuit.addConnector(new Connector(previous, not));
+            previous = not;
+        }
+        return circuit;
+    }
+
+    /**
+     * Builds a chain whose every level feeds the previous OR gate into both an AND and an XOR gate.
+     */
+    private static Circuit createReconvergentChain(int levels) {
+        Circuit circuit = new Circuit("Reconvergent" + levels);
+        Component previous = new Switch("S0");
+        circuit.addComponent(previous);
+        for (int i = 1; i <= levels; i++) {
+            Switch sw = new Switch("S" + i);
+            And and = new And("AND" + i);
+            Xor xor = new Xor("XOR" + i);
+            Or or = new Or("OR" + i);
+            for (Component component : List.of(sw, and, xor, or)) {
+                circuit.addComponent(component);
+            }
+            for (Component gate : List.of(and, xor)) {
+                circuit.addConnector(new Connector(previous, gate));
+                Connector right = new Connector(sw, gate);
+                right.setSinkInputIndex(1);
+                circuit.addConnector(right);
+            }
+            circuit.addConnector(new Connector(and, or));
+            Connector right = new Connector(xor, or);
+            right.setSinkInputIndex(1);
+            circuit.addConnector(right);
+            previous = or;
+        }
+        return circuit;
+    }
+
+    /**
+     * Builds a layered circuit mixing every switch through AND, OR and XOR gates.
+     */
+    static Circuit createMixer(int inputs) {
+        Circuit circuit = new Circuit("Mixer" + inputs);
+        List<Component> layer = new ArrayList<>();
+        for (int i = 0; i < inputs; i++) {
+            Switch sw = new Switch("S" + i);
+            circuit.addComponent(sw);
+            layer.add(sw);
+        }
+        int gate = 0;
+        while (layer.size() > 1) {
+            List<Component> next = new ArrayList<>();
+            for (int i = 0; i + 1 < layer.size(); i += 2) {
+                Component component = switch (gate % 3) {
+                    case 0 -> new Xor("G" + gate);
+                    case 1 -> new And("G" + gate);
+                    default -> new Or("G" + gate);
+                };
+                gate++;
+                circuit.addComponent(component);
+                Connector left = new Connector(layer.get(i), component);
+                Connector right = new Connector(layer.get(i + 1), component);
+                right.setSinkInputIndex(1);
+                circuit.addConnector(left);
+                circuit.addConnector(right);
+                next.add(component);
+            }
+            if (layer.size() % 2 == 1) {
+                next.add(layer.get(layer.size() - 1));
+            }
+            layer = next;
+        }
+        return circuit;
+    }
+}
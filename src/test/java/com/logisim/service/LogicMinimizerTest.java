@@ -0,0 +1,110 @@
+package com.logisim.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit tests for LogicMinimizer.
+ *
+ * @author LogiSim Team
+ * @version 1.0
+ */
+class LogicMinimizerTest {
+
+    @Test
+    void testMinimize_CyclicCover_FindsMinimumSum() {
+        // f(A,B,C) = m(0,1,2,5,6,7) has six primes and two minimum covers of three products
+        long[] onSet = {0b11100111L};
+        List<LogicMinimizer.Cube> cover = LogicMinimizer.minimize(onSet, 3);
+
+        assertEquals(3, cover.size());
+        assertEquals(6, cover.stream().mapToInt(LogicMinimizer.Cube::getLiteralCount).sum());
+        assertCovers(onSet, 3, cover);
+        assertEquals("(!A & !B) | (B & !C) | (A & C)",
+                BooleanExpressionGenerator.formatCover(cover, List.of("A", "B", "C")));
+    }
+
+    @Test
+    void testMinimize_ConstantFunctions_ReturnsConstants() {
+        assertTrue(LogicMinimizer.minimize(new long[1], 4).isEmpty());
+        List<LogicMinimizer.Cube> tautology = LogicMinimizer.minimize(new long[] {-1L}, 4);
+        assertEquals(1, tautology.size());
+        assertEquals("1", tautology.get(0).toExpression(List.of("A", "B", "C", "D")));
+    }
+
+    @Test
+    void testMinimize_RandomFunctions_CoverExactlyTheOnSet() {
+        Random random = new Random(7);
+        for (int n : new int[] {5, 8, 10, 14}) {
+            long[] onSet = new long[LogicMinimizer.wordCount(n)];
+            for (int word = 0; word < onSet.length; word++) {
+                // Sparse structured functions give the heuristic something to merge
+                onSet[word] = random.nextLong() & random.nextLong() | (word % 3 == 0 ? 0xFF00FF00FF00FF00L : 0);
+            }
+            List<LogicMinimizer.Cube> cover = LogicMinimizer.minimize(onSet, n);
+            assertCovers(onSet, n, cover);
+            for (LogicMinimizer.Cube cube : cover) {
+                for (long care = cube.getCare(); care != 0; care &= care - 1) {
+                    long raised = cube.getCare() & ~Long.lowestOneBit(care);
+                    assertFalse(LogicMinimizer.isImplicant(onSet, n, raised, cube.getValue() & raised),
+                            "product is not prime for n = " + n);
+                }
+            }
+        }
+
+        // Adjacent minterms 2^n apart merge into a single product
+        long[] pair = new long[LogicMinimizer.wordCount(12)];
+        pair[0] = 1L;
+        pair[pair.length / 2] = 1L;
+        List<String> names = new ArrayList<>();
+        for (int j = 0; j < 12; j++) {
+            names.add("I" + j);
+        }
+        List<LogicMinimizer.Cube> cover = LogicMinimizer.minimize(pair, 12);
+        assertEquals(1, cover.size());
+        assertEquals(11, cover.get(0).getLiteralCount());
+        assertFalse(cover.get(0).toExpression(names).contains("I0"));
+    }
+
+    @Test
+    void testMinimizeAll_OverlappingOutputs_SharesProducts() {
+        // f1 = m(2,3,7) and f2 = m(4,5,7) need four products apart but three together
+        long[][] onSets = {{0b10001100L}, {0b10110000L}};
+        LogicMinimizer.SharedCover cover = LogicMinimizer.minimizeAll(onSets, 3);
+
+        assertEquals(3, cover.getProducts().size());
+        assertEquals(1, cover.getSharedProductCount());
+        List<String> names = List.of("A", "B", "C");
+        assertEquals("(!A & B) | (A & B & C)", BooleanExpressionGenerator.formatCover(cover.getOutputProducts(0), names));
+        assertEquals("(A & !B) | (A & B & C)", BooleanExpressionGenerator.formatCover(cover.getOutputProducts(1), names));
+
+        Random random = new Random(11);
+        long[][] wide = new long[6][LogicMinimizer.wordCount(10)];
+        for (long[] onSet : wide) {
+            for (int word = 0; word < onSet.length; word++) {
+                onSet[word] = random.nextLong() | random.nextLong();
+            }
+        }
+        LogicMinimizer.SharedCover shared = LogicMinimizer.minimizeAll(wide, 10);
+        Set<LogicMinimizer.Cube> independent = new HashSet<>();
+        for (int o = 0; o < wide.length; o++) {
+            assertCovers(wide[o], 10, shared.getOutputProducts(o));
+            independent.addAll(LogicMinimizer.minimize(wide[o], 10));
+        }
+        assertTrue(shared.getProducts().size() <= independent.size());
+    }
+
+    private static void assertCovers(long[] onSet, int n, List<LogicMinimizer.Cube> cover) {
+        for (long row = 0; row < 1L << n; row++) {
+            boolean expected = (onSet[(int) (row >>> 6)] >>> row & 1L) != 0;
+            final long r = row;
+            assertEquals(expected, cover.stream().anyMatch(cube -> cube.contains(r)), "row " + row);
+        }
+    }
+}